@@ -0,0 +1,58 @@
+package com.redcatdev86.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Runs the benchmarks with the usual JMH command line, writing JSON results to
+ * {@code results/jmh-<timestamp>.json} unless {@code -rf}/{@code -rff} say otherwise.
+ * Two result files can be compared with any JMH visualizer.
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cmd);
+
+        // The listing and help flags, as JMH's own Main handles them
+        if (cmd.shouldHelp()) {
+            cmd.showHelp();
+            return;
+        }
+        if (cmd.shouldList() || cmd.shouldListWithParams() || cmd.shouldListProfilers() || cmd.shouldListResultFormats()) {
+            Runner runner = new Runner(cmd);
+            if (cmd.shouldList()) runner.list();
+            if (cmd.shouldListWithParams()) runner.listWithParams(cmd);
+            if (cmd.shouldListProfilers()) cmd.listProfilers();
+            if (cmd.shouldListResultFormats()) cmd.listResultFormats();
+            return;
+        }
+
+        if (cmd.getResultFormat().hasValue() || cmd.getResult().hasValue()) {
+            new Runner(options.build()).run();
+            return;
+        }
+
+        Path results = Paths.get("results");
+        Files.createDirectories(results);
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        options.resultFormat(ResultFormatType.JSON)
+                .result(results.resolve("jmh-" + stamp + ".json").toString());
+        new Runner(options.build()).run();
+    }
+}
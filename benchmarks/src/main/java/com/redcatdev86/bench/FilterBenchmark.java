@@ -0,0 +1,100 @@
+package com.redcatdev86.bench;
+
+import com.redcatdev86.index.InjuryFilter;
+import com.redcatdev86.index.RowIds;
+import com.redcatdev86.model.CareerSave;
+import com.redcatdev86.model.Injury;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The table filter behind the search field and quick filters ({@link InjuryFilter}).
+ * <p>
+ * {@code cold*} includes building the indexes, as on the first query after selecting a
+ * save; the others reuse a warmed filter. The result is the positions the table shows, so
+ * nothing else runs over the rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FilterBenchmark {
+
+    private static final String[] TYPING = {"r", "ro", "ros", "ross", "rossi"};
+
+    @Param({"10", "10000", "1000000"})
+    public int injuries;
+
+    private List<Injury> rows;
+    private RowIds ids;
+    private InjuryFilter warm;
+
+    @Setup
+    public void setUp() {
+        CareerSave save = SyntheticData.generate(42, 1, injuries).get(0);
+        rows = save.getInjuries();
+        ids = new RowIds(rows.size());
+        warm = new InjuryFilter();
+        warm.setSource(rows, ids);
+        warm.apply("rossi", SyntheticData.TODAY, SyntheticData.TODAY.plusDays(7));
+    }
+
+    @Benchmark
+    public void coldQuery(Blackhole bh) {
+        InjuryFilter filter = new InjuryFilter();
+        filter.setSource(rows, ids);
+        consume(filter.apply("rossi", null, null), bh);
+    }
+
+    @Benchmark
+    public void query(Blackhole bh) {
+        consume(warm.apply("silva", null, null), bh);
+    }
+
+    @Benchmark
+    public void shortQuery(Blackhole bh) {
+        consume(warm.apply("si", null, null), bh);
+    }
+
+    /**
+     * One keystroke at a time, so each step narrows the previous result.
+     */
+    @Benchmark
+    public void typing(Blackhole bh) {
+        for (String q : TYPING) {
+            consume(warm.apply(q, null, null), bh);
+        }
+    }
+
+    @Benchmark
+    public void coldDateRange(Blackhole bh) {
+        InjuryFilter filter = new InjuryFilter();
+        filter.setSource(rows, ids);
+        consume(filter.apply("", SyntheticData.TODAY.plusDays(1), SyntheticData.TODAY.plusDays(7)), bh);
+    }
+
+    @Benchmark
+    public void queryAndDateRange(Blackhole bh) {
+        consume(warm.apply("rossi", LocalDate.MIN, SyntheticData.TODAY), bh);
+    }
+
+    private void consume(int[] matches, Blackhole bh) {
+        bh.consume(matches == null ? rows.size() : matches.length);
+    }
+}
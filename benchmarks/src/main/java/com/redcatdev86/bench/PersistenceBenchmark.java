@@ -0,0 +1,128 @@
+package com.redcatdev86.bench;
+
+import com.redcatdev86.model.CareerSave;
+import com.redcatdev86.storage.JsonDataStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * {@link JsonDataStore#load} and {@link JsonDataStore#save} on a file of generated saves.
+ * {@link LargeFile} loads one file of a few hundred MB, with the peak heap of each load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PersistenceBenchmark {
+
+    @Param({"1", "5"})
+    public int saves;
+
+    @Param({"10", "10000", "1000000"})
+    public int injuries;
+
+    private final JsonDataStore store = new JsonDataStore();
+    private Path dir;
+    private Path existing;
+    private Path target;
+    private List<CareerSave> data;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("fc-bench");
+        existing = dir.resolve("existing.json");
+        target = dir.resolve("target.json");
+        data = SyntheticData.generate(42, saves, injuries);
+        store.save(existing, data);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<CareerSave> load() throws IOException {
+        return store.load(existing);
+    }
+
+    @Benchmark
+    public Path save() throws IOException {
+        store.save(target, data);
+        return target;
+    }
+
+    /**
+     * Single-shot loads of a file of about 300 MB: the streaming {@link JsonDataStore#load}
+     * against reading the whole document as a String first, as load did before. Both parse
+     * with the same mapper, so only the reading differs. Run with
+     * {@code -prof com.redcatdev86.bench.PeakHeapProfiler} for the peak heap of each load,
+     * and {@code -prof gc} for the bytes allocated.
+     */
+    @State(Scope.Benchmark)
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    @Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+    public static class LargeFile {
+
+        @Param({"40"})
+        public int saves;
+
+        @Param({"100000"})
+        public int injuries;
+
+        private final JsonDataStore store = new JsonDataStore();
+        private Path dir;
+        private Path file;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            dir = Files.createTempDirectory("fc-bench");
+            file = dir.resolve("large.json");
+            store.save(file, SyntheticData.generate(42, saves, injuries));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(dir);
+        }
+
+        @Benchmark
+        public List<CareerSave> streamingLoad() throws IOException {
+            return store.load(file);
+        }
+
+        @Benchmark
+        public List<CareerSave> stringLoad() throws IOException {
+            return store.parse(Files.readString(file));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.redcatdev86.bench;
+
+import com.redcatdev86.model.CareerSave;
+import com.redcatdev86.storage.CareerSaveRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The duplicate-name check run by "+ New save", for a name that exists and one that does not:
+ * the linear scan ({@link CareerSave#containsName}) against the repository's name index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SaveNameBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int saves;
+
+    private List<CareerSave> data;
+    private CareerSaveRepository repository;
+    private String existingName;
+
+    @Setup
+    public void setUp() {
+        data = SyntheticData.emptySaves(saves);
+        repository = new CareerSaveRepository();
+        repository.replaceAll(data);
+        // Last one, lower-cased: the worst case for a scan, and exercises the case folding
+        existingName = data.get(saves - 1).getName().toLowerCase();
+    }
+
+    @Benchmark
+    public boolean existingName() {
+        return CareerSave.containsName(data, existingName);
+    }
+
+    @Benchmark
+    public boolean newName() {
+        return CareerSave.containsName(data, "Brand new career");
+    }
+
+    @Benchmark
+    public boolean indexedExistingName() {
+        return repository.containsName(existingName);
+    }
+
+    @Benchmark
+    public boolean indexedNewName() {
+        return repository.containsName("Brand new career");
+    }
+}
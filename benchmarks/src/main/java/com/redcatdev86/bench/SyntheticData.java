@@ -0,0 +1,86 @@
+package com.redcatdev86.bench;
+
+import com.redcatdev86.model.CareerSave;
+import com.redcatdev86.model.Injury;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded generator of career saves for benchmarks: the same seed and sizes always give the
+ * same saves, so runs stay comparable.
+ */
+public final class SyntheticData {
+
+    public static final int MIN_INJURIES = 10;
+    public static final int MAX_INJURIES = 1_000_000;
+
+    // Fixed, not LocalDate.now(), so date filters select the same rows on every run
+    public static final LocalDate TODAY = LocalDate.of(2025, 1, 1);
+
+    private static final String[] FIRST = {
+            "Lionel", "Cristiano", "Kylian", "Erling", "Kevin", "Mohamed", "Harry", "Robert",
+            "Virgil", "Luka", "Karim", "Neymar", "Jude", "Vinicius", "Bukayo", "Pedri",
+            "Gavi", "Rodri", "Bernardo", "Phil", "Marcus", "Jamal", "Florian", "Lautaro"
+    };
+
+    private static final String[] LAST = {
+            "Rossi", "Bianchi", "Silva", "Santos", "Muller", "Schmidt", "Garcia", "Martinez",
+            "Dubois", "Laurent", "Smith", "Johnson", "Kowalski", "Novak", "Jansen", "De Vries",
+            "Ferrari", "Romano", "Costa", "Pereira", "Fernandez", "Lopez", "Moreau", "Bernard",
+            "Petrov", "Ivanov", "Andersen", "Nielsen", "Eriksson", "Larsen", "Horvat", "Kovac"
+    };
+
+    private SyntheticData() {
+    }
+
+    /**
+     * {@code saveCount} saves of {@code injuriesPerSave} injuries each. Each save draws from
+     * a squad of a few hundred players, and recovery dates fall within a year of {@link #TODAY}.
+     */
+    public static List<CareerSave> generate(long seed, int saveCount, int injuriesPerSave) {
+        if (saveCount < 1) {
+            throw new IllegalArgumentException("saveCount must be at least 1: " + saveCount);
+        }
+        if (injuriesPerSave < MIN_INJURIES || injuriesPerSave > MAX_INJURIES) {
+            throw new IllegalArgumentException("injuriesPerSave must be between " + MIN_INJURIES
+                    + " and " + MAX_INJURIES + ": " + injuriesPerSave);
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        List<CareerSave> saves = new ArrayList<>(saveCount);
+        for (int s = 0; s < saveCount; s++) {
+            String[] squad = squad(random, 300);
+            CareerSave save = new CareerSave("Career " + (s + 1));
+            List<Injury> injuries = new ArrayList<>(injuriesPerSave);
+            for (int i = 0; i < injuriesPerSave; i++) {
+                String player = squad[random.nextInt(squad.length)];
+                injuries.add(new Injury(player, TODAY.plusDays(random.nextInt(-365, 366))));
+            }
+            save.setInjuries(injuries);
+            saves.add(save);
+        }
+        return saves;
+    }
+
+    /**
+     * Names of {@code count} saves, for benchmarks that only look at save names.
+     */
+    public static List<CareerSave> emptySaves(int count) {
+        List<CareerSave> saves = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            saves.add(new CareerSave("Career " + (i + 1)));
+        }
+        return saves;
+    }
+
+    private static String[] squad(SplittableRandom random, int size) {
+        String[] names = new String[size];
+        for (int i = 0; i < size; i++) {
+            names[i] = FIRST[random.nextInt(FIRST.length)] + " " + LAST[random.nextInt(LAST.length)];
+        }
+        return names;
+    }
+}
@@ -10,9 +10,12 @@ import javafx.stage.Stage;
 
 public class MainApp extends Application {
 
+    private MainView view;
+
     @Override
     public void start(Stage stage) {
-        Application.setUserAgentStylesheet(new CupertinoLight().getUserAgentStylesheet());        MainView view = new MainView();
+        Application.setUserAgentStylesheet(new CupertinoLight().getUserAgentStylesheet());
+        view = new MainView();
         Scene scene = new Scene(view.build(stage), 900, 560);
 
         scene.getStylesheets().add(
@@ -23,6 +26,13 @@ public class MainApp extends Application {
         stage.show();
     }
 
+    @Override
+    public void stop() {
+        if (view != null) {
+            view.shutdown();
+        }
+    }
+
     public static void main(String[] args) {
         launch();
     }
@@ -0,0 +1,411 @@
+package com.redcatdev86.cli;
+
+import com.redcatdev86.model.CareerSave;
+import com.redcatdev86.model.Injury;
+import com.redcatdev86.model.InjuryColumns;
+import com.redcatdev86.storage.AppPaths;
+import com.redcatdev86.storage.CsvInjuryReader;
+import com.redcatdev86.storage.FormatDetectingDataStore;
+import com.redcatdev86.storage.InjuryExporter;
+import com.redcatdev86.storage.JournaledStore;
+import com.redcatdev86.storage.ShardedDataStore;
+
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Headless entry point for scripts and maintenance, without the JavaFX toolkit (nothing in
+ * here loads a JavaFX class):
+ * <pre>
+ * java -cp "app/*:app/lib/*" com.redcatdev86.cli.FcCli &lt;command&gt; [options]
+ * </pre>
+ * Commands read the app's default data file unless {@code --file} names another. Results go
+ * to stdout as they are produced; messages go to stderr. The exit status is 0 on success,
+ * 1 when {@code validate} finds errors and 2 on bad usage or I/O errors.
+ */
+public final class FcCli {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static final String USAGE = """
+            Usage: FcCli <command> [options]
+
+            Commands:
+              query     Print injuries as CSV (or NDJSON)
+                          --save NAME      only this save
+                          --player TEXT    player name contains TEXT (any case)
+                          --from DATE      recovery date on or after DATE
+                          --to DATE        recovery date on or before DATE
+                          --within DAYS    back within DAYS days (tomorrow up to today + DAYS)
+                          --format csv|ndjson
+              stats     Per-save counts, players and recovery dates
+              validate  Check names, counts and rows; exit status 1 on errors
+              convert OUT
+                        Write the data as OUT, format and compression by its extension
+                        (.json, .fcb, optionally .gz or .zz)
+              merge OUT IN...
+                        Write the saves of the data file and every IN as OUT; saves with
+                        the same name are combined and identical rows kept once
+              compact   Rewrite the app's store, folding its journal into fresh shards
+
+            Options for every command:
+              --file PATH       data file (default: the app's)
+            Dates are yyyy-MM-dd, dd/MM/yyyy or dd.MM.yyyy.
+            """;
+
+    private final PrintStream err;
+
+    private FcCli(PrintStream err) {
+        this.err = err;
+    }
+
+    public static void main(String[] args) {
+        System.exit(new FcCli(System.err).run(args));
+    }
+
+    int run(String[] args) {
+        if (args.length == 0 || args[0].equals("-h") || args[0].equals("--help") || args[0].equals("help")) {
+            err.print(USAGE);
+            return args.length == 0 ? 2 : 0;
+        }
+        try {
+            Args a = new Args(args);
+            return switch (args[0]) {
+                case "query" -> query(a);
+                case "stats" -> stats(a);
+                case "validate" -> validate(a);
+                case "convert" -> convert(a);
+                case "merge" -> merge(a);
+                case "compact" -> compact(a);
+                default -> throw new UsageException("Unknown command: " + args[0]);
+            };
+        } catch (UsageException e) {
+            err.println(e.getMessage());
+            err.println("Run with --help for the commands and options.");
+            return 2;
+        } catch (IOException e) {
+            err.println("Error: " + e.getMessage());
+            return 2;
+        }
+    }
+
+    // ----------------------------
+    // Commands
+    // ----------------------------
+    private int query(Args a) throws IOException, UsageException {
+        String saveName = a.option("--save");
+        String player = a.option("--player");
+        LocalDate from = a.date("--from");
+        LocalDate to = a.date("--to");
+        String within = a.option("--within");
+        if (within != null) {
+            if (from != null || to != null) throw new UsageException("--within cannot be combined with --from or --to");
+            int days = a.number("--within", within);
+            from = LocalDate.now().plusDays(1);
+            to = LocalDate.now().plusDays(days);
+        }
+        String formatName = a.option("--format");
+        InjuryExporter.Format format = formatName == null ? InjuryExporter.Format.CSV : parseFormat(formatName);
+        SaveReader reader = new SaveReader(a.dataFile());
+        a.noMore();
+
+        InjuryExporter exporter = new InjuryExporter(format, new InjuryExporter.Filter(player, from, to));
+        try (Writer out = stdout();
+             InjuryExporter.RowStream rows = exporter.stream(out)) {
+            reader.forEach(name -> saveName == null || saveName.equals(name), (name, injuries, indexed) -> rows.write(name, injuries));
+            rows.finish();
+        }
+        return 0;
+    }
+
+    private record SaveStats(String name, int injuries, int players, LocalDate earliest, LocalDate latest,
+                             int recovered, int soon, int noDate) {}
+
+    private int stats(Args a) throws IOException, UsageException {
+        SaveReader reader = new SaveReader(a.dataFile());
+        a.noMore();
+
+        int today = Math.toIntExact(LocalDate.now().toEpochDay());
+        List<SaveStats> rows = new ArrayList<>();
+        Set<String> allPlayers = new HashSet<>();
+        reader.forEach(name -> true, (name, injuries, indexed) -> {
+            Set<String> players = new HashSet<>();
+            int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE, recovered = 0, soon = 0, noDate = 0;
+            for (int i = 0; i < injuries.size(); i++) {
+                String player = InjuryColumns.playerNameAt(injuries, i);
+                if (player != null) players.add(player);
+                int day = InjuryColumns.epochDayAt(injuries, i);
+                if (day == InjuryColumns.NO_DATE) {
+                    noDate++;
+                    continue;
+                }
+                min = Math.min(min, day);
+                max = Math.max(max, day);
+                if (day <= today) recovered++;
+                else if (day <= today + 7) soon++;
+            }
+            allPlayers.addAll(players);
+            rows.add(new SaveStats(name, injuries.size(), players.size(),
+                    min == Integer.MAX_VALUE ? null : LocalDate.ofEpochDay(min),
+                    max == Integer.MIN_VALUE ? null : LocalDate.ofEpochDay(max), recovered, soon, noDate));
+        });
+
+        SaveStats total = new SaveStats("Total",
+                rows.stream().mapToInt(SaveStats::injuries).sum(), allPlayers.size(),
+                rows.stream().map(SaveStats::earliest).filter(d -> d != null).min(LocalDate::compareTo).orElse(null),
+                rows.stream().map(SaveStats::latest).filter(d -> d != null).max(LocalDate::compareTo).orElse(null),
+                rows.stream().mapToInt(SaveStats::recovered).sum(),
+                rows.stream().mapToInt(SaveStats::soon).sum(),
+                rows.stream().mapToInt(SaveStats::noDate).sum());
+
+        int width = Math.max(5, rows.stream().mapToInt(r -> r.name() == null ? 0 : r.name().length()).max().orElse(0));
+        String line = "%-" + width + "s  %9s  %8s  %-10s  %-10s  %9s  %12s  %7s%n";
+        try (Writer out = stdout()) {
+            out.write(String.format(Locale.ROOT, line, "Save", "Injuries", "Players", "Earliest", "Latest",
+                    "Recovered", "Back in 7 d", "No date"));
+            for (SaveStats r : rows) {
+                out.write(statsLine(line, r));
+            }
+            out.write(statsLine(line, total));
+        }
+        return 0;
+    }
+
+    private static String statsLine(String line, SaveStats r) {
+        return String.format(Locale.ROOT, line, r.name(), r.injuries(), r.players(),
+                r.earliest() == null ? "-" : r.earliest(), r.latest() == null ? "-" : r.latest(),
+                r.recovered(), r.soon(), r.noDate());
+    }
+
+    private int validate(Args a) throws IOException, UsageException {
+        Path file = a.dataFile();
+        SaveReader reader = new SaveReader(file);
+        a.noMore();
+
+        List<String> errors = new ArrayList<>();
+        List<String> warnings = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        long[] rows = new long[1];
+        try {
+            reader.forEach(name -> true, (name, injuries, indexed) -> {
+                String label = name == null ? "(unnamed save)" : "save '" + name + "'";
+                if (name == null || name.isBlank()) {
+                    errors.add(label + ": no name");
+                } else if (!names.add(name)) {
+                    errors.add(label + ": name used by more than one save");
+                }
+                if (indexed >= 0 && indexed != injuries.size()) {
+                    errors.add(label + ": manifest lists " + indexed + " injuries, shard holds " + injuries.size());
+                }
+
+                int blank = 0, duplicates = 0;
+                Set<String> seen = new HashSet<>();
+                for (int i = 0; i < injuries.size(); i++) {
+                    String player = InjuryColumns.playerNameAt(injuries, i);
+                    if (player == null || player.isBlank()) blank++;
+                    if (!seen.add(player + '\u0000' + InjuryColumns.epochDayAt(injuries, i))) duplicates++;
+                }
+                if (blank > 0) warnings.add(label + ": " + blank + " injuries without a player name");
+                if (duplicates > 0) warnings.add(label + ": " + duplicates + " repeated rows (same player and date)");
+                rows[0] += injuries.size();
+            });
+        } catch (IOException | RuntimeException e) {
+            errors.add("unreadable: " + e.getMessage());
+        }
+
+        try (Writer out = stdout()) {
+            for (String e : errors) out.write("error: " + e + "\n");
+            for (String w : warnings) out.write("warning: " + w + "\n");
+            out.write(String.format(Locale.ROOT, "%s: %d saves, %d injuries, %d errors, %d warnings%n",
+                    file, names.size(), rows[0], errors.size(), warnings.size()));
+        }
+        return errors.isEmpty() ? 0 : 1;
+    }
+
+    private int convert(Args a) throws IOException, UsageException {
+        Path out = Paths.get(a.positional("OUT"));
+        SaveReader reader = new SaveReader(a.dataFile());
+        a.noMore();
+
+        List<CareerSave> saves = reader.readAll();
+        write(out, saves);
+        err.printf(Locale.ROOT, "Wrote %d saves (%d injuries) to %s%n", saves.size(), countInjuries(saves), out);
+        return 0;
+    }
+
+    private int merge(Args a) throws IOException, UsageException {
+        Path out = Paths.get(a.positional("OUT"));
+        List<Path> inputs = new ArrayList<>();
+        inputs.add(a.dataFile());
+        for (String in = a.optionalPositional(); in != null; in = a.optionalPositional()) {
+            inputs.add(Paths.get(in));
+        }
+        if (inputs.size() < 2) throw new UsageException("merge needs at least one IN file");
+        a.noMore();
+
+        // Save order: first appearance; rows: first input's order, then new rows of later inputs
+        Map<String, CareerSave> merged = new LinkedHashMap<>();
+        Map<String, Set<String>> rowKeys = new HashMap<>();
+        for (Path in : inputs) {
+            for (CareerSave save : new SaveReader(in).readAll()) {
+                CareerSave target = merged.computeIfAbsent(save.getName(), CareerSave::new);
+                Set<String> keys = rowKeys.computeIfAbsent(save.getName(), n -> new HashSet<>());
+                for (Injury injury : save.getInjuries()) {
+                    if (keys.add(injury.getPlayerName() + '\u0000' + injury.getRecoveryDate())) {
+                        target.getInjuries().add(new Injury(injury.getPlayerName(), injury.getRecoveryDate()));
+                    }
+                }
+            }
+        }
+
+        List<CareerSave> saves = new ArrayList<>(merged.values());
+        write(out, saves);
+        err.printf(Locale.ROOT, "Merged %d files into %d saves (%d injuries) in %s%n",
+                inputs.size(), saves.size(), countInjuries(saves), out);
+        return 0;
+    }
+
+    private int compact(Args a) throws IOException, UsageException {
+        Path file = a.dataFile();
+        a.noMore();
+
+        JournaledStore store = new JournaledStore(FormatDetectingDataStore.forFile(file), file);
+        List<CareerSave> saves = store.load();
+        store.loadAll(saves);
+        store.writeSnapshot(store.prepareSnapshot(saves, true));
+        err.printf(Locale.ROOT, "Rewrote %d saves (%d injuries) in %s%n", saves.size(), countInjuries(saves),
+                store.getShardDirectory());
+        return 0;
+    }
+
+    // ----------------------------
+    // Helpers
+    // ----------------------------
+
+    // Single-file output; a store the app has sharded would keep reading its shards instead
+    private static void write(Path out, List<CareerSave> saves) throws IOException {
+        if (Files.isDirectory(ShardedDataStore.dirFor(out))) {
+            throw new IOException(out + " is an app store (it has " + ShardedDataStore.dirFor(out).getFileName()
+                    + "); write elsewhere, or open the file in the app and use Save as");
+        }
+        Path parent = out.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        FormatDetectingDataStore.forFile(out).save(out, saves);
+    }
+
+    private static long countInjuries(List<CareerSave> saves) {
+        long n = 0;
+        for (CareerSave save : saves) n += save.getInjuryCount();
+        return n;
+    }
+
+    // Not System.out: that PrintStream swallows errors such as a closed pipe
+    private static Writer stdout() {
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8), BUFFER_SIZE) {
+            @Override
+            public void close() throws IOException {
+                // Flush, but leave stdout open
+                flush();
+            }
+        };
+    }
+
+    private static InjuryExporter.Format parseFormat(String name) throws UsageException {
+        try {
+            return InjuryExporter.Format.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new UsageException("Unknown format: " + name + " (csv or ndjson)");
+        }
+    }
+
+    static final class UsageException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        UsageException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * The arguments after the command: {@code --name value} options anywhere, positionals in order.
+     */
+    private static final class Args {
+
+        private final Map<String, String> options = new HashMap<>();
+        private final List<String> positionals = new ArrayList<>();
+        private int next;
+
+        Args(String[] args) throws UsageException {
+            for (int i = 1; i < args.length; i++) {
+                String arg = args[i];
+                if (arg.startsWith("--")) {
+                    if (i + 1 >= args.length) throw new UsageException("Missing value for " + arg);
+                    if (options.put(arg, args[++i]) != null) throw new UsageException("Repeated option " + arg);
+                } else {
+                    positionals.add(arg);
+                }
+            }
+        }
+
+        String option(String name) {
+            return options.remove(name);
+        }
+
+        LocalDate date(String name) throws UsageException {
+            String value = option(name);
+            if (value == null) return null;
+            LocalDate date = CsvInjuryReader.parseDate(value);
+            if (date == null) throw new UsageException("Not a date for " + name + ": " + value);
+            return date;
+        }
+
+        int number(String name, String value) throws UsageException {
+            try {
+                int n = Integer.parseInt(value);
+                if (n < 0) throw new NumberFormatException();
+                return n;
+            } catch (NumberFormatException e) {
+                throw new UsageException("Not a number of days for " + name + ": " + value);
+            }
+        }
+
+        Path dataFile() {
+            String value = option("--file");
+            return value == null ? AppPaths.defaultDataFile() : Paths.get(value);
+        }
+
+        String positional(String what) throws UsageException {
+            String value = optionalPositional();
+            if (value == null) throw new UsageException("Missing " + what);
+            return value;
+        }
+
+        String optionalPositional() {
+            return next < positionals.size() ? positionals.get(next++) : null;
+        }
+
+        void noMore() throws UsageException {
+            if (!options.isEmpty()) throw new UsageException("Unknown option " + options.keySet().iterator().next());
+            if (next < positionals.size()) throw new UsageException("Unexpected argument " + positionals.get(next));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.redcatdev86.cli;
+
+import com.redcatdev86.model.CareerSave;
+import com.redcatdev86.model.Injury;
+import com.redcatdev86.storage.FormatDetectingDataStore;
+import com.redcatdev86.storage.JournaledStore;
+import com.redcatdev86.storage.ShardedDataStore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Read-only access to a data file for the command line, one save at a time.
+ * <p>
+ * If the app has sharded the file, the manifest and journal are read and only the shards of
+ * the saves asked for; otherwise the single file is streamed. Unlike {@link JournaledStore#load},
+ * this never migrates a single file to shards.
+ */
+final class SaveReader {
+
+    @FunctionalInterface
+    interface Visitor {
+        /**
+         * @param indexedCount injury count the manifest lists for the save, or -1 if there is none
+         */
+        void visit(String saveName, List<Injury> injuries, int indexedCount) throws IOException;
+    }
+
+    private final Path file;
+    private final boolean sharded;
+
+    SaveReader(Path file) {
+        this.file = file;
+        this.sharded = Files.exists(ShardedDataStore.dirFor(file).resolve(ShardedDataStore.MANIFEST_FILE));
+    }
+
+    boolean isSharded() {
+        return sharded;
+    }
+
+    boolean exists() {
+        return sharded || Files.exists(file);
+    }
+
+    void forEach(Predicate<String> saveNames, Visitor visitor) throws IOException {
+        if (!exists()) {
+            throw new IOException("No data at " + file);
+        }
+        if (sharded) {
+            JournaledStore store = new JournaledStore(FormatDetectingDataStore.forFile(file), file);
+            for (CareerSave save : store.load()) {
+                if (!saveNames.test(save.getName())) continue;
+                // Saves the journal touched are already loaded, with the journaled edits applied
+                if (save.isLoaded()) {
+                    visitor.visit(save.getName(), save.getInjuries(), -1);
+                } else {
+                    visitor.visit(save.getName(), store.readInjuries(save), save.getInjuryCount());
+                }
+            }
+            return;
+        }
+
+        try {
+            FormatDetectingDataStore.forFile(file).forEach(file, save -> {
+                if (!saveNames.test(save.getName())) return;
+                try {
+                    visitor.visit(save.getName(), save.getInjuries(), -1);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Every save with its injuries.
+     */
+    List<CareerSave> readAll() throws IOException {
+        if (!exists()) {
+            throw new IOException("No data at " + file);
+        }
+        if (!sharded) {
+            return FormatDetectingDataStore.forFile(file).load(file);
+        }
+        JournaledStore store = new JournaledStore(FormatDetectingDataStore.forFile(file), file);
+        List<CareerSave> saves = store.load();
+        store.loadAll(saves);
+        return saves;
+    }
+}
@@ -0,0 +1,40 @@
+package com.redcatdev86.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One snapshot write of the store: the changed shards, the manifest and a fresh journal.
+ * {@code rows} counts the injuries in the shards written.
+ */
+@Name("com.redcatdev86.Autosave")
+@Label("Autosave")
+@Category({"FC Issuer Manager", "Storage"})
+@StackTrace(false)
+public class AutosaveEvent extends TimedEvent {
+
+    private static final LatencyHistogram LATENCY = Metrics.shared().latency("autosave");
+    private static final RecentValues SIZES = Metrics.shared().recent("autosave.bytes");
+
+    @Label("Shards Written")
+    public int shards;
+
+    @Label("Bytes Written")
+    @DataAmount
+    public long bytes;
+
+    @Override
+    protected LatencyHistogram latency() {
+        return LATENCY;
+    }
+
+    /**
+     * Remembers the size of a completed write for the diagnostics panel.
+     */
+    public void recordSize() {
+        SIZES.add(bytes);
+    }
+}
@@ -0,0 +1,34 @@
+package com.redcatdev86.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One data file (the single file or a shard) written by {@code JsonDataStore}.
+ */
+@Name("com.redcatdev86.DataFileSave")
+@Label("Data File Save")
+@Category({"FC Issuer Manager", "Storage"})
+@StackTrace(false)
+public class DataFileSaveEvent extends TimedEvent {
+
+    private static final LatencyHistogram LATENCY = Metrics.shared().latency("file.save");
+
+    @Label("File")
+    public String file;
+
+    @Label("Bytes Written")
+    @DataAmount
+    public long bytes;
+
+    @Label("Saves")
+    public int saves;
+
+    @Override
+    protected LatencyHistogram latency() {
+        return LATENCY;
+    }
+}
@@ -0,0 +1,26 @@
+package com.redcatdev86.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One run of the table filter; {@code rows} is the size of the filtered save.
+ */
+@Name("com.redcatdev86.Filter")
+@Label("Table Filter")
+@Category({"FC Issuer Manager", "UI"})
+@StackTrace(false)
+public class FilterEvent extends TimedEvent {
+
+    private static final LatencyHistogram LATENCY = Metrics.shared().latency("ui.filter");
+
+    @Label("Matches")
+    public int matches;
+
+    @Override
+    protected LatencyHistogram latency() {
+        return LATENCY;
+    }
+}
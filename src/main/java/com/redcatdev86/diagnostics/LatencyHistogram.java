@@ -0,0 +1,69 @@
+package com.redcatdev86.diagnostics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Lock-free latency histogram with logarithmic buckets, eight per power of two of
+ * nanoseconds, so a percentile is off by at most about 6%. Recording is two atomic
+ * increments; reading walks the 488 buckets.
+ */
+public final class LatencyHistogram {
+
+    public record Snapshot(long count, long p50Nanos, long p99Nanos, long maxNanos) {}
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts.incrementAndGet(bucket(nanos));
+        max.accumulate(nanos);
+    }
+
+    public Snapshot snapshot() {
+        long[] c = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            c[i] = counts.get(i);
+            total += c[i];
+        }
+        long top = max.get();
+        return new Snapshot(total, percentile(c, total, 0.50, top), percentile(c, total, 0.99, top), top);
+    }
+
+    // Middle of the bucket holding the value at rank ceil(q * total)
+    private static long percentile(long[] c, long total, double q, long top) {
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(q * total));
+        long seen = 0;
+        for (int i = 0; i < c.length; i++) {
+            seen += c[i];
+            if (seen >= rank) {
+                long low = lowerBound(i);
+                long width = lowerBound(i + 1) - low;
+                return Math.min(low + width / 2, top);
+            }
+        }
+        return top;
+    }
+
+    static int bucket(long v) {
+        if (v < SUB) return (int) v;
+        int exp = 63 - Long.numberOfLeadingZeros(v);
+        int mantissa = (int) (v >>> (exp - SUB_BITS)) & (SUB - 1);
+        return (exp - SUB_BITS + 1) * SUB + mantissa;
+    }
+
+    static long lowerBound(int bucket) {
+        if (bucket < SUB) return bucket;
+        if (bucket >= BUCKETS) return Long.MAX_VALUE;
+        int exp = bucket / SUB - 1 + SUB_BITS;
+        int mantissa = bucket % SUB;
+        return (long) (SUB + mantissa) << (exp - SUB_BITS);
+    }
+}
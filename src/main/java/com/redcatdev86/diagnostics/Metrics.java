@@ -0,0 +1,65 @@
+package com.redcatdev86.diagnostics;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process counters, latency histograms and recent-value series, by name. Works whether
+ * or not a flight recording is running.
+ * <p>
+ * Lookups go through a concurrent map, so hot paths keep the instrument they record into
+ * in a static field. Recording never allocates or blocks.
+ */
+public final class Metrics {
+
+    public static final int RECENT_CAPACITY = 10;
+
+    private static final Metrics SHARED = new Metrics();
+
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+    private final Map<String, RecentValues> recent = new ConcurrentHashMap<>();
+
+    /**
+     * The registry the app records into.
+     */
+    public static Metrics shared() {
+        return SHARED;
+    }
+
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, n -> new LongAdder());
+    }
+
+    public LatencyHistogram latency(String name) {
+        return latencies.computeIfAbsent(name, n -> new LatencyHistogram());
+    }
+
+    public RecentValues recent(String name) {
+        return recent.computeIfAbsent(name, n -> new RecentValues(RECENT_CAPACITY));
+    }
+
+    // ----------------------------
+    // Reads (sorted by name)
+    // ----------------------------
+    public SortedMap<String, Long> counterValues() {
+        SortedMap<String, Long> out = new TreeMap<>();
+        counters.forEach((name, c) -> out.put(name, c.sum()));
+        return out;
+    }
+
+    public SortedMap<String, LatencyHistogram.Snapshot> latencySnapshots() {
+        SortedMap<String, LatencyHistogram.Snapshot> out = new TreeMap<>();
+        latencies.forEach((name, h) -> out.put(name, h.snapshot()));
+        return out;
+    }
+
+    public SortedMap<String, long[]> recentValues() {
+        SortedMap<String, long[]> out = new TreeMap<>();
+        recent.forEach((name, r) -> out.put(name, r.values()));
+        return out;
+    }
+}
@@ -0,0 +1,30 @@
+package com.redcatdev86.diagnostics;
+
+/**
+ * The last few values of a series, oldest first.
+ */
+public final class RecentValues {
+
+    private final long[] values;
+    private int next;
+    private int size;
+
+    public RecentValues(int capacity) {
+        this.values = new long[capacity];
+    }
+
+    public synchronized void add(long value) {
+        values[next] = value;
+        next = (next + 1) % values.length;
+        size = Math.min(size + 1, values.length);
+    }
+
+    public synchronized long[] values() {
+        long[] out = new long[size];
+        int first = (next - size + values.length) % values.length;
+        for (int i = 0; i < size; i++) {
+            out[i] = values[(first + i) % values.length];
+        }
+        return out;
+    }
+}
@@ -0,0 +1,29 @@
+package com.redcatdev86.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Showing a save in the table, including reading its injuries on first selection.
+ */
+@Name("com.redcatdev86.SaveSelect")
+@Label("Save Selection")
+@Category({"FC Issuer Manager", "UI"})
+@StackTrace(false)
+public class SaveSelectEvent extends TimedEvent {
+
+    private static final LatencyHistogram LATENCY = Metrics.shared().latency("ui.select");
+
+    @Label("Save")
+    public String save;
+
+    @Label("Read From Disk")
+    public boolean fromDisk;
+
+    @Override
+    protected LatencyHistogram latency() {
+        return LATENCY;
+    }
+}
@@ -0,0 +1,35 @@
+package com.redcatdev86.diagnostics;
+
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Flight recorder event that also feeds a {@link LatencyHistogram} of {@link Metrics}, so
+ * the timings are there with or without a recording. JFR adds the thread itself.
+ * <p>
+ * Create one on the thread doing the work, {@link #start()} it, fill in the fields and
+ * {@link #finish()} it. Without a recording the event is not committed, and the JIT removes
+ * the allocation.
+ */
+public abstract class TimedEvent extends Event {
+
+    @Label("Rows")
+    public long rows;
+
+    private transient long startNanos;
+
+    public final void start() {
+        begin();
+        startNanos = System.nanoTime();
+    }
+
+    public final void finish() {
+        latency().record(System.nanoTime() - startNanos);
+        end();
+        if (shouldCommit()) {
+            commit();
+        }
+    }
+
+    protected abstract LatencyHistogram latency();
+}
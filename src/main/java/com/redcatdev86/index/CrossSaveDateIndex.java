@@ -0,0 +1,79 @@
+package com.redcatdev86.index;
+
+import com.redcatdev86.model.CareerSave;
+import com.redcatdev86.model.Injury;
+import com.redcatdev86.model.InjuryColumns;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recovery-date range queries over several loaded saves: one {@link RecoveryDateIndex} of
+ * row ids per save, built the first time the save is queried and kept in step through
+ * {@link #update}. Saves are tracked by identity; an index is rebuilt if its save's injury
+ * list was replaced.
+ */
+public class CrossSaveDateIndex {
+
+    private record Entry(List<Injury> injuries, RecoveryDateIndex<Integer> index) {}
+
+    private final Map<CareerSave, Entry> indexes = new IdentityHashMap<>();
+
+    /**
+     * Positions in the loaded {@code save}, ascending, of the injuries recovering between
+     * {@code from} and {@code to} inclusive; {@code ids} numbers its rows.
+     */
+    public int[] between(CareerSave save, RowIds ids, LocalDate from, LocalDate to) {
+        List<Integer> found = indexOf(save, ids).between(from, to);
+        int[] positions = new int[found.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = ids.positionOf(found.get(i));
+        }
+        Arrays.sort(positions);
+        return positions;
+    }
+
+    /**
+     * Keeps the index of {@code save}, if it has one, in step with the row {@code id}.
+     */
+    public void update(CareerSave save, int id, boolean removed) {
+        Entry entry = indexes.get(save);
+        if (entry == null) return;
+        if (!save.isLoaded() || entry.injuries() != save.getInjuries()) {
+            indexes.remove(save);
+        } else if (removed) {
+            entry.index().remove(id);
+        } else {
+            entry.index().update(id);
+        }
+    }
+
+    /**
+     * Forgets the index of {@code save}, e.g. once it is unloaded or deleted.
+     */
+    public void drop(CareerSave save) {
+        indexes.remove(save);
+    }
+
+    public void clear() {
+        indexes.clear();
+    }
+
+    private RecoveryDateIndex<Integer> indexOf(CareerSave save, RowIds ids) {
+        List<Injury> injuries = save.getInjuries();
+        Entry entry = indexes.get(save);
+        if (entry == null || entry.injuries() != injuries) {
+            RecoveryDateIndex<Integer> index = new RecoveryDateIndex<>(
+                    id -> InjuryColumns.toDate(InjuryColumns.epochDayAt(injuries, ids.positionOf(id))));
+            for (int i = 0; i < injuries.size(); i++) {
+                index.add(ids.idAt(i));
+            }
+            entry = new Entry(injuries, index);
+            indexes.put(save, entry);
+        }
+        return entry.index();
+    }
+}
@@ -0,0 +1,187 @@
+package com.redcatdev86.index;
+
+import com.redcatdev86.model.Injury;
+import com.redcatdev86.model.InjuryColumns;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Filter behind the injuries table: a player-name substring query combined with an optional
+ * recovery-date range, over one injury list.
+ * <p>
+ * {@link #apply} returns the positions of the matching rows in ascending order, the order the
+ * table shows them in. The {@link TrigramIndex} and {@link RecoveryDateIndex} hold the rows'
+ * {@link RowIds} ids, so rows can move without re-indexing, and read names and dates from the
+ * list's columns. They are built the first time they are needed and kept in step with
+ * single-row edits through {@link #update}. Does not depend on JavaFX.
+ */
+public class InjuryFilter {
+
+    private List<Injury> source;
+    private RowIds ids;
+
+    private TrigramIndex<Integer> searchIndex;
+    private RecoveryDateIndex<Integer> dateIndex;
+
+    // Previous query and the positions it matched, narrowed instead of searched again as the
+    // query grows
+    private String lastQuery = "";
+    private int[] lastResult;
+
+    // Current filter, for single rows
+    private String query = "";
+    private long fromDay;
+    private long toDay;
+    private boolean dateRange;
+
+    /**
+     * Points the filter at {@code injuries}, whose rows {@code ids} numbers; the indexes are
+     * dropped if the list changed.
+     */
+    public void setSource(List<Injury> injuries, RowIds ids) {
+        if (injuries != source) {
+            source = injuries;
+            this.ids = ids;
+            searchIndex = null;
+            dateIndex = null;
+            lastQuery = "";
+            lastResult = null;
+        }
+    }
+
+    public boolean isSource(List<Injury> injuries) {
+        return source != null && source == injuries;
+    }
+
+    /**
+     * Recomputes the filter; returns the positions of the matching rows, ascending, or
+     * {@code null} if nothing is filtered. {@code from} and {@code to} are inclusive; pass
+     * {@code null} for no range.
+     */
+    public int[] apply(String query, LocalDate from, LocalDate to) {
+        this.query = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        dateRange = from != null && to != null;
+        fromDay = dateRange ? from.toEpochDay() : 0;
+        toDay = dateRange ? to.toEpochDay() : 0;
+        if (source == null) {
+            return null;
+        }
+
+        int[] text = textFilter(this.query);
+        int[] date = dateRange ? positionsOf(dateIndex().between(from, to)) : null;
+        if (text == null) return date;
+        if (date == null) return text;
+        return intersect(text, date);
+    }
+
+    /**
+     * Whether the row at {@code position} passes the filter last applied.
+     */
+    public boolean matches(int position) {
+        if (!query.isEmpty()) {
+            String name = InjuryColumns.playerNameAt(source, position);
+            if (name == null || !name.toLowerCase(Locale.ROOT).contains(query)) return false;
+        }
+        if (dateRange) {
+            int day = InjuryColumns.epochDayAt(source, position);
+            return day != InjuryColumns.NO_DATE && day >= fromDay && day <= toDay;
+        }
+        return true;
+    }
+
+    private int[] textFilter(String q) {
+        if (q.isEmpty()) {
+            lastQuery = "";
+            lastResult = null;
+            return null;
+        }
+
+        if (searchIndex == null) {
+            searchIndex = new TrigramIndex<>(id -> InjuryColumns.playerNameAt(source, ids.positionOf(id)));
+            for (int i = 0; i < source.size(); i++) {
+                searchIndex.add(ids.idAt(i));
+            }
+            lastResult = null;
+        }
+
+        // A longer query can only match a subset of what the previous one matched, and
+        // filtering those keeps them in order
+        int[] result;
+        if (lastResult != null && !lastQuery.isEmpty() && q.contains(lastQuery)) {
+            result = new int[lastResult.length];
+            int n = 0;
+            for (int position : lastResult) {
+                if (searchIndex.matches(ids.idAt(position), q)) result[n++] = position;
+            }
+            result = Arrays.copyOf(result, n);
+        } else {
+            result = positionsOf(searchIndex.search(q));
+        }
+
+        lastQuery = q;
+        lastResult = result;
+        return result;
+    }
+
+    private RecoveryDateIndex<Integer> dateIndex() {
+        if (dateIndex == null) {
+            dateIndex = new RecoveryDateIndex<>(id -> InjuryColumns.toDate(InjuryColumns.epochDayAt(source, ids.positionOf(id))));
+            for (int i = 0; i < source.size(); i++) {
+                dateIndex.add(ids.idAt(i));
+            }
+        }
+        return dateIndex;
+    }
+
+    /**
+     * Keeps the indexes in step with the row {@code id}, added, edited or removed.
+     */
+    public void update(int id, boolean removed) {
+        // Rows may have moved
+        lastResult = null;
+
+        if (searchIndex != null) {
+            if (removed) {
+                searchIndex.remove(id);
+            } else {
+                searchIndex.update(id);
+            }
+        }
+        if (dateIndex != null) {
+            if (removed) {
+                dateIndex.remove(id);
+            } else {
+                dateIndex.update(id);
+            }
+        }
+    }
+
+    private int[] positionsOf(List<Integer> rowIds) {
+        int[] positions = new int[rowIds.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = ids.positionOf(rowIds.get(i));
+        }
+        Arrays.sort(positions);
+        return positions;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int n = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+}
@@ -0,0 +1,133 @@
+package com.redcatdev86.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Player names seen across all career saves, each kept as one canonical {@code String} with
+ * a stable int id. Safe to use from the loader threads.
+ * <p>
+ * The dictionary only grows: ids stay valid for the life of the process, so names are never
+ * evicted. Names no row uses any more only leave the suggestions (see {@link #release}).
+ */
+public class PlayerNameDictionary {
+
+    private static final PlayerNameDictionary SHARED = new PlayerNameDictionary();
+
+    private final Map<String, String> canonical = new ConcurrentHashMap<>();
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    // id -> name; grown copy-on-write under the lock and republished on every add
+    private volatile String[] names = new String[64];
+    private final Object lock = new Object();
+
+    // "<lowercased>\0<name>" -> name, so spellings differing only in case are all kept
+    private final ConcurrentSkipListMap<String, String> byPrefix = new ConcurrentSkipListMap<>();
+
+    // Released and not yet checked; dropped ones are left out of byPrefix until interned again
+    private final Set<String> released = ConcurrentHashMap.newKeySet();
+    private final Set<String> dropped = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Dictionary used by the data stores and the UI unless they are given another one.
+     */
+    public static PlayerNameDictionary shared() {
+        return SHARED;
+    }
+
+    /**
+     * Canonical instance equal to {@code name}, registering it on first sight.
+     */
+    public String intern(String name) {
+        if (name == null) return null;
+        String known = canonical.get(name);
+        if (known == null) return nameOf(idOf(name));
+        if (!dropped.isEmpty()) {
+            synchronized (dropped) {
+                if (dropped.remove(known)) byPrefix.put(sortKey(known), known);
+            }
+        }
+        return known;
+    }
+
+    public int idOf(String name) {
+        Integer id = ids.get(name);
+        if (id != null) return id;
+        synchronized (lock) {
+            id = ids.get(name);
+            if (id == null) {
+                id = size.get();
+                String[] grown = id < names.length ? names : Arrays.copyOf(names, id * 2);
+                grown[id] = name;
+                names = grown;
+                size.incrementAndGet();
+                byPrefix.put(sortKey(name), name);
+                ids.put(name, id);
+                canonical.put(name, name);
+            }
+            return id;
+        }
+    }
+
+    public String nameOf(int id) {
+        if (id < 0 || id >= size.get()) throw new IndexOutOfBoundsException(id);
+        return names[id];
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Notes that a row no longer has {@code name}, which may have been its last use. The next
+     * suggestion it would appear in asks whether it is still in use, and drops it if not, until
+     * it is interned again.
+     */
+    public void release(String name) {
+        if (name != null) released.add(name);
+    }
+
+    /**
+     * Up to {@code limit} names starting with {@code prefix} (case-insensitive), in
+     * alphabetical order.
+     */
+    public List<String> suggest(String prefix, int limit) {
+        return suggest(prefix, limit, name -> true);
+    }
+
+    /**
+     * As {@link #suggest(String, int)}, leaving out released names {@code inUse} rejects.
+     * Each released name is checked once.
+     */
+    public List<String> suggest(String prefix, int limit, Predicate<String> inUse) {
+        List<String> result = new ArrayList<>(Math.min(limit, 16));
+        if (prefix == null || limit <= 0) return result;
+        String from = prefix.toLowerCase(Locale.ROOT);
+        for (Map.Entry<String, String> e : byPrefix.tailMap(from).entrySet()) {
+            if (!e.getKey().startsWith(from) || result.size() >= limit) break;
+            String name = e.getValue();
+            if (released.remove(name) && !inUse.test(name)) {
+                synchronized (dropped) {
+                    byPrefix.remove(e.getKey());
+                    dropped.add(name);
+                }
+                continue;
+            }
+            result.add(name);
+        }
+        return result;
+    }
+
+    private static String sortKey(String name) {
+        return name.toLowerCase(Locale.ROOT) + '\0' + name;
+    }
+}
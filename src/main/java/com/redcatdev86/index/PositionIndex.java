@@ -0,0 +1,83 @@
+package com.redcatdev86.index;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Position of each element of a list, by identity, for lists that mostly grow at the end.
+ * An insertion or removal makes the next lookup recompute the positions after it. The
+ * caller reports every structural change to the list.
+ */
+public class PositionIndex<T> {
+
+    private final List<T> list;
+    private final Map<T, Integer> positions = new IdentityHashMap<>();
+
+    // Positions below this are valid; elements at or after it may have moved
+    private int validUpTo;
+
+    public PositionIndex(List<T> list) {
+        this.list = list;
+    }
+
+    public List<T> getList() {
+        return list;
+    }
+
+    /**
+     * Index of {@code element} in the list, or -1.
+     */
+    public int indexOf(T element) {
+        Integer pos = positions.get(element);
+        if (pos != null && pos < validUpTo) {
+            return pos;
+        }
+        if (validUpTo < list.size()) {
+            reindexFrom(validUpTo);
+            pos = positions.get(element);
+        }
+        return pos != null && pos < list.size() && list.get(pos) == element ? pos : -1;
+    }
+
+    /**
+     * Call after the list was cleared or refilled.
+     */
+    public void clear() {
+        positions.clear();
+        validUpTo = 0;
+    }
+
+    /**
+     * Call after {@code element} was appended.
+     */
+    public void added(T element) {
+        int index = list.size() - 1;
+        if (validUpTo == index) {
+            positions.put(element, index);
+            validUpTo++;
+        }
+    }
+
+    /**
+     * Call after an element was inserted at {@code index}.
+     */
+    public void inserted(int index) {
+        validUpTo = Math.min(validUpTo, index);
+    }
+
+    /**
+     * Call after {@code element} was removed from {@code index}.
+     */
+    public void removed(T element, int index) {
+        positions.remove(element);
+        validUpTo = Math.min(validUpTo, index);
+    }
+
+    private void reindexFrom(int from) {
+        for (int i = from; i < list.size(); i++) {
+            positions.put(list.get(i), i);
+        }
+        validUpTo = list.size();
+    }
+}
@@ -0,0 +1,103 @@
+package com.redcatdev86.index;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Elements ordered by a date, keyed by epoch day, for range queries in O(log n + k).
+ * <p>
+ * Elements are tracked by {@code equals} and remember the day they were filed under, so
+ * {@link #update} works after the element's date has already been changed. Elements
+ * without a date are not indexed.
+ */
+public class RecoveryDateIndex<T> {
+
+    private final Function<T, LocalDate> dateExtractor;
+    private final NavigableMap<Long, Set<T>> byDay = new TreeMap<>();
+    private final Map<T, Long> dayOf = new HashMap<>();
+
+    public RecoveryDateIndex(Function<T, LocalDate> dateExtractor) {
+        this.dateExtractor = dateExtractor;
+    }
+
+    public static <T> RecoveryDateIndex<T> of(Collection<T> elements, Function<T, LocalDate> dateExtractor) {
+        RecoveryDateIndex<T> index = new RecoveryDateIndex<>(dateExtractor);
+        elements.forEach(index::add);
+        return index;
+    }
+
+    public int size() {
+        return dayOf.size();
+    }
+
+    public void add(T element) {
+        LocalDate date = dateExtractor.apply(element);
+        if (date == null) return;
+        long day = date.toEpochDay();
+        dayOf.put(element, day);
+        byDay.computeIfAbsent(day, d -> new LinkedHashSet<>()).add(element);
+    }
+
+    public void remove(T element) {
+        Long day = dayOf.remove(element);
+        if (day == null) return;
+        Set<T> bucket = byDay.get(day);
+        if (bucket != null && bucket.remove(element) && bucket.isEmpty()) {
+            byDay.remove(day);
+        }
+    }
+
+    /**
+     * Re-files {@code element} under its current date.
+     */
+    public void update(T element) {
+        remove(element);
+        add(element);
+    }
+
+    /**
+     * Elements dated from {@code from} to {@code to}, both inclusive, earliest first.
+     */
+    public List<T> between(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) return new ArrayList<>();
+        return collect(byDay.subMap(from.toEpochDay(), true, to.toEpochDay(), true));
+    }
+
+    /**
+     * Elements dated on or before {@code date}, earliest first.
+     */
+    public List<T> onOrBefore(LocalDate date) {
+        return collect(byDay.headMap(date.toEpochDay(), true));
+    }
+
+    /**
+     * Elements dated on or after {@code date}, earliest first.
+     */
+    public List<T> onOrAfter(LocalDate date) {
+        return collect(byDay.tailMap(date.toEpochDay(), true));
+    }
+
+    /**
+     * Earliest indexed date, or null when the index is empty.
+     */
+    public LocalDate earliest() {
+        return byDay.isEmpty() ? null : LocalDate.ofEpochDay(byDay.firstKey());
+    }
+
+    private static <T> List<T> collect(NavigableMap<Long, Set<T>> range) {
+        List<T> result = new ArrayList<>();
+        for (Set<T> bucket : range.values()) {
+            result.addAll(bucket);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,158 @@
+package com.redcatdev86.index;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Binary min-heap of elements by date, keyed by epoch day: the earliest element in O(1),
+ * adds, removals and date changes in O(log n).
+ * <p>
+ * Elements are tracked by identity and remember the day they were filed under, so
+ * {@link #update} works after the element's date has already been changed. Elements
+ * without a date are not kept.
+ */
+public class RecoveryHeap<T> {
+
+    private final Function<T, LocalDate> dateExtractor;
+    private final Map<T, Integer> positions = new IdentityHashMap<>();
+
+    private Object[] elements = new Object[16];
+    private long[] days = new long[16];
+    private int size;
+
+    public RecoveryHeap(Function<T, LocalDate> dateExtractor) {
+        this.dateExtractor = dateExtractor;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(T element) {
+        return positions.containsKey(element);
+    }
+
+    /**
+     * Files {@code element} under its current date, or re-files it if already present.
+     */
+    public void add(T element) {
+        if (positions.containsKey(element)) {
+            update(element);
+            return;
+        }
+        LocalDate date = dateExtractor.apply(element);
+        if (date == null) return;
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, size * 2);
+            days = Arrays.copyOf(days, size * 2);
+        }
+        place(size, element, date.toEpochDay());
+        size++;
+        siftUp(size - 1);
+    }
+
+    public boolean remove(T element) {
+        Integer pos = positions.remove(element);
+        if (pos == null) return false;
+        int last = --size;
+        if (pos != last) {
+            place(pos, elementAt(last), days[last]);
+            siftDown(pos);
+            siftUp(pos);
+        }
+        elements[last] = null;
+        return true;
+    }
+
+    /**
+     * Re-files {@code element} under its current date; it is dropped if it has none.
+     */
+    public void update(T element) {
+        Integer pos = positions.get(element);
+        if (pos == null) {
+            add(element);
+            return;
+        }
+        LocalDate date = dateExtractor.apply(element);
+        if (date == null) {
+            remove(element);
+            return;
+        }
+        days[pos] = date.toEpochDay();
+        siftDown(pos);
+        siftUp(pos);
+    }
+
+    /**
+     * Earliest date filed, or null when the heap is empty.
+     */
+    public LocalDate earliest() {
+        return size == 0 ? null : LocalDate.ofEpochDay(days[0]);
+    }
+
+    /**
+     * Removes and returns the elements filed on or before {@code date}, earliest first.
+     */
+    public List<T> pollOnOrBefore(LocalDate date) {
+        long day = date.toEpochDay();
+        List<T> due = new ArrayList<>();
+        while (size > 0 && days[0] <= day) {
+            T first = elementAt(0);
+            remove(first);
+            due.add(first);
+        }
+        return due;
+    }
+
+    public void clear() {
+        Arrays.fill(elements, 0, size, null);
+        positions.clear();
+        size = 0;
+    }
+
+    // ----------------------------
+    // Heap
+    // ----------------------------
+    private void siftUp(int pos) {
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (days[parent] <= days[pos]) return;
+            swap(pos, parent);
+            pos = parent;
+        }
+    }
+
+    private void siftDown(int pos) {
+        while (true) {
+            int child = 2 * pos + 1;
+            if (child >= size) return;
+            if (child + 1 < size && days[child + 1] < days[child]) child++;
+            if (days[pos] <= days[child]) return;
+            swap(pos, child);
+            pos = child;
+        }
+    }
+
+    private void swap(int a, int b) {
+        T ea = elementAt(a);
+        long da = days[a];
+        place(a, elementAt(b), days[b]);
+        place(b, ea, da);
+    }
+
+    private void place(int pos, T element, long day) {
+        elements[pos] = element;
+        days[pos] = day;
+        positions.put(element, pos);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T elementAt(int pos) {
+        return (T) elements[pos];
+    }
+}
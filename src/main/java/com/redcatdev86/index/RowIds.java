@@ -0,0 +1,100 @@
+package com.redcatdev86.index;
+
+import java.util.Arrays;
+
+/**
+ * Stable ids for the rows of one list, with the position of each. Ids are never reused.
+ * The caller reports every structural change to the list.
+ */
+public class RowIds {
+
+    private int[] idAt;
+    // id -> position, -1 once removed
+    private int[] positionOf;
+    private int size;
+    private int nextId;
+
+    /**
+     * Ids 0 to {@code size - 1} for the rows of a list of {@code size}, in order.
+     */
+    public RowIds(int size) {
+        idAt = new int[Math.max(size, 16)];
+        positionOf = new int[idAt.length];
+        for (int i = 0; i < size; i++) {
+            idAt[i] = i;
+            positionOf[i] = i;
+        }
+        this.size = size;
+        this.nextId = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int idAt(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Position: " + position + ", Size: " + size);
+        }
+        return idAt[position];
+    }
+
+    /**
+     * Position of the row with {@code id}, or -1 if there is none.
+     */
+    public int positionOf(int id) {
+        return id >= 0 && id < nextId ? positionOf[id] : -1;
+    }
+
+    /**
+     * Call after a row was appended; returns its id.
+     */
+    public int added() {
+        return inserted(size);
+    }
+
+    /**
+     * Call after a row was inserted at {@code position}; returns its id.
+     */
+    public int inserted(int position) {
+        if (size == idAt.length) {
+            idAt = Arrays.copyOf(idAt, size * 2);
+        }
+        if (nextId == positionOf.length) {
+            positionOf = Arrays.copyOf(positionOf, nextId * 2);
+        }
+        System.arraycopy(idAt, position, idAt, position + 1, size - position);
+        size++;
+        int id = nextId++;
+        idAt[position] = id;
+        for (int i = position; i < size; i++) {
+            positionOf[idAt[i]] = i;
+        }
+        return id;
+    }
+
+    /**
+     * Call after the row at {@code position} was removed and the rows after it moved up.
+     */
+    public void removed(int position) {
+        positionOf[idAt(position)] = -1;
+        System.arraycopy(idAt, position + 1, idAt, position, size - position - 1);
+        size--;
+        for (int i = position; i < size; i++) {
+            positionOf[idAt[i]] = i;
+        }
+    }
+
+    /**
+     * Call after the row at {@code position} was removed and the last row moved into its place.
+     */
+    public void swapRemoved(int position) {
+        positionOf[idAt(position)] = -1;
+        size--;
+        if (position < size) {
+            int moved = idAt[size];
+            idAt[position] = moved;
+            positionOf[moved] = position;
+        }
+    }
+}
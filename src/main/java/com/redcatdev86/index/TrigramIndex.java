@@ -0,0 +1,174 @@
+package com.redcatdev86.index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Substring index over a text key of each element, built on trigrams of the lowercased key.
+ * <p>
+ * Elements are tracked by {@code equals}. {@link #search} intersects the posting sets of the
+ * query's trigrams, starting from the smallest, and verifies the few candidates left; queries
+ * shorter than three characters scan the cached lowercased keys instead, which still avoids
+ * the per-row lowercasing of a plain scan. Results come back in the order elements were added.
+ */
+public class TrigramIndex<T> {
+
+    private static final class Entry {
+        final long seq;
+        String key;
+
+        Entry(long seq, String key) {
+            this.seq = seq;
+            this.key = key;
+        }
+    }
+
+    private final Function<T, String> keyExtractor;
+    private final Map<T, Entry> entries = new LinkedHashMap<>();
+    private final Map<Long, Set<T>> postings = new HashMap<>();
+    private long nextSeq;
+
+    // Postings keep insertion order, which matches seq order until a key is re-indexed
+    private boolean reordered;
+
+    public TrigramIndex(Function<T, String> keyExtractor) {
+        this.keyExtractor = keyExtractor;
+    }
+
+    public static <T> TrigramIndex<T> of(List<T> elements, Function<T, String> keyExtractor) {
+        TrigramIndex<T> index = new TrigramIndex<>(keyExtractor);
+        elements.forEach(index::add);
+        return index;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void add(T element) {
+        Entry entry = new Entry(nextSeq++, normalize(keyExtractor.apply(element)));
+        entries.put(element, entry);
+        addPostings(element, entry.key);
+    }
+
+    public void remove(T element) {
+        Entry entry = entries.remove(element);
+        if (entry != null) {
+            removePostings(element, entry.key);
+        }
+    }
+
+    /**
+     * Re-reads the key of {@code element} after it changed; its position is kept.
+     */
+    public void update(T element) {
+        Entry entry = entries.get(element);
+        if (entry == null) {
+            add(element);
+            return;
+        }
+        String key = normalize(keyExtractor.apply(element));
+        if (!key.equals(entry.key)) {
+            removePostings(element, entry.key);
+            entry.key = key;
+            addPostings(element, key);
+            reordered = true;
+        }
+    }
+
+    /**
+     * Elements whose key contains {@code query}, ignoring case.
+     */
+    public List<T> search(String query) {
+        String q = normalize(query);
+        List<T> result = new ArrayList<>();
+        if (q.length() < 3) {
+            entries.forEach((element, entry) -> {
+                if (entry.key.contains(q)) result.add(element);
+            });
+            return result;
+        }
+
+        Set<Long> grams = trigrams(q);
+        Set<T> smallest = null;
+        for (long gram : grams) {
+            Set<T> posting = postings.get(gram);
+            if (posting == null) {
+                return result;
+            }
+            if (smallest == null || posting.size() < smallest.size()) {
+                smallest = posting;
+            }
+        }
+
+        for (T element : smallest) {
+            if (entries.get(element).key.contains(q)) {
+                result.add(element);
+            }
+        }
+        if (reordered) {
+            result.sort(Comparator.comparingLong(e -> entries.get(e).seq));
+        }
+        return result;
+    }
+
+    /**
+     * Whether the indexed key of {@code element} contains {@code query}, ignoring case.
+     */
+    public boolean matches(T element, String query) {
+        Entry entry = entries.get(element);
+        return entry != null && entry.key.contains(normalize(query));
+    }
+
+    /**
+     * Filters an earlier result down to {@code query}. Valid when {@code query} contains the
+     * earlier query and nothing was indexed or removed in between.
+     */
+    public List<T> narrow(List<T> previous, String query) {
+        String q = normalize(query);
+        List<T> result = new ArrayList<>();
+        for (T element : previous) {
+            Entry entry = entries.get(element);
+            if (entry != null && entry.key.contains(q)) {
+                result.add(element);
+            }
+        }
+        return result;
+    }
+
+    private void addPostings(T element, String key) {
+        for (long gram : trigrams(key)) {
+            postings.computeIfAbsent(gram, g -> new LinkedHashSet<>()).add(element);
+        }
+    }
+
+    private void removePostings(T element, String key) {
+        for (long gram : trigrams(key)) {
+            Set<T> posting = postings.get(gram);
+            if (posting != null && posting.remove(element) && posting.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static Set<Long> trigrams(String s) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= s.length(); i++) {
+            grams.add(((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    private static String normalize(String s) {
+        return s == null ? "" : s.toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,8 +1,11 @@
 package com.redcatdev86.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 public class CareerSave implements Serializable {
@@ -11,6 +14,9 @@ public class CareerSave implements Serializable {
     private String name;
     private List<Injury> injuries = new ArrayList<>();
 
+    // Injury count of an unloaded save (injuries == null), taken from the store index
+    private int unloadedInjuryCount;
+
     public CareerSave() {
         // Required for JSON
     }
@@ -19,6 +25,17 @@ public class CareerSave implements Serializable {
         this.name = name;
     }
 
+    /**
+     * A save known only by name and injury count; its injuries are loaded on demand
+     * through {@link #setInjuries}.
+     */
+    public static CareerSave unloaded(String name, int injuryCount) {
+        CareerSave save = new CareerSave(name);
+        save.injuries = null;
+        save.unloadedInjuryCount = injuryCount;
+        return save;
+    }
+
     public String getName() {
         return name;
     }
@@ -28,6 +45,9 @@ public class CareerSave implements Serializable {
     }
 
     public List<Injury> getInjuries() {
+        if (injuries == null) {
+            throw new IllegalStateException("Injuries of save '" + name + "' are not loaded");
+        }
         return injuries;
     }
 
@@ -35,6 +55,55 @@ public class CareerSave implements Serializable {
         this.injuries = injuries;
     }
 
+    @JsonIgnore
+    public boolean isLoaded() {
+        return injuries != null;
+    }
+
+    @JsonIgnore
+    public int getInjuryCount() {
+        return injuries != null ? injuries.size() : unloadedInjuryCount;
+    }
+
+    /**
+     * Drops the injury list, keeping only its size, so the memory can be reclaimed.
+     */
+    public void unload() {
+        if (injuries != null) {
+            unloadedInjuryCount = injuries.size();
+            injuries = null;
+        }
+    }
+
+    /**
+     * Deep copy, detached from later edits to this save or its injuries.
+     */
+    public CareerSave copy() {
+        CareerSave copy = new CareerSave(name);
+        if (getInjuries() instanceof ColumnarInjuryList columnar) {
+            copy.setInjuries(columnar.copy());
+            return copy;
+        }
+        List<Injury> copied = new ArrayList<>(getInjuries().size());
+        for (Injury injury : injuries) {
+            copied.add(injury.copy());
+        }
+        copy.setInjuries(copied);
+        return copy;
+    }
+
+    /**
+     * Whether one of {@code saves} is already called {@code name}, ignoring case.
+     */
+    public static boolean containsName(Collection<CareerSave> saves, String name) {
+        for (CareerSave save : saves) {
+            if (save.getName() != null && save.getName().equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public String toString() {
         return name; // important for ComboBox display
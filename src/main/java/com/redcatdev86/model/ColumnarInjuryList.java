@@ -0,0 +1,268 @@
+package com.redcatdev86.model;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Struct-of-arrays injury list for very large saves: an {@code int[]} of epoch days and an
+ * {@code int[]} of ids into a pool of distinct player names.
+ * <p>
+ * It is a regular {@code List<Injury>}, but rows are only turned into {@link Injury}
+ * objects when {@link #get} is called, and then cached so every caller sees the same
+ * instance. Once a row has been handed out, that object is the source of truth for it, so
+ * edits made through its setters are picked up. Storage code should read through
+ * {@link #playerNameAt} and {@link #epochDayAt}, which never materialize rows.
+ */
+public class ColumnarInjuryList extends AbstractList<Injury> implements InjuryColumns, RandomAccess, Serializable {
+
+    private static final long serialVersionUID = 4184513300461592227L;
+
+    /**
+     * Saves with at least this many injuries are loaded into columns.
+     */
+    public static final int THRESHOLD = 50_000;
+
+    private static final int NO_NAME = -1;
+
+    private int[] nameIds;
+    private int[] epochDays;
+    private Injury[] rows;
+    private int size;
+
+    private final ArrayList<String> names;
+    private final Map<String, Integer> nameToId;
+
+    public ColumnarInjuryList() {
+        this(16);
+    }
+
+    public ColumnarInjuryList(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 4);
+        nameIds = new int[capacity];
+        epochDays = new int[capacity];
+        names = new ArrayList<>();
+        nameToId = new HashMap<>();
+    }
+
+    private ColumnarInjuryList(ColumnarInjuryList source) {
+        size = source.size;
+        nameIds = Arrays.copyOf(source.nameIds, Math.max(size, 4));
+        epochDays = Arrays.copyOf(source.epochDays, Math.max(size, 4));
+        names = new ArrayList<>(source.names);
+        nameToId = new HashMap<>(source.nameToId);
+        if (source.rows != null) {
+            for (int i = 0; i < size; i++) {
+                Injury row = source.rows[i];
+                if (row != null) {
+                    writeColumns(i, row.getPlayerName(), row.getRecoveryDate());
+                }
+            }
+        }
+    }
+
+    /**
+     * Detached copy holding only columns, with edits made through handed-out rows folded in.
+     */
+    public ColumnarInjuryList copy() {
+        return new ColumnarInjuryList(this);
+    }
+
+    // ----------------------------
+    // Column access (no row objects)
+    // ----------------------------
+    @Override
+    public String playerNameAt(int index) {
+        checkIndex(index);
+        Injury row = rowAt(index);
+        if (row != null) return row.getPlayerName();
+        int id = nameIds[index];
+        return id == NO_NAME ? null : names.get(id);
+    }
+
+    /**
+     * Epoch day of the recovery date, or {@link #NO_DATE}.
+     */
+    @Override
+    public int epochDayAt(int index) {
+        checkIndex(index);
+        Injury row = rowAt(index);
+        if (row != null) return InjuryColumns.toEpochDay(row.getRecoveryDate());
+        return epochDays[index];
+    }
+
+    public LocalDate recoveryDateAt(int index) {
+        int day = epochDayAt(index);
+        return day == NO_DATE ? null : LocalDate.ofEpochDay(day);
+    }
+
+    /**
+     * Appends a row straight into the columns.
+     */
+    public void addColumns(String playerName, int epochDay) {
+        ensureCapacity(size + 1);
+        nameIds[size] = idOf(playerName);
+        epochDays[size] = epochDay;
+        if (rows != null) rows[size] = null;
+        size++;
+        modCount++;
+    }
+
+    public int distinctNames() {
+        return names.size();
+    }
+
+    // ----------------------------
+    // List<Injury>
+    // ----------------------------
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Injury get(int index) {
+        checkIndex(index);
+        if (rows == null) {
+            rows = new Injury[nameIds.length];
+        }
+        Injury row = rows[index];
+        if (row == null) {
+            int id = nameIds[index];
+            int day = epochDays[index];
+            row = new Injury(id == NO_NAME ? null : names.get(id), day == NO_DATE ? null : LocalDate.ofEpochDay(day));
+            rows[index] = row;
+        }
+        return row;
+    }
+
+    @Override
+    public Injury set(int index, Injury element) {
+        checkIndex(index);
+        Injury previous = get(index);
+        writeColumns(index, element.getPlayerName(), element.getRecoveryDate());
+        rows[index] = element;
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Injury element) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        ensureCapacity(size + 1);
+        int tail = size - index;
+        System.arraycopy(nameIds, index, nameIds, index + 1, tail);
+        System.arraycopy(epochDays, index, epochDays, index + 1, tail);
+        if (rows != null) System.arraycopy(rows, index, rows, index + 1, tail);
+        size++;
+        writeColumns(index, element.getPlayerName(), element.getRecoveryDate());
+        if (rows == null) rows = new Injury[nameIds.length];
+        rows[index] = element;
+        modCount++;
+    }
+
+    @Override
+    public Injury remove(int index) {
+        Injury previous = get(index);
+        int tail = size - index - 1;
+        System.arraycopy(nameIds, index + 1, nameIds, index, tail);
+        System.arraycopy(epochDays, index + 1, epochDays, index, tail);
+        System.arraycopy(rows, index + 1, rows, index, tail);
+        size--;
+        rows[size] = null;
+        modCount++;
+        return previous;
+    }
+
+    /**
+     * {@link Injury} compares by identity, so only rows already handed out can match: the
+     * search compares the cached rows instead of materializing every row. It is still a
+     * linear scan; callers that know a row's position should use it instead.
+     */
+    @Override
+    public int indexOf(Object o) {
+        if (rows != null && o != null) {
+            for (int i = 0; i < size; i++) {
+                if (rows[i] == o) return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        if (rows != null && o != null) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (rows[i] == o) return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        rows = null;
+        modCount++;
+    }
+
+    /**
+     * Plain {@code ArrayList} with the same rows, for lists below {@link #THRESHOLD}.
+     */
+    public List<Injury> toArrayList() {
+        List<Injury> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(get(i));
+        }
+        return list;
+    }
+
+    // ----------------------------
+    // Helpers
+    // ----------------------------
+    private Injury rowAt(int index) {
+        return rows == null ? null : rows[index];
+    }
+
+    private void writeColumns(int index, String playerName, LocalDate recoveryDate) {
+        nameIds[index] = idOf(playerName);
+        epochDays[index] = InjuryColumns.toEpochDay(recoveryDate);
+    }
+
+    private int idOf(String playerName) {
+        if (playerName == null) return NO_NAME;
+        Integer id = nameToId.get(playerName);
+        if (id == null) {
+            id = names.size();
+            names.add(playerName);
+            nameToId.put(playerName, id);
+        }
+        return id;
+    }
+
+    private void ensureCapacity(int min) {
+        if (min <= nameIds.length) return;
+        int capacity = Math.max(min, nameIds.length + (nameIds.length >> 1));
+        nameIds = Arrays.copyOf(nameIds, capacity);
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        if (rows != null) rows = Arrays.copyOf(rows, capacity);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
@@ -35,4 +35,8 @@ public class Injury implements Serializable {
     public void setRecoveryDate(LocalDate recoveryDate) {
         this.recoveryDate = recoveryDate;
     }
+
+    public Injury copy() {
+        return new Injury(playerName, recoveryDate);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.redcatdev86.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Injury list that can be read column by column, without an {@link Injury} per row.
+ * Storage code checks for it before falling back to {@code get(i)}.
+ */
+public interface InjuryColumns {
+
+    /**
+     * Epoch day standing for a missing recovery date.
+     */
+    int NO_DATE = Integer.MIN_VALUE;
+
+    int size();
+
+    String playerNameAt(int index);
+
+    /**
+     * Epoch day of the recovery date, or {@link #NO_DATE}.
+     */
+    int epochDayAt(int index);
+
+    /**
+     * Player name of row {@code index} of any injury list, by column if it has them.
+     */
+    static String playerNameAt(List<Injury> injuries, int index) {
+        if (injuries instanceof InjuryColumns columns) {
+            return columns.playerNameAt(index);
+        }
+        return injuries.get(index).getPlayerName();
+    }
+
+    /**
+     * Recovery epoch day of row {@code index} of any injury list, by column if it has them.
+     */
+    static int epochDayAt(List<Injury> injuries, int index) {
+        if (injuries instanceof InjuryColumns columns) {
+            return columns.epochDayAt(index);
+        }
+        return toEpochDay(injuries.get(index).getRecoveryDate());
+    }
+
+    static int toEpochDay(LocalDate date) {
+        return date == null ? NO_DATE : Math.toIntExact(date.toEpochDay());
+    }
+
+    static LocalDate toDate(int epochDay) {
+        return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+}
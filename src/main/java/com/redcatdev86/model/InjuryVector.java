@@ -0,0 +1,364 @@
+package com.redcatdev86.model;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * Immutable injury list whose edits return a new version sharing almost all of its
+ * structure with the old one, so any thread can read a version while edits go on.
+ * <p>
+ * Rows are kept in chunks of up to {@value #CHUNK} (a player-name array and an epoch-day
+ * array), and the chunks in an AVL tree ordered by position. {@link #with},
+ * {@link #inserted} and {@link #removed} copy one chunk and the path to it, so they are
+ * O(log n). Chunks emptied by removals are dropped but not merged, and {@link #of} packs
+ * them again. {@code get} returns a new, detached {@link Injury}; storage code reads the
+ * columns instead.
+ */
+public final class InjuryVector extends AbstractList<Injury> implements InjuryColumns, RandomAccess {
+
+    static final int CHUNK = 64;
+
+    public static final InjuryVector EMPTY = new InjuryVector(null);
+
+    private final Node root;
+
+    private InjuryVector(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Version holding the rows of {@code injuries}; O(n).
+     */
+    public static InjuryVector of(List<Injury> injuries) {
+        if (injuries instanceof InjuryVector vector) return vector;
+        int size = injuries.size();
+        Node[] leaves = new Node[(size + CHUNK - 1) / CHUNK];
+        for (int c = 0; c < leaves.length; c++) {
+            int from = c * CHUNK;
+            int n = Math.min(CHUNK, size - from);
+            String[] names = new String[n];
+            int[] days = new int[n];
+            for (int i = 0; i < n; i++) {
+                names[i] = InjuryColumns.playerNameAt(injuries, from + i);
+                days[i] = InjuryColumns.epochDayAt(injuries, from + i);
+            }
+            leaves[c] = new Node(null, names, days, null);
+        }
+        return new InjuryVector(build(leaves, 0, leaves.length));
+    }
+
+    // Balanced tree over leaves[from, to), in order
+    private static Node build(Node[] leaves, int from, int to) {
+        if (from >= to) return null;
+        int mid = (from + to) >>> 1;
+        Node chunk = leaves[mid];
+        return new Node(build(leaves, from, mid), chunk.names, chunk.days, build(leaves, mid + 1, to));
+    }
+
+    // ----------------------------
+    // Reads
+    // ----------------------------
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    @Override
+    public Injury get(int index) {
+        int[] offset = new int[1];
+        Node n = find(index, offset);
+        return new Injury(n.names[offset[0]], InjuryColumns.toDate(n.days[offset[0]]));
+    }
+
+    @Override
+    public String playerNameAt(int index) {
+        int[] offset = new int[1];
+        return find(index, offset).names[offset[0]];
+    }
+
+    @Override
+    public int epochDayAt(int index) {
+        int[] offset = new int[1];
+        return find(index, offset).days[offset[0]];
+    }
+
+    // Chunk holding row index; its position in the chunk goes to offset[0]
+    private Node find(int index, int[] offset) {
+        checkIndex(index, size());
+        Node n = root;
+        while (true) {
+            int ls = size(n.left);
+            if (index < ls) {
+                n = n.left;
+                continue;
+            }
+            index -= ls;
+            if (index < n.names.length) {
+                offset[0] = index;
+                return n;
+            }
+            index -= n.names.length;
+            n = n.right;
+        }
+    }
+
+    /**
+     * Visits the rows in order, one chunk at a time; O(n) against O(n log n) for indexed reads.
+     */
+    @Override
+    public Iterator<Injury> iterator() {
+        return new Iterator<>() {
+            private final Deque<Node> path = new ArrayDeque<>();
+            private Node chunk;
+            private int i;
+
+            {
+                pushLeft(root);
+                advance();
+            }
+
+            private void pushLeft(Node n) {
+                for (; n != null; n = n.left) path.push(n);
+            }
+
+            private void advance() {
+                chunk = path.poll();
+                i = 0;
+                if (chunk != null) pushLeft(chunk.right);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return chunk != null;
+            }
+
+            @Override
+            public Injury next() {
+                if (chunk == null) throw new NoSuchElementException();
+                Injury injury = new Injury(chunk.names[i], InjuryColumns.toDate(chunk.days[i]));
+                if (++i == chunk.names.length) advance();
+                return injury;
+            }
+        };
+    }
+
+    // ----------------------------
+    // Edits (new versions)
+    // ----------------------------
+    public InjuryVector with(int index, String playerName, LocalDate recoveryDate) {
+        checkIndex(index, size());
+        return new InjuryVector(set(root, index, playerName, InjuryColumns.toEpochDay(recoveryDate)));
+    }
+
+    public InjuryVector inserted(int index, String playerName, LocalDate recoveryDate) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        return new InjuryVector(insert(root, index, playerName, InjuryColumns.toEpochDay(recoveryDate)));
+    }
+
+    public InjuryVector appended(String playerName, LocalDate recoveryDate) {
+        return inserted(size(), playerName, recoveryDate);
+    }
+
+    public InjuryVector removed(int index) {
+        checkIndex(index, size());
+        return new InjuryVector(remove(root, index));
+    }
+
+    private static Node set(Node n, int index, String name, int day) {
+        int ls = size(n.left);
+        if (index < ls) {
+            return new Node(set(n.left, index, name, day), n.names, n.days, n.right);
+        }
+        int i = index - ls;
+        if (i < n.names.length) {
+            String[] names = n.names.clone();
+            int[] days = n.days.clone();
+            names[i] = name;
+            days[i] = day;
+            return new Node(n.left, names, days, n.right);
+        }
+        return new Node(n.left, n.names, n.days, set(n.right, i - n.names.length, name, day));
+    }
+
+    private static Node insert(Node n, int index, String name, int day) {
+        if (n == null) {
+            return new Node(null, new String[]{name}, new int[]{day}, null);
+        }
+        int ls = size(n.left);
+        if (index < ls) {
+            return balance(insert(n.left, index, name, day), n.names, n.days, n.right);
+        }
+        int i = index - ls;
+        int c = n.names.length;
+        if (i > c) {
+            return balance(n.left, n.names, n.days, insert(n.right, i - c, name, day));
+        }
+        if (c < CHUNK) {
+            return new Node(n.left, insertAt(n.names, i, name), insertAt(n.days, i, day), n.right);
+        }
+
+        // Full chunk: appending starts the next chunk, anything else splits this one in two
+        if (i == c) {
+            return balance(n.left, n.names, n.days, insertFirst(n.right, new String[]{name}, new int[]{day}));
+        }
+        String[] names = insertAt(n.names, i, name);
+        int[] days = insertAt(n.days, i, day);
+        int half = names.length / 2;
+        return balance(n.left, Arrays.copyOf(names, half), Arrays.copyOf(days, half),
+                insertFirst(n.right, Arrays.copyOfRange(names, half, names.length), Arrays.copyOfRange(days, half, days.length)));
+    }
+
+    private static Node insertFirst(Node n, String[] names, int[] days) {
+        if (n == null) return new Node(null, names, days, null);
+        return balance(insertFirst(n.left, names, days), n.names, n.days, n.right);
+    }
+
+    private static Node remove(Node n, int index) {
+        int ls = size(n.left);
+        if (index < ls) {
+            return balance(remove(n.left, index), n.names, n.days, n.right);
+        }
+        int i = index - ls;
+        int c = n.names.length;
+        if (i >= c) {
+            return balance(n.left, n.names, n.days, remove(n.right, i - c));
+        }
+        if (c > 1) {
+            return new Node(n.left, removeAt(n.names, i), removeAt(n.days, i), n.right);
+        }
+
+        // Last row of the chunk: the node goes, its first successor chunk takes its place
+        if (n.left == null) return n.right;
+        if (n.right == null) return n.left;
+        Node next = n.right;
+        while (next.left != null) next = next.left;
+        return balance(n.left, next.names, next.days, removeFirst(n.right));
+    }
+
+    private static Node removeFirst(Node n) {
+        if (n.left == null) return n.right;
+        return balance(removeFirst(n.left), n.names, n.days, n.right);
+    }
+
+    // Node over l and r, rotated back into AVL shape (their heights differ by at most 2)
+    private static Node balance(Node l, String[] names, int[] days, Node r) {
+        int hl = height(l);
+        int hr = height(r);
+        if (hl > hr + 1) {
+            if (height(l.left) >= height(l.right)) {
+                return new Node(l.left, l.names, l.days, new Node(l.right, names, days, r));
+            }
+            Node lr = l.right;
+            return new Node(new Node(l.left, l.names, l.days, lr.left), lr.names, lr.days, new Node(lr.right, names, days, r));
+        }
+        if (hr > hl + 1) {
+            if (height(r.right) >= height(r.left)) {
+                return new Node(new Node(l, names, days, r.left), r.names, r.days, r.right);
+            }
+            Node rl = r.left;
+            return new Node(new Node(l, names, days, rl.left), rl.names, rl.days, new Node(rl.right, r.names, r.days, r.right));
+        }
+        return new Node(l, names, days, r);
+    }
+
+    private static String[] insertAt(String[] a, int i, String value) {
+        String[] b = new String[a.length + 1];
+        System.arraycopy(a, 0, b, 0, i);
+        b[i] = value;
+        System.arraycopy(a, i, b, i + 1, a.length - i);
+        return b;
+    }
+
+    private static int[] insertAt(int[] a, int i, int value) {
+        int[] b = new int[a.length + 1];
+        System.arraycopy(a, 0, b, 0, i);
+        b[i] = value;
+        System.arraycopy(a, i, b, i + 1, a.length - i);
+        return b;
+    }
+
+    private static String[] removeAt(String[] a, int i) {
+        String[] b = new String[a.length - 1];
+        System.arraycopy(a, 0, b, 0, i);
+        System.arraycopy(a, i + 1, b, i, a.length - i - 1);
+        return b;
+    }
+
+    private static int[] removeAt(int[] a, int i) {
+        int[] b = new int[a.length - 1];
+        System.arraycopy(a, 0, b, 0, i);
+        System.arraycopy(a, i + 1, b, i, a.length - i - 1);
+        return b;
+    }
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    // ----------------------------
+    // Tree
+    // ----------------------------
+    private static final class Node {
+        final Node left;
+        final Node right;
+        final String[] names;
+        final int[] days;
+        final int size;
+        final int height;
+
+        Node(Node left, String[] names, int[] days, Node right) {
+            this.left = left;
+            this.right = right;
+            this.names = names;
+            this.days = days;
+            this.size = size(left) + names.length + size(right);
+            this.height = Math.max(height(left), height(right)) + 1;
+        }
+    }
+
+    private static int size(Node n) {
+        return n == null ? 0 : n.size;
+    }
+
+    private static int height(Node n) {
+        return n == null ? 0 : n.height;
+    }
+
+    // Nodes of this version that older does not share, i.e. what the edits in between copied
+    int nodesNotIn(InjuryVector older) {
+        Set<Node> shared = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Node> todo = new ArrayDeque<>();
+        if (older.root != null) todo.push(older.root);
+        while (!todo.isEmpty()) {
+            Node n = todo.pop();
+            shared.add(n);
+            if (n.left != null) todo.push(n.left);
+            if (n.right != null) todo.push(n.right);
+        }
+
+        int copied = 0;
+        if (root != null) todo.push(root);
+        while (!todo.isEmpty()) {
+            Node n = todo.pop();
+            if (shared.contains(n)) continue;
+            copied++;
+            if (n.left != null) todo.push(n.left);
+            if (n.right != null) todo.push(n.right);
+        }
+        return copied;
+    }
+}
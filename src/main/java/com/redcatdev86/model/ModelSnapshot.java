@@ -0,0 +1,115 @@
+package com.redcatdev86.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Immutable state of all career saves at one point in time, safe to read from any thread.
+ * Saves in memory carry their injuries as an {@link InjuryVector}; the others only their
+ * name and injury count.
+ */
+public final class ModelSnapshot {
+
+    /**
+     * One save; {@code injuries} is null when storage holds its current injuries.
+     */
+    public record Save(String name, int injuryCount, InjuryVector injuries) {
+
+        public static Save of(String name, InjuryVector injuries) {
+            return new Save(name, injuries.size(), injuries);
+        }
+
+        /**
+         * The save as a read-only {@link CareerSave} for the data stores.
+         */
+        public CareerSave toCareerSave() {
+            if (injuries == null) {
+                return CareerSave.unloaded(name, injuryCount);
+            }
+            CareerSave save = new CareerSave(name);
+            save.setInjuries(injuries);
+            return save;
+        }
+
+        @Override
+        public String toString() {
+            return name + " (" + injuryCount + " injuries)";
+        }
+    }
+
+    public static final ModelSnapshot EMPTY = new ModelSnapshot(new Save[0]);
+
+    private final Save[] saves;
+
+    private ModelSnapshot(Save[] saves) {
+        this.saves = saves;
+    }
+
+    /**
+     * Snapshot listing {@code saves} by name and count only.
+     */
+    public static ModelSnapshot of(List<CareerSave> saves) {
+        return of(saves, save -> null);
+    }
+
+    /**
+     * Snapshot of {@code saves}, with the injuries {@code vectorOf} returns (null for none).
+     */
+    public static ModelSnapshot of(List<CareerSave> saves, Function<CareerSave, InjuryVector> vectorOf) {
+        Save[] entries = new Save[saves.size()];
+        for (int i = 0; i < entries.length; i++) {
+            CareerSave save = saves.get(i);
+            InjuryVector injuries = vectorOf.apply(save);
+            entries[i] = new Save(save.getName(), injuries == null ? save.getInjuryCount() : injuries.size(), injuries);
+        }
+        return new ModelSnapshot(entries);
+    }
+
+    public int size() {
+        return saves.length;
+    }
+
+    public Save get(int index) {
+        return saves[index];
+    }
+
+    public List<Save> saves() {
+        return Collections.unmodifiableList(Arrays.asList(saves));
+    }
+
+    /**
+     * The save called {@code name}, or null.
+     */
+    public Save find(String name) {
+        for (Save save : saves) {
+            if (save.name() != null && save.name().equals(name)) return save;
+        }
+        return null;
+    }
+
+    // ----------------------------
+    // Edits (new snapshots)
+    // ----------------------------
+    public ModelSnapshot with(int index, Save save) {
+        Save[] next = saves.clone();
+        next[index] = save;
+        return new ModelSnapshot(next);
+    }
+
+    public ModelSnapshot inserted(int index, Save save) {
+        Save[] next = new Save[saves.length + 1];
+        System.arraycopy(saves, 0, next, 0, index);
+        next[index] = save;
+        System.arraycopy(saves, index, next, index + 1, saves.length - index);
+        return new ModelSnapshot(next);
+    }
+
+    public ModelSnapshot removed(int index) {
+        Save[] next = new Save[saves.length - 1];
+        System.arraycopy(saves, 0, next, 0, index);
+        System.arraycopy(saves, index + 1, next, index, saves.length - index - 1);
+        return new ModelSnapshot(next);
+    }
+}
@@ -6,19 +6,41 @@ import java.nio.file.Paths;
 
 public final class AppPaths {
 
+    private static final String DATA_FILE_NAME = "fc-issuer-manager.json";
+
     private AppPaths() {}
 
     public static Path defaultDataFile() {
         // Prefer local ./data next to where the app is started
-        Path local = Paths.get("data", "fc-issuer-manager.json").toAbsolutePath();
+        Path local = Paths.get("data", DATA_FILE_NAME).toAbsolutePath();
 
         if (isWritableParent(local)) {
-            return local;
+            return existingVariant(local);
         }
 
         // Fallback: user home
-        Path home = Paths.get(System.getProperty("user.home"), ".fc-issuer-manager", "fc-issuer-manager.json");
-        return home;
+        Path home = Paths.get(System.getProperty("user.home"), ".fc-issuer-manager", DATA_FILE_NAME);
+        return existingVariant(home);
+    }
+
+    /**
+     * The data file next to {@code plain} that already holds data, compressed or not, trying the
+     * configured compression first; if there is none, the name for the configured compression.
+     */
+    private static Path existingVariant(Path plain) {
+        Compression configured = Compression.configured();
+        Path preferred = plain.resolveSibling(configured.appendTo(DATA_FILE_NAME));
+        if (holdsData(preferred)) return preferred;
+
+        for (Compression c : Compression.values()) {
+            Path candidate = plain.resolveSibling(c.appendTo(DATA_FILE_NAME));
+            if (holdsData(candidate)) return candidate;
+        }
+        return preferred;
+    }
+
+    private static boolean holdsData(Path file) {
+        return Files.exists(file) || Files.isDirectory(ShardedDataStore.dirFor(file));
     }
 
     private static boolean isWritableParent(Path file) {
@@ -33,4 +55,4 @@ public final class AppPaths {
             return false;
         }
     }
-}
\ No newline at end of file
+}
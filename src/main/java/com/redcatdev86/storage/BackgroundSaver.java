@@ -0,0 +1,143 @@
+package com.redcatdev86.storage;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind saver: runs journal appends, snapshot and export writes on a single worker
+ * thread, in submission order.
+ * <p>
+ * Appends queued behind one another for the same store are written together, so at most one
+ * write runs and one waits however fast edits come. A snapshot subsumes the appends queued
+ * before it for the same store, so submitting one drops them. Listener callbacks are
+ * delivered through {@code callbackExecutor} (the FX thread in the UI).
+ */
+public class BackgroundSaver implements AutoCloseable {
+
+    public interface Listener {
+        void onSaved(long generation);
+
+        void onFailed(long generation, IOException error);
+    }
+
+    private final Executor callbackExecutor;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "fc-autosave");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Guarded by this
+    private final Deque<Job> queue = new ArrayDeque<>();
+    private boolean inFlight;
+
+    public BackgroundSaver(Executor callbackExecutor) {
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * Queues {@code mutation} for appending to the journal of {@code store}.
+     */
+    public synchronized void append(JournaledStore store, Mutation mutation, long generation, Listener listener) {
+        store.markDirty(mutation);
+        Job last = queue.peekLast();
+        if (last != null && last.store == store && last.kind == Kind.APPEND && last.listener == listener) {
+            // Joins the waiting batch, which now reports the newer generation
+            queue.pollLast();
+            last.batch.add(mutation);
+            queue.addLast(new Job(store, Kind.APPEND, last.write, last.batch, generation, listener));
+            return;
+        }
+        List<Mutation> batch = new ArrayList<>();
+        batch.add(mutation);
+        enqueue(new Job(store, Kind.APPEND, () -> store.append(batch), batch, generation, listener));
+    }
+
+    /**
+     * Queues {@code snapshot} for writing as the new snapshot of {@code store};
+     * {@code generation} is echoed back to the listener.
+     */
+    public synchronized void snapshot(JournaledStore store, JournaledStore.Snapshot snapshot, long generation, Listener listener) {
+        queue.removeIf(job -> job.store == store && job.kind == Kind.APPEND);
+        enqueue(new Job(store, Kind.SNAPSHOT, () -> store.writeSnapshot(snapshot), null, generation, listener));
+    }
+
+    /**
+     * Queues a single-file export of a full {@code snapshot}.
+     */
+    public synchronized void export(JournaledStore store, JournaledStore.Snapshot snapshot, long generation, Listener listener) {
+        enqueue(new Job(store, Kind.EXPORT, () -> store.exportSingleFile(snapshot), null, generation, listener));
+    }
+
+    /**
+     * Whether nothing is queued or being written.
+     */
+    public synchronized boolean isIdle() {
+        return !inFlight && queue.isEmpty();
+    }
+
+    // Called with the monitor held
+    private void enqueue(Job job) {
+        queue.addLast(job);
+        if (!inFlight) {
+            inFlight = true;
+            worker.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            Job job;
+            synchronized (this) {
+                job = queue.pollFirst();
+                if (job == null) {
+                    inFlight = false;
+                    return;
+                }
+            }
+            write(job);
+        }
+    }
+
+    private void write(Job job) {
+        try {
+            job.write.run();
+            callbackExecutor.execute(() -> job.listener.onSaved(job.generation));
+        } catch (IOException e) {
+            callbackExecutor.execute(() -> job.listener.onFailed(job.generation, e));
+        } catch (RuntimeException e) {
+            IOException wrapped = new IOException(e.getMessage(), e);
+            callbackExecutor.execute(() -> job.listener.onFailed(job.generation, wrapped));
+        }
+    }
+
+    /**
+     * Lets the in-flight and pending writes finish, then stops the worker.
+     */
+    @Override
+    public void close() {
+        worker.shutdown();
+        try {
+            worker.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private enum Kind { APPEND, SNAPSHOT, EXPORT }
+
+    @FunctionalInterface
+    private interface Write {
+        void run() throws IOException;
+    }
+
+    // batch: the mutations of an append, only changed while the job is queued (under the monitor)
+    private record Job(JournaledStore store, Kind kind, Write write, List<Mutation> batch, long generation, Listener listener) {}
+}
@@ -0,0 +1,233 @@
+package com.redcatdev86.storage;
+
+import com.redcatdev86.index.PlayerNameDictionary;
+import com.redcatdev86.model.CareerSave;
+import com.redcatdev86.model.ColumnarInjuryList;
+import com.redcatdev86.model.Injury;
+import com.redcatdev86.model.InjuryColumns;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Compact binary format for career saves.
+ * <pre>
+ * int    magic "FCIB"
+ * short  version
+ * varint string count, then per string: varint byte length + UTF-8 bytes
+ * varint save count, then per save: int record length + record
+ *
+ * record: varint save name id, varint injury count,
+ *         per injury: varint player name id + 1 (0 = none), int epoch day (MIN_VALUE = none)
+ * </pre>
+ * Save and player names go through the string table, so each distinct name is stored once.
+ */
+public class BinaryDataStore implements DataStore {
+
+    public static final int MAGIC = 0x46434942; // "FCIB"
+    public static final int VERSION = 1;
+
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final PlayerNameDictionary playerNames;
+    private final Compression compression;
+    private final int level;
+
+    public BinaryDataStore() {
+        this(PlayerNameDictionary.shared());
+    }
+
+    /**
+     * @param playerNames dictionary that loaded player names are interned in
+     */
+    public BinaryDataStore(PlayerNameDictionary playerNames) {
+        this(playerNames, Compression.NONE, Compression.DEFAULT_LEVEL);
+    }
+
+    /**
+     * @param compression how files are compressed when written; reading detects it
+     * @param level       compression level, 1 to 9
+     */
+    public BinaryDataStore(PlayerNameDictionary playerNames, Compression compression, int level) {
+        this.playerNames = playerNames;
+        this.compression = compression;
+        this.level = level;
+    }
+
+    @Override
+    public List<CareerSave> load(Path file) throws IOException {
+        List<CareerSave> saves = new ArrayList<>();
+        forEach(file, saves::add);
+        return saves;
+    }
+
+    @Override
+    public void forEach(Path file, Consumer<? super CareerSave> action) throws IOException {
+        if (file == null || !Files.exists(file)) {
+            return;
+        }
+        try (InputStream in = Compression.open(file)) {
+            read(in, action);
+        }
+    }
+
+    public void read(InputStream raw, Consumer<? super CareerSave> action) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(raw, BUFFER_SIZE));
+        try {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a binary career save file");
+            }
+            int version = in.readUnsignedShort();
+            if (version > VERSION) {
+                throw new IOException("Unsupported binary format version: " + version);
+            }
+
+            String[] strings = new String[readVarInt(in)];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = new String(in.readNBytes(readVarInt(in)), StandardCharsets.UTF_8);
+            }
+            // Save names share the table, so only strings used as player names are interned
+            String[] players = new String[strings.length];
+
+            int saveCount = readVarInt(in);
+            for (int s = 0; s < saveCount; s++) {
+                in.readInt(); // record length, only needed to skip records
+                CareerSave save = new CareerSave(strings[readVarInt(in)]);
+                int injuryCount = readVarInt(in);
+                if (injuryCount >= ColumnarInjuryList.THRESHOLD) {
+                    ColumnarInjuryList injuries = new ColumnarInjuryList(injuryCount);
+                    for (int i = 0; i < injuryCount; i++) {
+                        int nameRef = readVarInt(in);
+                        injuries.addColumns(playerName(strings, players, nameRef), in.readInt());
+                    }
+                    save.setInjuries(injuries);
+                } else {
+                    List<Injury> injuries = new ArrayList<>(injuryCount);
+                    for (int i = 0; i < injuryCount; i++) {
+                        int nameRef = readVarInt(in);
+                        int epochDay = in.readInt();
+                        injuries.add(new Injury(
+                                playerName(strings, players, nameRef),
+                                epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay)));
+                    }
+                    save.setInjuries(injuries);
+                }
+                action.accept(save);
+            }
+        } catch (EOFException e) {
+            throw new IOException("Truncated binary career save file", e);
+        } catch (IndexOutOfBoundsException | NegativeArraySizeException | IllegalArgumentException e) {
+            throw new IOException("Corrupt binary career save file", e);
+        }
+    }
+
+    private String playerName(String[] strings, String[] players, int nameRef) {
+        if (nameRef == 0) return null;
+        String name = players[nameRef - 1];
+        if (name == null) {
+            name = playerNames.intern(strings[nameRef - 1]);
+            players[nameRef - 1] = name;
+        }
+        return name;
+    }
+
+    @Override
+    public void save(Path file, List<CareerSave> saves) throws IOException {
+        if (file == null) throw new IllegalArgumentException("file is null");
+        if (saves == null) saves = new ArrayList<>();
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (OutputStream out = compression.compress(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE), level)) {
+            write(out, saves);
+        }
+    }
+
+    public void write(OutputStream raw, List<CareerSave> saves) throws IOException {
+        Map<String, Integer> ids = new LinkedHashMap<>();
+        for (CareerSave save : saves) {
+            ids.putIfAbsent(save.getName() == null ? "" : save.getName(), ids.size());
+            List<Injury> injuries = save.getInjuries();
+            for (int i = 0; i < injuries.size(); i++) {
+                String playerName = InjuryColumns.playerNameAt(injuries, i);
+                if (playerName != null) {
+                    ids.putIfAbsent(playerName, ids.size());
+                }
+            }
+        }
+
+        DataOutputStream out = new DataOutputStream(raw);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+
+        writeVarInt(out, ids.size());
+        for (String s : ids.keySet()) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(out, bytes.length);
+            out.write(bytes);
+        }
+
+        writeVarInt(out, saves.size());
+        ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+        DataOutputStream record = new DataOutputStream(recordBytes);
+        for (CareerSave save : saves) {
+            recordBytes.reset();
+            writeVarInt(record, ids.get(save.getName() == null ? "" : save.getName()));
+            List<Injury> injuries = save.getInjuries();
+            writeVarInt(record, injuries.size());
+            for (int i = 0; i < injuries.size(); i++) {
+                String playerName = InjuryColumns.playerNameAt(injuries, i);
+                writeVarInt(record, playerName == null ? 0 : ids.get(playerName) + 1);
+                record.writeInt(InjuryColumns.epochDayAt(injuries, i));
+            }
+            record.flush();
+            out.writeInt(recordBytes.size());
+            recordBytes.writeTo(out);
+        }
+        out.flush();
+    }
+
+    @Override
+    public String fileExtension() {
+        return compression.appendTo("fcb");
+    }
+
+    // ----------------------------
+    // Varints (unsigned LEB128)
+    // ----------------------------
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
@@ -0,0 +1,575 @@
+package com.redcatdev86.storage;
+
+import com.redcatdev86.index.PlayerNameDictionary;
+import com.redcatdev86.index.PositionIndex;
+import com.redcatdev86.index.RowIds;
+import com.redcatdev86.model.CareerSave;
+import com.redcatdev86.model.Injury;
+import com.redcatdev86.model.InjuryColumns;
+import com.redcatdev86.model.InjuryVector;
+import com.redcatdev86.model.ModelSnapshot;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.UnaryOperator;
+
+/**
+ * The career saves being edited. Every edit goes through this class and is reported to the
+ * {@link Listener}s as a {@link Change} carrying the journal {@link Mutation}; each also
+ * produces a new {@link ModelSnapshot}, which other threads read without locks. Saves and
+ * injuries are found by stable ids in O(1). Not thread-safe.
+ */
+public class CareerSaveRepository {
+
+    public interface Listener {
+        void changed(Change change);
+    }
+
+    public enum Kind {
+        /** All saves were replaced ({@link #replaceAll}). */
+        RESET,
+        /** A single edit, described by {@link Change#mutation()}. */
+        EDIT,
+        /** {@code count} injuries appended at {@code injuryIndex} ({@link #addInjuries}); not journaled. */
+        BULK_ADD,
+        /** An edit already on disk ({@link #applyExternal}); not journaled. */
+        EXTERNAL
+    }
+
+    /**
+     * Injuries read for a save, with the vector of them its snapshot entry takes and their ids.
+     */
+    public record LoadedInjuries(List<Injury> injuries, InjuryVector vector, RowIds ids) {}
+
+    /**
+     * One change. {@code injury} and {@code rowId} are set for single-injury edits.
+     */
+    public record Change(Kind kind, Mutation mutation, CareerSave save, int saveIndex, Injury injury, int injuryIndex,
+                         int rowId, int count) {
+
+        static Change edit(Mutation mutation, CareerSave save, int saveIndex, Injury injury, int injuryIndex, int rowId) {
+            return new Change(Kind.EDIT, mutation, save, saveIndex, injury, injuryIndex, rowId, 1);
+        }
+
+        public boolean isReset() {
+            return kind == Kind.RESET;
+        }
+
+        public Mutation.Type type() {
+            return mutation == null ? null : mutation.getType();
+        }
+    }
+
+    private final PlayerNameDictionary playerNames;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private boolean applyingExternal;
+
+    private final List<CareerSave> saves = new ArrayList<>();
+    private final PositionIndex<CareerSave> savePositions = new PositionIndex<>(saves);
+    private final Map<String, CareerSave> byName = new HashMap<>();
+    private final Map<Long, CareerSave> byId = new HashMap<>();
+    private final Map<CareerSave, Long> ids = new IdentityHashMap<>();
+    private long nextId = 1;
+
+    // Replaced, never modified; loaded saves carry their vector
+    private volatile ModelSnapshot snapshot = ModelSnapshot.EMPTY;
+
+    // Injury ids of the loaded saves, with the list they number
+    private record Rows(List<Injury> injuries, RowIds ids) {}
+
+    private final Map<CareerSave, Rows> rows = new IdentityHashMap<>();
+
+    public CareerSaveRepository() {
+        this(PlayerNameDictionary.shared());
+    }
+
+    public CareerSaveRepository(PlayerNameDictionary playerNames) {
+        this.playerNames = playerNames;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    // ----------------------------
+    // Queries
+    // ----------------------------
+    public List<CareerSave> getSaves() {
+        return Collections.unmodifiableList(saves);
+    }
+
+    public int size() {
+        return saves.size();
+    }
+
+    /**
+     * Immutable state of the saves as of the last edit; O(1), callable from any thread.
+     */
+    public ModelSnapshot snapshot() {
+        return snapshot;
+    }
+
+    public CareerSave findByName(String name) {
+        return name == null ? null : byName.get(key(name));
+    }
+
+    public boolean containsName(String name) {
+        return findByName(name) != null;
+    }
+
+    /**
+     * Whether an injury of a loaded save is of {@code playerName}.
+     */
+    public boolean references(String playerName) {
+        for (CareerSave save : saves) {
+            if (!save.isLoaded()) continue;
+            List<Injury> injuries = save.getInjuries();
+            for (int i = 0; i < injuries.size(); i++) {
+                String name = InjuryColumns.playerNameAt(injuries, i);
+                if (name == playerName || playerName.equals(name)) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Id of {@code save}, stable for as long as it is in the repository; 0 if it is not.
+     */
+    public long idOf(CareerSave save) {
+        Long id = ids.get(save);
+        return id == null ? 0 : id;
+    }
+
+    public CareerSave findById(long id) {
+        return byId.get(id);
+    }
+
+    public int indexOf(CareerSave save) {
+        return savePositions.indexOf(save);
+    }
+
+    /**
+     * Id of the injury at {@code index} of a loaded save, kept until the save is unloaded.
+     */
+    public int injuryIdAt(CareerSave save, int index) {
+        return rowIds(save).idAt(index);
+    }
+
+    /**
+     * Position of the injury with {@code id} in a loaded save, or -1.
+     */
+    public int injuryIndexOf(CareerSave save, int id) {
+        return rowIds(save).positionOf(id);
+    }
+
+    /**
+     * The ids of a loaded save's injuries; read only.
+     */
+    public RowIds injuryIds(CareerSave save) {
+        return rowIds(save);
+    }
+
+    // ----------------------------
+    // Edits
+    // ----------------------------
+
+    /**
+     * Replaces every save, e.g. after loading a file. Not journaled.
+     */
+    public void replaceAll(List<CareerSave> loaded) {
+        replaceAll(loaded, Map.of());
+    }
+
+    /**
+     * Like {@link #replaceAll(List)}, with {@code read} holding the loaded saves' injuries as
+     * built by {@link #prepareLoaded}.
+     */
+    public void replaceAll(List<CareerSave> loaded, Map<CareerSave, LoadedInjuries> read) {
+        saves.clear();
+        byName.clear();
+        byId.clear();
+        ids.clear();
+        savePositions.clear();
+        rows.clear();
+        for (CareerSave save : loaded) {
+            saves.add(save);
+            register(save);
+        }
+        snapshot = ModelSnapshot.of(saves, save -> take(save, read.get(save)));
+        fire(new Change(Kind.RESET, null, null, -1, null, -1, -1, 0));
+    }
+
+    /**
+     * Builds what {@link #loaded} needs for {@code injuries}; call on the thread that read them.
+     */
+    public static LoadedInjuries prepare(List<Injury> injuries) {
+        return new LoadedInjuries(injuries, InjuryVector.of(injuries), new RowIds(injuries.size()));
+    }
+
+    /**
+     * {@link #prepare} for each loaded save of {@code saves}.
+     */
+    public static Map<CareerSave, LoadedInjuries> prepareLoaded(List<CareerSave> saves) {
+        Map<CareerSave, LoadedInjuries> read = new IdentityHashMap<>();
+        for (CareerSave save : saves) {
+            if (save.isLoaded()) read.put(save, prepare(save.getInjuries()));
+        }
+        return read;
+    }
+
+    /**
+     * Notes that {@code save} now holds {@code read}. Ignored if it holds other injuries.
+     */
+    public void loaded(CareerSave save, LoadedInjuries read) {
+        InjuryVector vector = take(save, read);
+        int index = indexOf(save);
+        if (vector != null && index >= 0) {
+            snapshot = snapshot.with(index, ModelSnapshot.Save.of(save.getName(), vector));
+        }
+    }
+
+    /**
+     * Notes that the store unloaded {@code evicted}.
+     */
+    public void unloaded(List<CareerSave> evicted) {
+        for (CareerSave save : evicted) {
+            int index = indexOf(save);
+            if (index >= 0) {
+                snapshot = snapshot.with(index, new ModelSnapshot.Save(save.getName(), save.getInjuryCount(), null));
+            }
+            rows.remove(save);
+        }
+    }
+
+    /**
+     * Adds an empty save at the end.
+     *
+     * @throws IllegalArgumentException if the name is blank or already taken (ignoring case)
+     */
+    public CareerSave createSave(String name) {
+        String trimmed = name == null ? "" : name.trim();
+        if (trimmed.isEmpty()) {
+            throw new IllegalArgumentException("Name cannot be empty.");
+        }
+        if (containsName(trimmed)) {
+            throw new IllegalArgumentException("A save with the same name already exists.");
+        }
+
+        CareerSave save = new CareerSave(trimmed);
+        saves.add(save);
+        savePositions.added(save);
+        register(save);
+        snapshot = snapshot.inserted(saves.size() - 1, ModelSnapshot.Save.of(trimmed, InjuryVector.EMPTY));
+        fire(Change.edit(Mutation.createSave(trimmed), save, saves.size() - 1, null, -1, -1));
+        return save;
+    }
+
+    public void deleteSave(CareerSave save) {
+        int index = requireIndex(save);
+        saves.remove(index);
+        savePositions.removed(save, index);
+        snapshot = snapshot.removed(index);
+        if (save.getName() != null) {
+            byName.remove(key(save.getName()), save);
+        }
+        byId.remove(ids.remove(save));
+        rows.remove(save);
+        if (save.isLoaded()) {
+            List<Injury> injuries = save.getInjuries();
+            for (int i = 0; i < injuries.size(); i++) {
+                playerNames.release(InjuryColumns.playerNameAt(injuries, i));
+            }
+        }
+        fire(Change.edit(Mutation.deleteSave(save.getName()), save, index, null, -1, -1));
+    }
+
+    /**
+     * Appends an injury to a loaded save; the player name is interned.
+     */
+    public Injury addInjury(CareerSave save, String playerName, LocalDate recoveryDate) {
+        String player = playerNames.intern(playerName);
+        Injury injury = new Injury(player, recoveryDate);
+        RowIds rowIds = rowIds(save);
+        List<Injury> injuries = save.getInjuries();
+        injuries.add(injury);
+        int id = rowIds.added();
+        int saveIndex = indexOf(save);
+        updateSnapshot(save, saveIndex, v -> v.appended(player, recoveryDate));
+        fire(Change.edit(Mutation.addInjury(save.getName(), player, recoveryDate),
+                save, saveIndex, injury, injuries.size() - 1, id));
+        return injury;
+    }
+
+    /**
+     * Appends {@code batch} to a loaded save as one change. Not journaled: write a snapshot
+     * of the save afterwards.
+     */
+    public void addInjuries(CareerSave save, List<Injury> batch) {
+        if (batch.isEmpty()) return;
+        RowIds rowIds = rowIds(save);
+        List<Injury> injuries = save.getInjuries();
+        int from = injuries.size();
+        injuries.addAll(batch);
+        for (int i = 0; i < batch.size(); i++) {
+            rowIds.added();
+        }
+        int saveIndex = indexOf(save);
+        updateSnapshot(save, saveIndex, v -> {
+            for (Injury injury : batch) {
+                v = v.appended(injury.getPlayerName(), injury.getRecoveryDate());
+            }
+            return v;
+        });
+        fire(new Change(Kind.BULK_ADD, null, save, saveIndex, null, from, -1, batch.size()));
+    }
+
+    /**
+     * Deletes the injury with {@code id} (see {@link #injuryIdAt}). The last injury of the
+     * save takes its place.
+     *
+     * @throws IllegalArgumentException if the save has no such injury
+     */
+    public void deleteInjury(CareerSave save, int id) {
+        int index = requireInjury(save, id);
+        List<Injury> injuries = save.getInjuries();
+        Injury injury = injuries.get(index);
+        Injury last = injuries.remove(injuries.size() - 1);
+        int lastIndex = injuries.size();
+        if (index < lastIndex) injuries.set(index, last);
+        rowIds(save).swapRemoved(index);
+        playerNames.release(injury.getPlayerName());
+        int saveIndex = indexOf(save);
+        updateSnapshot(save, saveIndex, v -> index < lastIndex
+                ? v.with(index, v.playerNameAt(lastIndex), InjuryColumns.toDate(v.epochDayAt(lastIndex))).removed(lastIndex)
+                : v.removed(lastIndex));
+        fire(Change.edit(Mutation.removeInjury(save.getName(), index), save, saveIndex, injury, index, id));
+    }
+
+    // Only for external changes, which keep the order of the rows: O(n)
+    private void deleteAt(CareerSave save, int index) {
+        RowIds rowIds = rowIds(save);
+        int id = rowIds.idAt(index);
+        Injury injury = save.getInjuries().remove(index);
+        rowIds.removed(index);
+        playerNames.release(injury.getPlayerName());
+        int saveIndex = indexOf(save);
+        updateSnapshot(save, saveIndex, v -> v.removed(index));
+        fire(Change.edit(Mutation.deleteInjury(save.getName(), index), save, saveIndex, injury, index, id));
+    }
+
+    /**
+     * Renames the player of the injury with {@code id}.
+     *
+     * @throws IllegalArgumentException if the save has no such injury
+     */
+    public void setPlayerName(CareerSave save, int id, String playerName) {
+        playerNameAt(save, requireInjury(save, id), playerName);
+    }
+
+    private void playerNameAt(CareerSave save, int index, String playerName) {
+        Injury injury = save.getInjuries().get(index);
+        String player = playerNames.intern(playerName);
+        if (!Objects.equals(injury.getPlayerName(), player)) playerNames.release(injury.getPlayerName());
+        injury.setPlayerName(player);
+        save.getInjuries().set(index, injury);
+        int saveIndex = indexOf(save);
+        updateSnapshot(save, saveIndex, v -> v.with(index, player, injury.getRecoveryDate()));
+        fire(Change.edit(Mutation.editPlayerName(save.getName(), index, player), save, saveIndex, injury, index,
+                rowIds(save).idAt(index)));
+    }
+
+    /**
+     * Changes the recovery date of the injury with {@code id}.
+     *
+     * @throws IllegalArgumentException if the save has no such injury
+     */
+    public void setRecoveryDate(CareerSave save, int id, LocalDate recoveryDate) {
+        recoveryDateAt(save, requireInjury(save, id), recoveryDate);
+    }
+
+    private void recoveryDateAt(CareerSave save, int index, LocalDate recoveryDate) {
+        Injury injury = save.getInjuries().get(index);
+        injury.setRecoveryDate(recoveryDate);
+        save.getInjuries().set(index, injury);
+        int saveIndex = indexOf(save);
+        updateSnapshot(save, saveIndex, v -> v.with(index, injury.getPlayerName(), recoveryDate));
+        fire(Change.edit(Mutation.editRecoveryDate(save.getName(), index, recoveryDate), save, saveIndex, injury, index,
+                rowIds(save).idAt(index)));
+    }
+
+    // ----------------------------
+    // External changes
+    // ----------------------------
+
+    /**
+     * Brings the saves called {@code names} in line with {@code theirs}, e.g. after another
+     * instance wrote the data file. A loaded save gets only the injury edits between the two
+     * versions, reported as {@link Kind#EXTERNAL} changes, and needs its version in
+     * {@code theirs} loaded too.
+     */
+    public void applyExternal(List<CareerSave> theirs, Set<String> names, Map<CareerSave, LoadedInjuries> read) {
+        Map<String, CareerSave> theirsByName = new HashMap<>();
+        for (CareerSave save : theirs) {
+            theirsByName.put(save.getName(), save);
+        }
+
+        applyingExternal = true;
+        try {
+            for (String name : names) {
+                CareerSave mine = findByName(name);
+                CareerSave their = theirsByName.get(name);
+                if (their == null) {
+                    if (mine != null) deleteSave(mine);
+                } else if (mine == null) {
+                    addSave(their, take(their, read.get(their)));
+                } else if (mine.isLoaded() && their.isLoaded()) {
+                    syncInjuries(mine, their.getInjuries());
+                } else if (!mine.isLoaded()) {
+                    // Nothing on screen to update
+                    if (their.isLoaded()) mine.setInjuries(their.getInjuries());
+                    snapshot = snapshot.with(indexOf(mine), new ModelSnapshot.Save(name, their.getInjuryCount(), take(mine, read.get(their))));
+                }
+            }
+        } finally {
+            applyingExternal = false;
+        }
+    }
+
+    private void addSave(CareerSave save, InjuryVector vector) {
+        saves.add(save);
+        savePositions.added(save);
+        register(save);
+        snapshot = snapshot.inserted(saves.size() - 1, new ModelSnapshot.Save(save.getName(), save.getInjuryCount(), vector));
+        fire(Change.edit(Mutation.createSave(save.getName()), save, saves.size() - 1, null, -1, -1));
+    }
+
+    // Edits the rows between the common prefix and suffix
+    private void syncInjuries(CareerSave save, List<Injury> theirs) {
+        List<Injury> mine = save.getInjuries();
+        int m = mine.size();
+        int t = theirs.size();
+        int start = 0;
+        while (start < m && start < t && sameRow(mine, start, theirs, start)) {
+            start++;
+        }
+        int tail = 0;
+        while (tail < m - start && tail < t - start && sameRow(mine, m - 1 - tail, theirs, t - 1 - tail)) {
+            tail++;
+        }
+
+        int common = Math.min(m, t) - tail - start;
+        for (int i = start; i < start + common; i++) {
+            String name = InjuryColumns.playerNameAt(theirs, i);
+            int day = InjuryColumns.epochDayAt(theirs, i);
+            if (!Objects.equals(InjuryColumns.playerNameAt(mine, i), name)) {
+                playerNameAt(save, i, name);
+            }
+            if (InjuryColumns.epochDayAt(mine, i) != day) {
+                recoveryDateAt(save, i, InjuryColumns.toDate(day));
+            }
+        }
+        for (int i = m - tail; i > start + common; i--) {
+            deleteAt(save, start + common);
+        }
+        for (int i = start + common; i < t - tail; i++) {
+            insertAt(save, i, InjuryColumns.playerNameAt(theirs, i), InjuryColumns.toDate(InjuryColumns.epochDayAt(theirs, i)));
+        }
+    }
+
+    private static boolean sameRow(List<Injury> a, int i, List<Injury> b, int j) {
+        return InjuryColumns.epochDayAt(a, i) == InjuryColumns.epochDayAt(b, j)
+                && Objects.equals(InjuryColumns.playerNameAt(a, i), InjuryColumns.playerNameAt(b, j));
+    }
+
+    // Only for external changes: the journal has no insert, so this is never journaled
+    private void insertAt(CareerSave save, int index, String playerName, LocalDate recoveryDate) {
+        String player = playerNames.intern(playerName);
+        Injury injury = new Injury(player, recoveryDate);
+        RowIds rowIds = rowIds(save);
+        save.getInjuries().add(index, injury);
+        int id = rowIds.inserted(index);
+        int saveIndex = indexOf(save);
+        updateSnapshot(save, saveIndex, v -> v.inserted(index, player, recoveryDate));
+        fire(Change.edit(Mutation.addInjury(save.getName(), player, recoveryDate), save, saveIndex, injury, index, id));
+    }
+
+    // ----------------------------
+    // Helpers
+    // ----------------------------
+    private void register(CareerSave save) {
+        long id = nextId++;
+        ids.put(save, id);
+        byId.put(id, save);
+        if (save.getName() != null) {
+            byName.putIfAbsent(key(save.getName()), save);
+        }
+    }
+
+    // Applies an injury edit, already made to the save, to its vector
+    private void updateSnapshot(CareerSave save, int saveIndex, UnaryOperator<InjuryVector> edit) {
+        InjuryVector current = snapshot.get(saveIndex).injuries();
+        InjuryVector next = current == null ? InjuryVector.of(save.getInjuries()) : edit.apply(current);
+        snapshot = snapshot.with(saveIndex, ModelSnapshot.Save.of(save.getName(), next));
+    }
+
+    // Takes the ids of read and returns its vector if save holds its injuries, else null
+    private InjuryVector take(CareerSave save, LoadedInjuries read) {
+        if (read == null || !save.isLoaded() || save.getInjuries() != read.injuries()) return null;
+        rows.put(save, new Rows(read.injuries(), read.ids()));
+        return read.vector();
+    }
+
+    // Ids of a loaded save's injuries, built here if it was loaded without them
+    private RowIds rowIds(CareerSave save) {
+        List<Injury> injuries = save.getInjuries();
+        Rows known = rows.get(save);
+        if (known == null || known.injuries() != injuries) {
+            known = new Rows(injuries, new RowIds(injuries.size()));
+            rows.put(save, known);
+        }
+        return known.ids();
+    }
+
+    private int requireIndex(CareerSave save) {
+        int index = indexOf(save);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown save: " + save.getName());
+        }
+        return index;
+    }
+
+    private int requireInjury(CareerSave save, int id) {
+        int index = injuryIndexOf(save, id);
+        if (index < 0) {
+            throw new IllegalArgumentException("No injury " + id + " in save: " + save.getName());
+        }
+        return index;
+    }
+
+    private void fire(Change change) {
+        if (applyingExternal && change.kind() == Kind.EDIT) {
+            change = new Change(Kind.EXTERNAL, change.mutation(), change.save(), change.saveIndex(),
+                    change.injury(), change.injuryIndex(), change.rowId(), change.count());
+        }
+        for (Listener listener : listeners) {
+            listener.changed(change);
+        }
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
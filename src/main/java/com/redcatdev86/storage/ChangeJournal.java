@@ -0,0 +1,234 @@
+package com.redcatdev86.storage;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of {@link Mutation}s that sits next to a snapshot file.
+ * <p>
+ * Layout: a header ({@code magic, snapshot size, snapshot mtime}) followed by records of
+ * {@code [int length][int crc32][payload]}. The header ties the journal to the snapshot it
+ * applies on top of; a journal whose snapshot has since been replaced is stale and ignored.
+ * A record that is cut short or fails its checksum ends the journal and is truncated away.
+ */
+public class ChangeJournal {
+
+    private static final int MAGIC = 0x46434A31; // "FCJ1"
+    private static final int HEADER_SIZE = 4 + 8 + 8;
+    private static final int RECORD_HEADER_SIZE = 4 + 4;
+    private static final int MAX_RECORD_SIZE = 1 << 20;
+
+    /**
+     * Identifies a snapshot file by size and modification time.
+     */
+    public record Stamp(long size, long lastModified) {
+
+        public static Stamp of(Path snapshot) throws IOException {
+            if (!Files.exists(snapshot)) {
+                return new Stamp(-1, -1);
+            }
+            return new Stamp(Files.size(snapshot), Files.getLastModifiedTime(snapshot).toMillis());
+        }
+    }
+
+    private final Path file;
+    private volatile long size;
+
+    public ChangeJournal(Path file) {
+        this.file = file;
+    }
+
+    public static Path pathFor(Path snapshot) {
+        return snapshot.resolveSibling(snapshot.getFileName() + ".journal");
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Bytes currently in the journal, header included.
+     */
+    public long size() {
+        return size;
+    }
+
+    public boolean hasRecords() {
+        return size > HEADER_SIZE;
+    }
+
+    /**
+     * Reads back every intact record written on top of {@code snapshot}. A missing or stale
+     * journal is replaced by an empty one; a torn tail is truncated so appends can resume.
+     */
+    public List<Mutation> recover(Stamp snapshot) throws IOException {
+        List<Mutation> mutations = new ArrayList<>();
+        if (!Files.exists(file)) {
+            reset(snapshot);
+            return mutations;
+        }
+
+        long validEnd;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (!readHeader(in, snapshot)) {
+                reset(snapshot);
+                return mutations;
+            }
+            validEnd = HEADER_SIZE;
+            byte[] payload;
+            while ((payload = readRecord(in)) != null) {
+                Mutation m = decode(payload);
+                if (m == null) break;
+                mutations.add(m);
+                validEnd += RECORD_HEADER_SIZE + payload.length;
+            }
+        }
+
+        if (validEnd < Files.size(file)) {
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                ch.truncate(validEnd);
+            }
+        }
+        size = validEnd;
+        return mutations;
+    }
+
+    /**
+     * Reads the intact records from byte {@code offset}, a record boundary, to the end,
+     * e.g. the ones another writer appended after this journal's own. Does not repair.
+     */
+    public List<Mutation> readFrom(long offset) throws IOException {
+        List<Mutation> mutations = new ArrayList<>();
+        if (!Files.exists(file)) {
+            return mutations;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            in.skipNBytes(offset);
+            byte[] payload;
+            while ((payload = readRecord(in)) != null) {
+                Mutation m = decode(payload);
+                if (m == null) break;
+                mutations.add(m);
+            }
+        } catch (EOFException e) {
+            // Shorter than offset: replaced since, nothing past it
+        }
+        return mutations;
+    }
+
+    /**
+     * Appends one record. Cost depends only on the size of the mutation.
+     */
+    public void append(Mutation mutation) throws IOException {
+        append(List.of(mutation));
+    }
+
+    /**
+     * Appends one record per mutation, in order, with a single write.
+     */
+    public void append(List<Mutation> mutations) throws IOException {
+        List<byte[]> payloads = new ArrayList<>(mutations.size());
+        int length = 0;
+        for (Mutation mutation : mutations) {
+            byte[] payload = mutation.encode();
+            payloads.add(payload);
+            length += RECORD_HEADER_SIZE + payload.length;
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        for (byte[] payload : payloads) {
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            buf.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+        }
+        buf.flip();
+
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (buf.hasRemaining()) {
+                ch.write(buf);
+            }
+        } catch (NoSuchFileException e) {
+            throw new IOException("Journal is missing: " + file, e);
+        }
+        size += buf.limit();
+    }
+
+    /**
+     * Atomically replaces the journal with an empty one bound to {@code snapshot}.
+     */
+    public void reset(Stamp snapshot) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putLong(snapshot.size()).putLong(snapshot.lastModified());
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(tmp, header.array());
+        moveReplacing(tmp, file);
+        size = HEADER_SIZE;
+    }
+
+    static void moveReplacing(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static boolean readHeader(DataInputStream in, Stamp snapshot) throws IOException {
+        try {
+            return in.readInt() == MAGIC
+                    && in.readLong() == snapshot.size()
+                    && in.readLong() == snapshot.lastModified();
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    // Returns null at the end of the journal or at the first damaged record
+    private static byte[] readRecord(DataInputStream in) throws IOException {
+        int length;
+        int expectedCrc;
+        byte[] payload;
+        try {
+            length = in.readInt();
+            expectedCrc = in.readInt();
+            if (length <= 0 || length > MAX_RECORD_SIZE) {
+                return null;
+            }
+            payload = in.readNBytes(length);
+        } catch (EOFException e) {
+            return null;
+        }
+        if (payload.length < length) {
+            return null;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue() == expectedCrc ? payload : null;
+    }
+
+    private static Mutation decode(byte[] payload) {
+        try (InputStream bytes = new ByteArrayInputStream(payload)) {
+            return Mutation.decode(new DataInputStream(bytes));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.redcatdev86.storage;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.redcatdev86.index.PlayerNameDictionary;
+import com.redcatdev86.model.CareerSave;
+import com.redcatdev86.model.ColumnarInjuryList;
+import com.redcatdev86.model.InjuryColumns;
+import com.redcatdev86.model.InjuryVector;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Jackson module that reads and writes injuries straight from and into
+ * {@link ColumnarInjuryList} columns (and writes {@link InjuryVector} snapshots the same
+ * way), so large saves never go through one {@code Injury} per row. The JSON shape is
+ * unchanged.
+ */
+final class ColumnarJson {
+
+    private ColumnarJson() {
+    }
+
+    static SimpleModule module(PlayerNameDictionary playerNames) {
+        SimpleModule module = new SimpleModule("ColumnarInjuries");
+        module.addSerializer(ColumnarInjuryList.class, new ColumnsSerializer<>(ColumnarInjuryList.class));
+        module.addSerializer(InjuryVector.class, new ColumnsSerializer<>(InjuryVector.class));
+        module.addDeserializer(CareerSave.class, new SaveDeserializer(playerNames));
+        return module;
+    }
+
+    private static final class ColumnsSerializer<T extends InjuryColumns> extends StdSerializer<T> {
+
+        private static final long serialVersionUID = 1L;
+
+        ColumnsSerializer(Class<T> type) {
+            super(type);
+        }
+
+        @Override
+        public void serialize(T list, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            int size = list.size();
+            gen.writeStartArray(list, size);
+            for (int i = 0; i < size; i++) {
+                gen.writeStartObject();
+                gen.writeStringField("playerName", list.playerNameAt(i));
+                int day = list.epochDayAt(i);
+                if (day == InjuryColumns.NO_DATE) {
+                    gen.writeNullField("recoveryDate");
+                } else {
+                    gen.writeStringField("recoveryDate", LocalDate.ofEpochDay(day).toString());
+                }
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        }
+    }
+
+    /**
+     * Parses a save into columns; saves below {@link ColumnarInjuryList#THRESHOLD} are
+     * turned back into a plain list. Player names are interned in the dictionary.
+     */
+    private static final class SaveDeserializer extends StdDeserializer<CareerSave> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final PlayerNameDictionary playerNames;
+
+        SaveDeserializer(PlayerNameDictionary playerNames) {
+            super(CareerSave.class);
+            this.playerNames = playerNames;
+        }
+
+        @Override
+        public CareerSave deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() != JsonToken.START_OBJECT) {
+                return (CareerSave) ctxt.handleUnexpectedToken(CareerSave.class, p);
+            }
+            CareerSave save = new CareerSave();
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                JsonToken value = p.nextToken();
+                switch (field) {
+                    case "name" -> save.setName(value == JsonToken.VALUE_NULL ? null : p.getValueAsString());
+                    case "injuries" -> {
+                        if (value != JsonToken.VALUE_NULL) {
+                            ColumnarInjuryList injuries = readInjuries(p, ctxt);
+                            save.setInjuries(injuries.size() >= ColumnarInjuryList.THRESHOLD
+                                    ? injuries : injuries.toArrayList());
+                        }
+                    }
+                    default -> ctxt.handleUnknownProperty(p, this, CareerSave.class, field);
+                }
+            }
+            return save;
+        }
+
+        private ColumnarInjuryList readInjuries(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() != JsonToken.START_ARRAY) {
+                ctxt.handleUnexpectedToken(ColumnarInjuryList.class, p);
+            }
+            ColumnarInjuryList injuries = new ColumnarInjuryList();
+            while (p.nextToken() != JsonToken.END_ARRAY) {
+                if (p.currentToken() != JsonToken.START_OBJECT) {
+                    ctxt.handleUnexpectedToken(ColumnarInjuryList.class, p);
+                }
+                String playerName = null;
+                int epochDay = ColumnarInjuryList.NO_DATE;
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = p.currentName();
+                    JsonToken value = p.nextToken();
+                    switch (field) {
+                        case "playerName" -> playerName = value == JsonToken.VALUE_NULL ? null : playerNames.intern(p.getValueAsString());
+                        case "recoveryDate" -> epochDay = readEpochDay(p, value);
+                        default -> ctxt.handleUnknownProperty(p, this, CareerSave.class, field);
+                    }
+                }
+                injuries.addColumns(playerName, epochDay);
+            }
+            return injuries;
+        }
+
+        private static int readEpochDay(JsonParser p, JsonToken value) throws IOException {
+            try {
+                if (value == JsonToken.VALUE_NULL) {
+                    return ColumnarInjuryList.NO_DATE;
+                }
+                if (value == JsonToken.VALUE_STRING) {
+                    return Math.toIntExact(LocalDate.parse(p.getText()).toEpochDay());
+                }
+                if (value == JsonToken.START_ARRAY) {
+                    // Dates written as timestamps: [year, month, day]
+                    int year = nextInt(p);
+                    int month = nextInt(p);
+                    int day = nextInt(p);
+                    if (p.nextToken() != JsonToken.END_ARRAY) {
+                        throw new IOException("Malformed recoveryDate at " + p.currentLocation());
+                    }
+                    return Math.toIntExact(LocalDate.of(year, month, day).toEpochDay());
+                }
+            } catch (DateTimeException | ArithmeticException e) {
+                throw new IOException("Invalid recoveryDate at " + p.currentLocation(), e);
+            }
+            throw new IOException("Unexpected recoveryDate token " + value + " at " + p.currentLocation());
+        }
+
+        private static int nextInt(JsonParser p) throws IOException {
+            if (p.nextToken() != JsonToken.VALUE_NUMBER_INT) {
+                throw new IOException("Malformed recoveryDate at " + p.currentLocation());
+            }
+            return p.getIntValue();
+        }
+    }
+}
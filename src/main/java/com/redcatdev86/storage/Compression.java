@@ -0,0 +1,161 @@
+package com.redcatdev86.storage;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Optional compression of data files, as a stream layer under any {@link DataFormat}.
+ * Writers compress as configured; readers go by the magic bytes.
+ */
+public enum Compression {
+
+    NONE(""),
+    GZIP("gz"),
+    DEFLATE("zz");
+
+    /**
+     * Level used unless configured otherwise.
+     */
+    public static final int DEFAULT_LEVEL = Deflater.BEST_SPEED;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final String extension;
+
+    Compression(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * Extension appended to the format's own, without the dot; empty for {@link #NONE}.
+     */
+    public String extension() {
+        return extension;
+    }
+
+    /**
+     * {@code fileName} with this compression's extension, e.g. {@code data.json.gz}.
+     */
+    public String appendTo(String fileName) {
+        return this == NONE ? fileName : fileName + "." + extension;
+    }
+
+    /**
+     * Compression implied by the extension of {@code file}.
+     */
+    public static Compression forFileName(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        for (Compression c : values()) {
+            if (c != NONE && name.endsWith("." + c.extension)) return c;
+        }
+        return NONE;
+    }
+
+    /**
+     * {@code fileName} without a compression extension.
+     */
+    public static String stripExtension(String fileName) {
+        Compression c = forFileName(Path.of(fileName));
+        return c == NONE ? fileName : fileName.substring(0, fileName.length() - c.extension.length() - 1);
+    }
+
+    /**
+     * Compression for new data files, from the {@code fc.compression} system property
+     * ({@code none}, {@code gzip} or {@code deflate}).
+     */
+    public static Compression configured() {
+        String value = System.getProperty("fc.compression", "none").trim().toUpperCase(Locale.ROOT);
+        try {
+            return valueOf(value);
+        } catch (IllegalArgumentException e) {
+            return NONE;
+        }
+    }
+
+    /**
+     * Level for writing, 1 (fastest) to 9 (smallest), from the {@code fc.compression.level}
+     * system property.
+     */
+    public static int configuredLevel() {
+        int level = Integer.getInteger("fc.compression.level", DEFAULT_LEVEL);
+        return Math.max(Deflater.BEST_SPEED, Math.min(Deflater.BEST_COMPRESSION, level));
+    }
+
+    // ----------------------------
+    // Streams
+    // ----------------------------
+
+    /**
+     * Wraps {@code out} so what is written to it is compressed at {@code level}.
+     */
+    public OutputStream compress(OutputStream out, int level) throws IOException {
+        return switch (this) {
+            case NONE -> out;
+            case GZIP -> new GZIPOutputStream(out, BUFFER_SIZE) {
+                {
+                    def.setLevel(level);
+                }
+            };
+            case DEFLATE -> new DeflaterOutputStream(out, new Deflater(level), BUFFER_SIZE) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        def.end();
+                    }
+                }
+            };
+        };
+    }
+
+    /**
+     * Opens {@code file} for reading, decompressing it if its header says so.
+     */
+    public static InputStream open(Path file) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE);
+        try {
+            in.mark(2);
+            int b0 = in.read();
+            int b1 = in.read();
+            in.reset();
+            return switch (detect(b0, b1)) {
+                case NONE -> in;
+                case GZIP -> new GZIPInputStream(in, BUFFER_SIZE);
+                case DEFLATE -> new InflaterInputStream(in, new Inflater(), BUFFER_SIZE) {
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            inf.end();
+                        }
+                    }
+                };
+            };
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    // gzip: 1f 8b. zlib: CM 8 in the low nibble, window of at most 32K, header check multiple of 31
+    static Compression detect(int b0, int b1) {
+        if (b0 == 0x1f && b1 == 0x8b) return GZIP;
+        if (b0 >= 0 && b1 >= 0 && (b0 & 0x0f) == 8 && (b0 >> 4) <= 7 && ((b0 << 8) | b1) % 31 == 0) {
+            return DEFLATE;
+        }
+        return NONE;
+    }
+}
@@ -0,0 +1,259 @@
+package com.redcatdev86.storage;
+
+import com.redcatdev86.index.PlayerNameDictionary;
+import com.redcatdev86.model.Injury;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming reader for injury spreadsheets exported as CSV: one injury per record, player
+ * name then recovery date.
+ * <ul>
+ *   <li>Fields are separated by {@code ,} or {@code ;} (picked from the first line) and may be
+ *       quoted, with {@code ""} for a quote inside a quoted field; extra columns are ignored.</li>
+ *   <li>Dates are {@code yyyy-MM-dd}, {@code dd/MM/yyyy} or {@code dd.MM.yyyy}, parsed by hand
+ *       rather than through a formatter.</li>
+ *   <li>A first line whose date does not parse is taken as a header. Other bad records are
+ *       skipped and counted.</li>
+ * </ul>
+ * Injuries are handed over in batches of {@link #getBatchSize()}; the handler can stop the read.
+ */
+public class CsvInjuryReader {
+
+    public static final int DEFAULT_BATCH_SIZE = 5_000;
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    @FunctionalInterface
+    public interface BatchHandler {
+        /**
+         * @return false to stop reading
+         */
+        boolean accept(List<Injury> batch) throws IOException;
+    }
+
+    /**
+     * Outcome of a read. {@code errors} holds the first few problems, by line number.
+     */
+    public record Result(int imported, int skipped, boolean stopped, List<String> errors) {}
+
+    private final PlayerNameDictionary playerNames;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    public CsvInjuryReader() {
+        this(PlayerNameDictionary.shared());
+    }
+
+    public CsvInjuryReader(PlayerNameDictionary playerNames) {
+        this.playerNames = playerNames;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        this.batchSize = batchSize;
+    }
+
+    public Result read(Reader source, BatchHandler handler) throws IOException {
+        RecordParser parser = new RecordParser(source);
+
+        List<Injury> batch = new ArrayList<>(batchSize);
+        List<String> errors = new ArrayList<>();
+        int imported = 0;
+        int skipped = 0;
+
+        List<String> fields = new ArrayList<>(4);
+        while (parser.next(fields)) {
+            int line = parser.startLine;
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+
+            String player = fields.get(0).trim();
+            String dateText = fields.size() > 1 ? fields.get(1).trim() : "";
+            LocalDate date = parseDate(dateText);
+
+            String problem = null;
+            if (player.isEmpty()) {
+                problem = "missing player name";
+            } else if (date == null) {
+                problem = dateText.isEmpty() ? "missing recovery date" : "unreadable date '" + dateText + "'";
+            }
+
+            if (problem != null) {
+                if (line == 1) continue; // header
+                skipped++;
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add("Line " + line + ": " + problem);
+                }
+                continue;
+            }
+
+            batch.add(new Injury(playerNames.intern(player), date));
+            if (batch.size() == batchSize) {
+                imported += batch.size();
+                if (!handler.accept(batch)) {
+                    return new Result(imported, skipped, true, errors);
+                }
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            imported += batch.size();
+            if (!handler.accept(batch)) {
+                return new Result(imported, skipped, true, errors);
+            }
+        }
+        return new Result(imported, skipped, false, errors);
+    }
+
+    /**
+     * Parses {@code yyyy-MM-dd}, {@code dd/MM/yyyy} or {@code dd.MM.yyyy}; null if {@code s}
+     * is none of these or not a valid date.
+     */
+    public static LocalDate parseDate(CharSequence s) {
+        if (s.length() != 10) return null;
+        int year;
+        int month;
+        int day;
+        char c4 = s.charAt(4);
+        char c2 = s.charAt(2);
+        if (c4 == '-' && s.charAt(7) == '-') {
+            year = digits(s, 0, 4);
+            month = digits(s, 5, 7);
+            day = digits(s, 8, 10);
+        } else if ((c2 == '/' || c2 == '.') && s.charAt(5) == c2) {
+            day = digits(s, 0, 2);
+            month = digits(s, 3, 5);
+            year = digits(s, 6, 10);
+        } else {
+            return null;
+        }
+        if (year < 0 || month < 0 || day < 0) return null;
+        try {
+            return LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private static int digits(CharSequence s, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Splits the input into records of fields; quoted fields may span lines. Reads through
+     * its own buffer rather than a BufferedReader, whose read() takes a lock per char.
+     */
+    private static final class RecordParser {
+
+        private final Reader in;
+        private final char[] buf = new char[1 << 16];
+        private int pos;
+        private int limit;
+        private final StringBuilder field = new StringBuilder(64);
+        private char delimiter;
+        private int line = 1;
+        private int pending = -2; // -2: nothing read ahead
+        int startLine;
+
+        RecordParser(Reader in) {
+            this.in = in;
+        }
+
+        boolean next(List<String> fields) throws IOException {
+            fields.clear();
+            int c = read();
+            if (delimiter == 0) {
+                if (c == '\uFEFF') c = read(); // byte order mark written by spreadsheets
+                if (c == -1) return false;
+                delimiter = detectDelimiter(c);
+            }
+            if (c == -1) return false;
+
+            startLine = line;
+            field.setLength(0);
+            boolean quoted = false;
+            boolean inQuotes = false;
+            while (true) {
+                if (inQuotes) {
+                    if (c == -1) {
+                        break;
+                    } else if (c == '"') {
+                        int n = read();
+                        if (n == '"') {
+                            field.append('"');
+                        } else {
+                            inQuotes = false;
+                            c = n;
+                            continue;
+                        }
+                    } else {
+                        if (c == '\n') line++;
+                        field.append((char) c);
+                    }
+                } else if (c == -1 || c == '\n' || c == '\r') {
+                    if (c == '\r') {
+                        int n = read();
+                        if (n != '\n') pending = n;
+                    }
+                    if (c != -1) line++;
+                    break;
+                } else if (c == delimiter) {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    quoted = false;
+                } else if (c == '"' && field.length() == 0 && !quoted) {
+                    quoted = true;
+                    inQuotes = true;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+            fields.add(field.toString());
+            return true;
+        }
+
+        // Semicolon if the first line uses it and no commas (spreadsheets in many locales).
+        // Looks at what is buffered, which holds the first line unless it is huge.
+        private char detectDelimiter(int first) {
+            boolean semicolon = first == ';';
+            boolean comma = first == ',';
+            for (int i = pos; i < limit && buf[i] != '\n' && buf[i] != '\r'; i++) {
+                semicolon |= buf[i] == ';';
+                comma |= buf[i] == ',';
+            }
+            return semicolon && !comma ? ';' : ',';
+        }
+
+        private int read() throws IOException {
+            if (pending != -2) {
+                int c = pending;
+                pending = -2;
+                return c;
+            }
+            if (pos == limit) {
+                int n = in.read(buf, 0, buf.length);
+                if (n <= 0) return -1;
+                pos = 0;
+                limit = n;
+            }
+            return buf[pos++];
+        }
+    }
+}
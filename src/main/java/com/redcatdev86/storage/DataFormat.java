@@ -0,0 +1,67 @@
+package com.redcatdev86.storage;
+
+import com.redcatdev86.index.PlayerNameDictionary;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * On-disk formats for career saves.
+ */
+public enum DataFormat {
+
+    JSON {
+        @Override
+        public DataStore newStore(Compression compression, int level) {
+            return new JsonDataStore(PlayerNameDictionary.shared(), compression, level);
+        }
+    },
+    BINARY {
+        @Override
+        public DataStore newStore(Compression compression, int level) {
+            return new BinaryDataStore(PlayerNameDictionary.shared(), compression, level);
+        }
+    };
+
+    public DataStore newStore() {
+        return newStore(Compression.NONE, Compression.DEFAULT_LEVEL);
+    }
+
+    /**
+     * Store writing this format through {@code compression}; it reads compressed and plain files.
+     */
+    public abstract DataStore newStore(Compression compression, int level);
+
+    public String fileExtension() {
+        return this == BINARY ? "fcb" : "json";
+    }
+
+    /**
+     * Format to write for {@code file}, chosen by its extension (JSON unless it is {@code .fcb}),
+     * ignoring a compression extension.
+     */
+    public static DataFormat forFileName(Path file) {
+        String name = Compression.stripExtension(file.getFileName().toString().toLowerCase());
+        return name.endsWith("." + BINARY.fileExtension()) ? BINARY : JSON;
+    }
+
+    /**
+     * Format of an existing file, read from its (decompressed) header. Anything that does not
+     * carry the binary magic is treated as JSON; a missing file is reported as {@code fallback}.
+     */
+    public static DataFormat detect(Path file, DataFormat fallback) throws IOException {
+        if (!Files.exists(file)) {
+            return fallback;
+        }
+        try (InputStream in = Compression.open(file)) {
+            byte[] header = in.readNBytes(4);
+            if (header.length == 4 && ByteBuffer.wrap(header).getInt() == BinaryDataStore.MAGIC) {
+                return BINARY;
+            }
+        }
+        return JSON;
+    }
+}
@@ -0,0 +1,159 @@
+package com.redcatdev86.storage;
+
+import com.redcatdev86.model.CareerSave;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Stream;
+
+/**
+ * All the data files of one directory, opened as a single set of saves.
+ * <p>
+ * Every file gets its own {@link JournaledStore}, tagged with the file name, so a save
+ * called {@code Career 1} in {@code season23.json} shows up as {@code Career 1 [season23]}
+ * and {@link #storeFor} finds the file to write it back to. {@link #load} parses the files
+ * in parallel, one task per file on a pool no larger than the number of cores.
+ */
+public class DataLibrary {
+
+    private final Path directory;
+    private final List<JournaledStore> stores = new ArrayList<>();
+
+    public DataLibrary(Path directory) {
+        this.directory = directory;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public List<JournaledStore> stores() {
+        return stores;
+    }
+
+    /**
+     * The data files of {@code dir} (JSON or binary, compressed or not), by name.
+     */
+    public static List<Path> dataFiles(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files
+                    .filter(Files::isRegularFile)
+                    .filter(DataLibrary::isDataFile)
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static boolean isDataFile(Path file) {
+        String name = Compression.stripExtension(file.getFileName().toString().toLowerCase(Locale.ROOT));
+        return name.endsWith("." + DataFormat.JSON.fileExtension()) || name.endsWith("." + DataFormat.BINARY.fileExtension());
+    }
+
+    /**
+     * Opens every data file of the directory and returns their saves, file by file.
+     * A file that cannot be read fails the whole load.
+     */
+    public List<CareerSave> load() throws IOException {
+        List<Path> files = dataFiles(directory);
+        Map<Path, String> tags = tags(files);
+
+        stores.clear();
+        for (Path file : files) {
+            stores.add(new JournaledStore(FormatDetectingDataStore.forFile(file), file,
+                    JournaledStore.DEFAULT_COMPACTION_THRESHOLD, JournaledStore.DEFAULT_CACHE_CAPACITY, tags.get(file)));
+        }
+        if (stores.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        int threads = Math.min(Runtime.getRuntime().availableProcessors(), stores.size());
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            List<ForkJoinTask<List<CareerSave>>> tasks = new ArrayList<>(stores.size());
+            for (JournaledStore store : stores) {
+                tasks.add(pool.submit(() -> {
+                    try {
+                        return store.load();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+            }
+
+            List<CareerSave> saves = new ArrayList<>();
+            for (int i = 0; i < tasks.size(); i++) {
+                try {
+                    saves.addAll(tasks.get(i).get());
+                } catch (ExecutionException e) {
+                    throw loadFailure(stores.get(i).getFile(), e.getCause());
+                }
+            }
+            return saves;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Loading " + directory + " was interrupted", e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static IOException loadFailure(Path file, Throwable cause) {
+        if (cause instanceof UncheckedIOException unchecked) cause = unchecked.getCause();
+        return new IOException("Could not read " + file.getFileName() + ": " + cause.getMessage(), cause);
+    }
+
+    // " [name]" without the format and compression extensions, unless two files share it
+    private static Map<Path, String> tags(List<Path> files) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (Path file : files) {
+            counts.merge(baseName(file), 1, Integer::sum);
+        }
+        Map<Path, String> tags = new HashMap<>();
+        for (Path file : files) {
+            String base = baseName(file);
+            tags.put(file, " [" + (counts.get(base) > 1 ? file.getFileName().toString() : base) + "]");
+        }
+        return tags;
+    }
+
+    private static String baseName(Path file) {
+        String name = Compression.stripExtension(file.getFileName().toString());
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    /**
+     * Store the save called {@code saveName} belongs to, or null.
+     */
+    public JournaledStore storeFor(String saveName) {
+        JournaledStore best = null;
+        for (JournaledStore store : stores) {
+            if (store.isTagged(saveName)
+                    && (best == null || store.getNameTag().length() > best.getNameTag().length())) {
+                best = store;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * The saves among {@code saves} that belong to {@code store}, in order.
+     */
+    public List<CareerSave> savesOf(JournaledStore store, List<CareerSave> saves) {
+        List<CareerSave> out = new ArrayList<>();
+        for (CareerSave save : saves) {
+            if (storeFor(save.getName()) == store) out.add(save);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,33 @@
+package com.redcatdev86.storage;
+
+import com.redcatdev86.model.CareerSave;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads and writes a list of career saves in one on-disk format.
+ */
+public interface DataStore {
+
+    /**
+     * Loads every save in {@code file}; a missing file yields an empty list.
+     */
+    List<CareerSave> load(Path file) throws IOException;
+
+    void save(Path file, List<CareerSave> saves) throws IOException;
+
+    /**
+     * Hands the saves in {@code file} to {@code action} one at a time.
+     */
+    default void forEach(Path file, Consumer<? super CareerSave> action) throws IOException {
+        load(file).forEach(action);
+    }
+
+    /**
+     * Extension, without the dot, for files written by this store.
+     */
+    String fileExtension();
+}
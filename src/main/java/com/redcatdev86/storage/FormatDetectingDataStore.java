@@ -0,0 +1,75 @@
+package com.redcatdev86.storage;
+
+import com.redcatdev86.model.CareerSave;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Loads whichever format a file holds, compressed or not, judging by its header, and saves
+ * in a fixed format and compression.
+ */
+public class FormatDetectingDataStore implements DataStore {
+
+    private final Map<DataFormat, DataStore> stores = new EnumMap<>(DataFormat.class);
+    private final DataFormat writeFormat;
+
+    public FormatDetectingDataStore(DataFormat writeFormat) {
+        this(writeFormat, Compression.NONE, Compression.DEFAULT_LEVEL);
+    }
+
+    public FormatDetectingDataStore(DataFormat writeFormat, Compression compression, int level) {
+        this.writeFormat = writeFormat;
+        for (DataFormat format : DataFormat.values()) {
+            stores.put(format, format.newStore(compression, level));
+        }
+    }
+
+    /**
+     * Store that writes the format and compression implied by the extension of {@code file},
+     * e.g. gzip-compressed JSON for {@code data.json.gz}, at {@link Compression#configuredLevel()}.
+     */
+    public static FormatDetectingDataStore forFile(Path file) {
+        return new FormatDetectingDataStore(DataFormat.forFileName(file), Compression.forFileName(file), Compression.configuredLevel());
+    }
+
+    public DataFormat getWriteFormat() {
+        return writeFormat;
+    }
+
+    @Override
+    public List<CareerSave> load(Path file) throws IOException {
+        return storeFor(file).load(file);
+    }
+
+    @Override
+    public void forEach(Path file, Consumer<? super CareerSave> action) throws IOException {
+        storeFor(file).forEach(file, action);
+    }
+
+    @Override
+    public void save(Path file, List<CareerSave> saves) throws IOException {
+        stores.get(writeFormat).save(file, saves);
+    }
+
+    @Override
+    public String fileExtension() {
+        return stores.get(writeFormat).fileExtension();
+    }
+
+    /**
+     * Rewrites {@code source}, whatever its format, as {@code target} in {@code format}.
+     */
+    public static void convert(Path source, Path target, DataFormat format) throws IOException {
+        DataStore reader = new FormatDetectingDataStore(format);
+        format.newStore().save(target, reader.load(source));
+    }
+
+    private DataStore storeFor(Path file) throws IOException {
+        return stores.get(DataFormat.detect(file, writeFormat));
+    }
+}
@@ -0,0 +1,310 @@
+package com.redcatdev86.storage;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.redcatdev86.model.CareerSave;
+import com.redcatdev86.model.Injury;
+import com.redcatdev86.model.InjuryColumns;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes injuries out one row at a time, as CSV or newline-delimited JSON, so memory use
+ * does not grow with the number of rows.
+ * <p>
+ * CSV rows are {@code player,recovery date,save} with a header line, which
+ * {@link CsvInjuryReader} reads back. NDJSON rows are
+ * {@code {"save":…,"playerName":…,"recoveryDate":…}}. Dates are ISO; a missing date is
+ * an empty field or {@code null}. Lists with {@link InjuryColumns} are read column by
+ * column, without materializing their rows.
+ * <p>
+ * {@link #export} writes to a temporary file that replaces {@code file} once complete. An
+ * interrupt stops the export and leaves {@code file} untouched. {@link #stream} writes to
+ * any writer, for callers that read saves one at a time.
+ */
+public class InjuryExporter {
+
+    public enum Format {
+        CSV("csv"),
+        NDJSON("ndjson");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        /**
+         * Format of a file by its extension; CSV unless it ends with {@code .ndjson} or {@code .jsonl}.
+         */
+        public static Format forFile(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            return name.endsWith(".ndjson") || name.endsWith(".jsonl") ? NDJSON : CSV;
+        }
+    }
+
+    /**
+     * Rows to keep: {@code playerQuery} is a case-insensitive substring of the player name,
+     * {@code from} and {@code to} an inclusive recovery-date range. Null parts do not filter.
+     */
+    public record Filter(String playerQuery, LocalDate from, LocalDate to) {
+
+        public static final Filter ALL = new Filter(null, null, null);
+
+        public Filter {
+            playerQuery = playerQuery == null || playerQuery.isBlank() ? null : playerQuery.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Injuries of a save that is not loaded, read on the exporting thread.
+     */
+    @FunctionalInterface
+    public interface InjurySource {
+        List<Injury> injuriesOf(CareerSave save) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface Progress {
+        void update(long rowsRead, long totalRows);
+    }
+
+    public record Result(long rowsWritten, long rowsRead) {}
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int PROGRESS_EVERY = 1 << 14;
+    private static final int MAX_CACHED_PLAYERS = 100_000;
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final Format format;
+    private final Filter filter;
+
+    // Player names seen so far and whether they match the query; names are interned, so few
+    private final Map<String, Boolean> playerMatches = new IdentityHashMap<>();
+    private final int fromDay;
+    private final int toDay;
+
+    public InjuryExporter(Format format, Filter filter) {
+        this.format = format;
+        this.filter = filter == null ? Filter.ALL : filter;
+        this.fromDay = this.filter.from() == null ? Integer.MIN_VALUE : Math.toIntExact(this.filter.from().toEpochDay());
+        this.toDay = this.filter.to() == null ? Integer.MAX_VALUE : Math.toIntExact(this.filter.to().toEpochDay());
+    }
+
+    /**
+     * Exports the injuries of {@code saves}, in order. Saves that are not loaded are read
+     * through {@code source}, one at a time. Meant for a background thread: the saves must
+     * not be edited meanwhile (pass copies).
+     */
+    public Result export(List<CareerSave> saves, InjurySource source, Path file, Progress progress) throws IOException {
+        long total = 0;
+        for (CareerSave save : saves) {
+            total += save.getInjuryCount();
+        }
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+
+        Result result;
+        boolean done = false;
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             Writer out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE);
+             RowStream rows = new RowStream(out, total, progress)) {
+
+            for (CareerSave save : saves) {
+                rows.write(save.getName(), save.isLoaded() ? save.getInjuries() : source.injuriesOf(save));
+            }
+            result = rows.finish();
+            done = true;
+        } finally {
+            if (!done) Files.deleteIfExists(tmp);
+        }
+
+        ChangeJournal.moveReplacing(tmp, file);
+        if (progress != null) progress.update(result.rowsRead(), total);
+        return result;
+    }
+
+    /**
+     * Starts writing rows to {@code out}, header first. Closing the stream ends the output
+     * but leaves {@code out} open.
+     */
+    public RowStream stream(Writer out) throws IOException {
+        return new RowStream(out, -1, null);
+    }
+
+    /**
+     * Rows being written by {@link #stream}: hand it the injuries of one save at a time.
+     */
+    public final class RowStream implements AutoCloseable {
+
+        private final RowWriter rows;
+        private final long total;
+        private final Progress progress;
+        private long written;
+        private long read;
+        private boolean finished;
+
+        private RowStream(Writer out, long total, Progress progress) throws IOException {
+            this.rows = format == Format.CSV ? new CsvRows(out) : new JsonRows(out);
+            this.total = total;
+            this.progress = progress;
+        }
+
+        /**
+         * Writes the rows of {@code injuries} that pass the filter, labelled with {@code saveName}.
+         */
+        public void write(String saveName, List<Injury> injuries) throws IOException {
+            for (int i = 0; i < injuries.size(); i++) {
+                String player = InjuryColumns.playerNameAt(injuries, i);
+                int day = InjuryColumns.epochDayAt(injuries, i);
+                if (matches(player, day)) {
+                    rows.write(saveName, player, InjuryColumns.toDate(day));
+                    written++;
+                }
+                if (++read % PROGRESS_EVERY == 0) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedIOException("Export cancelled");
+                    }
+                    if (progress != null) progress.update(read, total);
+                }
+            }
+        }
+
+        /**
+         * Ends the output and returns the row counts; flushing {@code out} is up to the caller.
+         */
+        public Result finish() throws IOException {
+            if (!finished) {
+                finished = true;
+                rows.finish();
+            }
+            return new Result(written, read);
+        }
+
+        @Override
+        public void close() throws IOException {
+            rows.close();
+        }
+    }
+
+    private boolean matches(String player, int day) {
+        if (filter.from() != null || filter.to() != null) {
+            if (day == InjuryColumns.NO_DATE || day < fromDay || day > toDay) return false;
+        }
+        if (filter.playerQuery() == null) return true;
+        if (player == null) return false;
+        if (playerMatches.size() > MAX_CACHED_PLAYERS) playerMatches.clear();
+        return playerMatches.computeIfAbsent(player, p -> p.toLowerCase(Locale.ROOT).contains(filter.playerQuery()));
+    }
+
+    // ----------------------------
+    // Row formats
+    // ----------------------------
+    private interface RowWriter extends AutoCloseable {
+        void write(String save, String player, LocalDate recoveryDate) throws IOException;
+
+        default void finish() throws IOException {
+        }
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private static final class CsvRows implements RowWriter {
+
+        private final Writer out;
+
+        CsvRows(Writer out) throws IOException {
+            this.out = out;
+            out.write("Player,Recovery date,Save\r\n");
+        }
+
+        @Override
+        public void write(String save, String player, LocalDate recoveryDate) throws IOException {
+            field(player);
+            out.write(',');
+            if (recoveryDate != null) out.write(recoveryDate.toString());
+            out.write(',');
+            field(save);
+            out.write("\r\n");
+        }
+
+        private void field(String value) throws IOException {
+            if (value == null) return;
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == ';' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            out.write(value.replace("\"", "\"\""));
+            out.write('"');
+        }
+
+        @Override
+        public void close() {
+            // The writer is closed by the caller
+        }
+    }
+
+    private static final class JsonRows implements RowWriter {
+
+        private final JsonGenerator gen;
+        private boolean any;
+
+        JsonRows(Writer out) throws IOException {
+            gen = JSON.createGenerator(out);
+            gen.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void write(String save, String player, LocalDate recoveryDate) throws IOException {
+            gen.writeStartObject();
+            gen.writeStringField("save", save);
+            gen.writeStringField("playerName", player);
+            gen.writeStringField("recoveryDate", recoveryDate == null ? null : recoveryDate.toString());
+            gen.writeEndObject();
+            any = true;
+        }
+
+        @Override
+        public void finish() throws IOException {
+            // The separator goes between rows; the last line needs its newline too
+            if (any) gen.writeRaw('\n');
+            gen.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            gen.close();
+        }
+    }
+}
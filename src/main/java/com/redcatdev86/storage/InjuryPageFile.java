@@ -0,0 +1,312 @@
+package com.redcatdev86.storage;
+
+import com.redcatdev86.model.ColumnarInjuryList;
+import com.redcatdev86.model.Injury;
+import com.redcatdev86.model.InjuryColumns;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Fixed-width copy of one large save's injuries, written next to its shard so the table
+ * can read any window of rows without loading the save.
+ * <pre>
+ * int    magic "FCIP"
+ * short  version
+ * int    row count, int name count
+ * per player name, in natural order: int byte length + UTF-8 bytes
+ * three sections of row count records, in FILE, BY_DATE and BY_PLAYER order
+ *
+ * record: int row (index in the save), int name id (-1 = none), int epoch day (MIN_VALUE = none)
+ * </pre>
+ * Name ids follow the names' order, so the player order is by name id. Ties keep file
+ * order, as a stable sort would. Page files are never compressed and never change: a new
+ * shard revision gets a new one.
+ */
+public final class InjuryPageFile implements AutoCloseable {
+
+    public static final String EXTENSION = "pages";
+
+    /**
+     * Saves with at least this many injuries get a page file.
+     */
+    public static final int THRESHOLD = ColumnarInjuryList.THRESHOLD;
+
+    private static final int MAGIC = 0x46434950; // "FCIP"
+    private static final int VERSION = 1;
+    private static final int RECORD_SIZE = 12;
+    private static final int BLOCK_RECORDS = 1 << 12;
+    private static final int NO_NAME = -1;
+
+    public enum Order {
+        FILE, BY_DATE, BY_PLAYER
+    }
+
+    /**
+     * Receives records in order from {@link #scan}.
+     */
+    @FunctionalInterface
+    public interface RecordVisitor {
+        void visit(int position, int row, int nameId, int epochDay);
+    }
+
+    private final FileChannel channel;
+    private final String[] names;
+    private final int size;
+    private final long dataStart;
+
+    private InjuryPageFile(FileChannel channel, String[] names, int size, long dataStart) {
+        this.channel = channel;
+        this.names = names;
+        this.size = size;
+        this.dataStart = dataStart;
+    }
+
+    /**
+     * Page file of a shard file, e.g. {@code save-3-r2.json.pages}.
+     */
+    public static Path pathFor(Path shardFile) {
+        return shardFile.resolveSibling(shardFile.getFileName() + "." + EXTENSION);
+    }
+
+    // ----------------------------
+    // Writing
+    // ----------------------------
+    /**
+     * Writes the page file for {@code injuries}, replacing {@code file} once complete.
+     *
+     * @return bytes written
+     */
+    public static long write(Path file, List<Injury> injuries) throws IOException {
+        int n = injuries.size();
+        Map<String, Integer> ids = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            String name = InjuryColumns.playerNameAt(injuries, i);
+            if (name != null) ids.putIfAbsent(name, 0);
+        }
+        String[] sorted = ids.keySet().toArray(new String[0]);
+        Arrays.sort(sorted);
+        for (int id = 0; id < sorted.length; id++) {
+            ids.put(sorted[id], id);
+        }
+
+        int[] nameIds = new int[n];
+        int[] days = new int[n];
+        for (int i = 0; i < n; i++) {
+            String name = InjuryColumns.playerNameAt(injuries, i);
+            nameIds[i] = name == null ? NO_NAME : ids.get(name);
+            days[i] = InjuryColumns.epochDayAt(injuries, i);
+        }
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(n);
+            out.writeInt(sorted.length);
+            for (String name : sorted) {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+
+            for (int i = 0; i < n; i++) {
+                writeRecord(out, i, nameIds, days);
+            }
+            // Sort keys hold the row in their low half, so equal keys stay in file order
+            long[] keys = new long[n];
+            for (int i = 0; i < n; i++) keys[i] = (long) days[i] << 32 | i;
+            writeSorted(out, keys, nameIds, days);
+            for (int i = 0; i < n; i++) keys[i] = (long) nameIds[i] << 32 | i;
+            writeSorted(out, keys, nameIds, days);
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        long bytes = Files.size(tmp);
+        ChangeJournal.moveReplacing(tmp, file);
+        return bytes;
+    }
+
+    private static void writeSorted(DataOutputStream out, long[] keys, int[] nameIds, int[] days) throws IOException {
+        Arrays.sort(keys);
+        for (long key : keys) {
+            writeRecord(out, (int) key, nameIds, days);
+        }
+    }
+
+    private static void writeRecord(DataOutputStream out, int row, int[] nameIds, int[] days) throws IOException {
+        out.writeInt(row);
+        out.writeInt(nameIds[row]);
+        out.writeInt(days[row]);
+    }
+
+    // ----------------------------
+    // Reading
+    // ----------------------------
+    /**
+     * Opens a page file, reading only its header and name table.
+     */
+    public static InjuryPageFile open(Path file) throws IOException {
+        String[] names;
+        int size;
+        long dataStart;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a page file: " + file);
+            }
+            int version = in.readUnsignedShort();
+            if (version > VERSION) {
+                throw new IOException("Unsupported page file version: " + version);
+            }
+            size = in.readInt();
+            names = new String[in.readInt()];
+            dataStart = 4 + 2 + 4 + 4;
+            for (int i = 0; i < names.length; i++) {
+                int length = in.readInt();
+                names[i] = new String(in.readNBytes(length), StandardCharsets.UTF_8);
+                dataStart += 4 + length;
+            }
+        } catch (EOFException e) {
+            throw new IOException("Truncated page file: " + file, e);
+        }
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        if (channel.size() != dataStart + 3L * size * RECORD_SIZE) {
+            channel.close();
+            throw new IOException("Truncated page file: " + file);
+        }
+        return new InjuryPageFile(channel, names, size, dataStart);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Player name for a name id, null for none.
+     */
+    public String playerName(int nameId) {
+        return nameId == NO_NAME ? null : names[nameId];
+    }
+
+    /**
+     * Ids of the player names containing {@code query}, ignoring case.
+     */
+    public BitSet namesContaining(String query) {
+        String q = query.toLowerCase(Locale.ROOT);
+        BitSet matches = new BitSet(names.length);
+        for (int id = 0; id < names.length; id++) {
+            if (names[id].toLowerCase(Locale.ROOT).contains(q)) matches.set(id);
+        }
+        return matches;
+    }
+
+    /**
+     * First position in {@link Order#BY_DATE} whose epoch day is at least {@code epochDay};
+     * {@link #size} if there is none. Missing dates sort first.
+     */
+    public int firstOnOrAfter(int epochDay) throws IOException {
+        int lo = 0;
+        int hi = size;
+        ByteBuffer buf = ByteBuffer.allocate(4);
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            buf.clear();
+            readFully(buf, offset(Order.BY_DATE, mid) + 8);
+            if (buf.getInt(0) < epochDay) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Reads the records at {@code positions[0, count)} of {@code order}, which must be
+     * ascending, into the three arrays. Consecutive positions are read together.
+     */
+    public void read(Order order, int[] positions, int count, int[] rows, int[] nameIds, int[] epochDays) throws IOException {
+        int i = 0;
+        while (i < count) {
+            int run = 1;
+            while (i + run < count && positions[i + run] == positions[i] + run) run++;
+            ByteBuffer buf = ByteBuffer.allocate(run * RECORD_SIZE);
+            readFully(buf, offset(order, positions[i]));
+            buf.flip();
+            for (int r = 0; r < run; r++, i++) {
+                rows[i] = buf.getInt();
+                nameIds[i] = buf.getInt();
+                epochDays[i] = buf.getInt();
+            }
+        }
+    }
+
+    /**
+     * Visits positions {@code [from, to)} of {@code order}, reading them in blocks.
+     */
+    public void scan(Order order, int from, int to, RecordVisitor visitor) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(BLOCK_RECORDS * RECORD_SIZE);
+        for (int start = from; start < to; start += BLOCK_RECORDS) {
+            int n = Math.min(BLOCK_RECORDS, to - start);
+            buf.clear().limit(n * RECORD_SIZE);
+            readFully(buf, offset(order, start));
+            buf.flip();
+            for (int p = start; p < start + n; p++) {
+                visitor.visit(p, buf.getInt(), buf.getInt(), buf.getInt());
+            }
+        }
+    }
+
+    /**
+     * Visits the records at {@code positions} (ascending) of {@code order}.
+     */
+    public void scan(Order order, int[] positions, RecordVisitor visitor) throws IOException {
+        int[] rows = new int[BLOCK_RECORDS];
+        int[] nameIds = new int[BLOCK_RECORDS];
+        int[] days = new int[BLOCK_RECORDS];
+        int[] block = new int[BLOCK_RECORDS];
+        for (int start = 0; start < positions.length; start += BLOCK_RECORDS) {
+            int n = Math.min(BLOCK_RECORDS, positions.length - start);
+            System.arraycopy(positions, start, block, 0, n);
+            read(order, block, n, rows, nameIds, days);
+            for (int i = 0; i < n; i++) {
+                visitor.visit(block[i], rows[i], nameIds[i], days[i]);
+            }
+        }
+    }
+
+    private long offset(Order order, int position) {
+        return dataStart + ((long) order.ordinal() * size + position) * RECORD_SIZE;
+    }
+
+    private void readFully(ByteBuffer buf, long position) throws IOException {
+        while (buf.hasRemaining()) {
+            int n = channel.read(buf, position);
+            if (n < 0) throw new EOFException("Page file ends early");
+            position += n;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
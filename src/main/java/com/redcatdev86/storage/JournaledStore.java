@@ -0,0 +1,522 @@
+package com.redcatdev86.storage;
+
+import com.redcatdev86.diagnostics.AutosaveEvent;
+import com.redcatdev86.diagnostics.LatencyHistogram;
+import com.redcatdev86.diagnostics.Metrics;
+import com.redcatdev86.model.CareerSave;
+import com.redcatdev86.model.Injury;
+import com.redcatdev86.model.ModelSnapshot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sharded snapshot of the career saves plus the {@link ChangeJournal} of edits made since.
+ * {@link #writeSnapshot} rewrites only the dirty shards. {@link #load} returns saves without
+ * their injuries; {@link #ensureLoaded} reads them and keeps at most {@code cacheCapacity}
+ * clean saves materialized.
+ */
+public class JournaledStore {
+
+    public static final long DEFAULT_COMPACTION_THRESHOLD = 1L << 20;
+    public static final int DEFAULT_CACHE_CAPACITY = 8;
+
+    private static final String JOURNAL_FILE = "journal";
+
+    private static final LatencyHistogram APPEND_LATENCY = Metrics.shared().latency("journal.append");
+    private static final LongAdder JOURNAL_BYTES = Metrics.shared().counter("journal.bytes");
+
+    /**
+     * What a snapshot write needs, captured on the thread that owns the saves.
+     */
+    public record Snapshot(List<ShardedDataStore.Shard> shards, Set<String> dirtyNames) {}
+
+    /**
+     * The files as this store last read or wrote them.
+     */
+    public record DiskState(Map<String, String> shardFiles, ChangeJournal.Stamp manifest, long journalSize) {}
+
+    private final Path file;
+    private final String nameTag;
+    private final ShardedDataStore shards;
+    private final ChangeJournal journal;
+    private final long compactionThreshold;
+    private final int cacheCapacity;
+
+    // Guarded by this
+    private final Set<String> dirtySaves = new HashSet<>();
+    private final Map<String, Integer> pendingSaves = new HashMap<>();
+
+    // Held while writing
+    private final Object ioLock = new Object();
+    private volatile DiskState diskState;
+    private List<Mutation> recovered = List.of();
+    private volatile boolean singleFileChanged;
+
+    // Materialized saves in access order; only used by the thread that owns the saves
+    private final LinkedHashMap<CareerSave, CareerSave> loaded = new LinkedHashMap<>(16, 0.75f, true);
+
+    public JournaledStore(DataStore dataStore, Path file) {
+        this(dataStore, file, DEFAULT_COMPACTION_THRESHOLD, DEFAULT_CACHE_CAPACITY);
+    }
+
+    public JournaledStore(DataStore dataStore, Path file, long compactionThreshold, int cacheCapacity) {
+        this(dataStore, file, compactionThreshold, cacheCapacity, "");
+    }
+
+    /**
+     * @param nameTag appended to the name of every save in memory; empty for none
+     */
+    public JournaledStore(DataStore dataStore, Path file, long compactionThreshold, int cacheCapacity, String nameTag) {
+        this.file = file;
+        this.nameTag = nameTag;
+        this.shards = new ShardedDataStore(dataStore, ShardedDataStore.dirFor(file));
+        this.journal = new ChangeJournal(shards.getDirectory().resolve(JOURNAL_FILE));
+        this.compactionThreshold = compactionThreshold;
+        this.cacheCapacity = cacheCapacity;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public String getNameTag() {
+        return nameTag;
+    }
+
+    /**
+     * Whether {@code saveName} is the in-memory name of a save of this store.
+     */
+    public boolean isTagged(String saveName) {
+        return saveName != null && saveName.endsWith(nameTag);
+    }
+
+    /**
+     * In-memory name of a save called {@code fileName} in the files.
+     */
+    public String tagged(String fileName) {
+        return nameTag.isEmpty() ? fileName : fileName + nameTag;
+    }
+
+    // Name in the files of a save of this store
+    private String untagged(String saveName) {
+        if (nameTag.isEmpty()) return saveName;
+        if (!isTagged(saveName)) {
+            throw new IllegalArgumentException("Save " + saveName + " does not belong to " + file);
+        }
+        return saveName.substring(0, saveName.length() - nameTag.length());
+    }
+
+    private List<CareerSave> tagAll(List<CareerSave> saves) {
+        if (!nameTag.isEmpty()) saves.forEach(s -> s.setName(tagged(s.getName())));
+        return saves;
+    }
+
+    private List<Mutation> tagAll(List<Mutation> mutations, boolean tag) {
+        if (nameTag.isEmpty()) return mutations;
+        List<Mutation> out = new ArrayList<>(mutations.size());
+        for (Mutation m : mutations) {
+            out.add(m.withSaveName(tag ? tagged(m.getSaveName()) : untagged(m.getSaveName())));
+        }
+        return out;
+    }
+
+    /**
+     * Loads the save index and replays the journal on top of it. A single-file store is
+     * migrated to shards.
+     */
+    public List<CareerSave> load() throws IOException {
+        loaded.clear();
+        singleFileChanged = false;
+        if (!shards.exists()) {
+            return migrate();
+        }
+        List<CareerSave> saves;
+        synchronized (ioLock) {
+            // Written after the manifest, so not by us: the shards are what gets loaded
+            singleFileChanged = Files.exists(file)
+                    && Files.getLastModifiedTime(file).compareTo(Files.getLastModifiedTime(shards.manifestFile())) > 0;
+            saves = tagAll(shards.loadIndex());
+            recovered = tagAll(journal.recover(ChangeJournal.Stamp.of(shards.manifestFile())), true);
+            recordDiskState();
+        }
+        replay(saves, recovered);
+        return saves;
+    }
+
+    public Path getShardDirectory() {
+        return shards.getDirectory();
+    }
+
+    /**
+     * Whether the last {@link #load} found the single file changed after the shards were written.
+     */
+    public boolean isSingleFileChanged() {
+        return singleFileChanged;
+    }
+
+    public DiskState diskState() {
+        return diskState;
+    }
+
+    /**
+     * Whether someone else wrote the manifest or journal since this store last did.
+     */
+    public boolean changedOnDisk() throws IOException {
+        synchronized (ioLock) {
+            DiskState known = diskState;
+            if (known == null) return false;
+            Path journalFile = journal.getFile();
+            long journalSize = Files.exists(journalFile) ? Files.size(journalFile) : -1;
+            return !ChangeJournal.Stamp.of(shards.manifestFile()).equals(known.manifest())
+                    || journalSize != known.journalSize();
+        }
+    }
+
+    /**
+     * Names of the saves changed between {@code before}, another store's state on the same
+     * files, and this store's load.
+     */
+    public Set<String> changedSince(DiskState before) throws IOException {
+        DiskState now = diskState;
+        Set<String> names = new HashSet<>();
+        for (Map.Entry<String, String> e : now.shardFiles().entrySet()) {
+            if (!e.getValue().equals(before.shardFiles().get(e.getKey()))) names.add(e.getKey());
+        }
+        for (String name : before.shardFiles().keySet()) {
+            if (!now.shardFiles().containsKey(name)) names.add(name);
+        }
+
+        // On the same manifest the records up to the old length are the ones known already
+        List<Mutation> external = now.manifest().equals(before.manifest())
+                ? tagAll(journal.readFrom(before.journalSize()), true)
+                : recovered;
+        for (Mutation m : external) {
+            names.add(m.getSaveName());
+        }
+        return names;
+    }
+
+    // Call with ioLock held
+    private void recordDiskState() throws IOException {
+        Map<String, String> files = new HashMap<>();
+        shards.shardFiles().forEach((name, fileName) -> files.put(tagged(name), fileName));
+        diskState = new DiskState(files, ChangeJournal.Stamp.of(shards.manifestFile()), journal.size());
+    }
+
+    /**
+     * Reads the injuries of {@code save} if needed, then unloads the least recently used
+     * clean saves beyond the cache capacity.
+     */
+    public void ensureLoaded(CareerSave save) throws IOException {
+        attach(save, save.isLoaded() ? save.getInjuries() : readInjuries(save));
+    }
+
+    /**
+     * Like {@link #ensureLoaded}, with {@code injuries} read by {@link #readInjuries}.
+     * Returns the saves unloaded to make room.
+     */
+    public List<CareerSave> attach(CareerSave save, List<Injury> injuries) {
+        if (!save.isLoaded()) {
+            save.setInjuries(injuries);
+        }
+        loaded.put(save, save);
+        return evictBeyondCapacity(save);
+    }
+
+    private List<CareerSave> evictBeyondCapacity(CareerSave keep) {
+        List<CareerSave> evicted = new ArrayList<>();
+        Iterator<CareerSave> it = loaded.keySet().iterator();
+        while (loaded.size() > cacheCapacity && it.hasNext()) {
+            CareerSave save = it.next();
+            // Dirty saves stay put
+            if (save != keep && isClean(save.getName())) {
+                save.unload();
+                it.remove();
+                evicted.add(save);
+            }
+        }
+        return evicted;
+    }
+
+    private synchronized boolean isClean(String saveName) {
+        return !dirtySaves.contains(saveName) && !pendingSaves.containsKey(saveName);
+    }
+
+    private List<CareerSave> migrate() throws IOException {
+        List<CareerSave> saves = tagAll(shards.importSingleFile(file));
+
+        // Edits journaled on top of the single file before sharding existed
+        ChangeJournal legacy = new ChangeJournal(ChangeJournal.pathFor(file));
+        if (Files.exists(legacy.getFile())) {
+            replay(saves, tagAll(legacy.recover(ChangeJournal.Stamp.of(file)), true));
+        }
+
+        writeSnapshot(prepareSnapshot(saves, true));
+        Files.deleteIfExists(legacy.getFile());
+        // Clean now
+        loaded.clear();
+        saves.forEach(CareerSave::unload);
+        return saves;
+    }
+
+    private void replay(List<CareerSave> saves, List<Mutation> mutations) throws IOException {
+        for (Mutation m : mutations) {
+            for (CareerSave save : saves) {
+                if (save.getName().equals(m.getSaveName())) {
+                    ensureLoaded(save);
+                }
+            }
+            markDirty(m);
+            m.applyTo(saves);
+        }
+    }
+
+    public synchronized void markDirty(Mutation mutation) {
+        dirtySaves.add(mutation.getSaveName());
+    }
+
+    /**
+     * Marks a save changed outside the journal; the next snapshot rewrites it.
+     */
+    public synchronized void markDirty(String saveName) {
+        dirtySaves.add(saveName);
+    }
+
+    public void append(Mutation mutation) throws IOException {
+        append(List.of(mutation));
+    }
+
+    /**
+     * Appends {@code mutations} to the journal with one write.
+     */
+    public void append(List<Mutation> mutations) throws IOException {
+        long start = System.nanoTime();
+        synchronized (ioLock) {
+            long before = journal.size();
+            journal.append(tagAll(mutations, false));
+            JOURNAL_BYTES.add(journal.size() - before);
+            DiskState known = diskState;
+            if (known != null) {
+                diskState = new DiskState(known.shardFiles(), known.manifest(), journal.size());
+            }
+        }
+        APPEND_LATENCY.record(System.nanoTime() - start);
+    }
+
+    /**
+     * Whether {@code saveName} has edits that no snapshot has written yet.
+     */
+    public boolean hasUnsavedChanges(String saveName) {
+        return !isClean(saveName);
+    }
+
+    /**
+     * Names of the saves with edits no snapshot has written yet, deleted saves included.
+     */
+    public synchronized Set<String> unsavedSaveNames() {
+        Set<String> names = new HashSet<>(dirtySaves);
+        names.addAll(pendingSaves.keySet());
+        return names;
+    }
+
+    /**
+     * Copies the saves that changed since the last snapshot, or all of them if {@code full}.
+     */
+    public Snapshot prepareSnapshot(List<CareerSave> saves, boolean full) {
+        return prepareSnapshot(saves, null, full);
+    }
+
+    /**
+     * Like {@link #prepareSnapshot(List, boolean)}, taking from {@code model} what it holds.
+     */
+    public Snapshot prepareSnapshot(List<CareerSave> saves, ModelSnapshot model, boolean full) {
+        Set<String> names;
+        synchronized (this) {
+            names = new HashSet<>(dirtySaves);
+            dirtySaves.clear();
+            if (full) {
+                saves.forEach(s -> names.add(s.getName()));
+            }
+            names.forEach(n -> pendingSaves.merge(n, 1, Integer::sum));
+        }
+
+        List<ShardedDataStore.Shard> list = new ArrayList<>(saves.size());
+        for (CareerSave save : saves) {
+            CareerSave copy = names.contains(save.getName()) ? frozen(save, model) : null;
+            list.add(new ShardedDataStore.Shard(save.getName(), save.getInjuryCount(), copy));
+        }
+        return new Snapshot(list, names);
+    }
+
+    /**
+     * Saves to read on another thread: frozen versions of the loaded ones and unloaded
+     * stand-ins for the others.
+     */
+    public List<CareerSave> prepareRead(List<CareerSave> saves, ModelSnapshot model) {
+        List<CareerSave> list = new ArrayList<>(saves.size());
+        for (CareerSave save : saves) {
+            // Unloaded saves are clean, so their shard is current
+            list.add(save.isLoaded() ? frozen(save, model) : CareerSave.unloaded(save.getName(), save.getInjuryCount()));
+        }
+        return list;
+    }
+
+    // Version of a loaded save detached from later edits: its vector if the model has one
+    private static CareerSave frozen(CareerSave save, ModelSnapshot model) {
+        ModelSnapshot.Save entry = model == null ? null : model.find(save.getName());
+        if (entry != null && entry.injuries() != null) {
+            return entry.toCareerSave();
+        }
+        return save.copy();
+    }
+
+    /**
+     * Opens the page file of an unloaded save, or returns null if its shard has none.
+     */
+    public InjuryPageFile openPages(CareerSave save) throws IOException {
+        if (save.isLoaded() || save.getInjuryCount() < InjuryPageFile.THRESHOLD) {
+            return null;
+        }
+        return shards.openPages(untagged(save.getName()));
+    }
+
+    /**
+     * First day after {@code today} a recovery of the clean {@code save} can come due, from
+     * the manifest alone; null if none can.
+     */
+    public LocalDate nextRecovery(CareerSave save, LocalDate today) {
+        ShardManifest.Entry entry = shards.entry(untagged(save.getName()));
+        LocalDate tomorrow = today.plusDays(1);
+        if (entry == null || entry.getLastRecovery() == null) {
+            return entry != null && entry.getInjuries() == 0 ? null : tomorrow;
+        }
+        if (entry.getLastRecovery() <= today.toEpochDay()) return null;
+        Integer next = entry.getNextRecovery();
+        return next == null || next <= today.toEpochDay() ? tomorrow : LocalDate.ofEpochDay(next);
+    }
+
+    /**
+     * Reads the injuries of an unloaded save without caching them. Safe from any thread.
+     */
+    public List<Injury> readInjuries(CareerSave save) throws IOException {
+        return shards.loadInjuries(untagged(save.getName()));
+    }
+
+    /**
+     * Materializes every save, e.g. before handing them to another store.
+     */
+    public void loadAll(List<CareerSave> saves) throws IOException {
+        for (CareerSave save : saves) {
+            if (!save.isLoaded()) {
+                save.setInjuries(shards.loadInjuries(untagged(save.getName())));
+            }
+        }
+    }
+
+    /**
+     * Makes {@code saves} the ones this store caches.
+     */
+    public void rebind(List<CareerSave> saves) {
+        loaded.clear();
+        adopt(saves);
+    }
+
+    /**
+     * Registers saves materialized elsewhere with this store's cache.
+     */
+    public void adopt(List<CareerSave> saves) {
+        for (CareerSave save : saves) {
+            if (save.isLoaded()) {
+                loaded.put(save, save);
+            }
+        }
+    }
+
+    /**
+     * Writes the dirty shards and a new manifest, then starts an empty journal.
+     */
+    public void writeSnapshot(Snapshot snapshot) throws IOException {
+        AutosaveEvent event = new AutosaveEvent();
+        event.start();
+        boolean written = false;
+        try {
+            synchronized (ioLock) {
+                event.bytes = shards.write(untagged(snapshot.shards()));
+                journal.reset(ChangeJournal.Stamp.of(shards.manifestFile()));
+                recordDiskState();
+            }
+            written = true;
+
+            for (ShardedDataStore.Shard shard : snapshot.shards()) {
+                if (shard.copy() == null) continue;
+                event.shards++;
+                event.rows += shard.injuryCount();
+            }
+            event.finish();
+            event.recordSize();
+        } finally {
+            synchronized (this) {
+                if (!written) {
+                    dirtySaves.addAll(snapshot.dirtyNames());
+                }
+                snapshot.dirtyNames().forEach(n -> pendingSaves.computeIfPresent(n, (k, c) -> c > 1 ? c - 1 : null));
+            }
+        }
+    }
+
+    /**
+     * Writes a full snapshot in the single-file format to {@link #getFile()}.
+     */
+    public void exportSingleFile(Snapshot snapshot) throws IOException {
+        List<CareerSave> saves = new ArrayList<>(snapshot.shards().size());
+        for (ShardedDataStore.Shard shard : snapshot.shards()) {
+            if (shard.copy() == null) {
+                throw new IllegalArgumentException("Export needs a full snapshot");
+            }
+            saves.add(shard.copy());
+        }
+        shards.exportSingleFile(file, untaggedCopies(saves));
+    }
+
+    // The copies may be shared with another write, so they are wrapped rather than renamed
+    private List<ShardedDataStore.Shard> untagged(List<ShardedDataStore.Shard> list) {
+        if (nameTag.isEmpty()) return list;
+        List<ShardedDataStore.Shard> out = new ArrayList<>(list.size());
+        for (ShardedDataStore.Shard shard : list) {
+            CareerSave copy = shard.copy() == null ? null : untaggedCopies(List.of(shard.copy())).get(0);
+            out.add(new ShardedDataStore.Shard(untagged(shard.name()), shard.injuryCount(), copy));
+        }
+        return out;
+    }
+
+    private List<CareerSave> untaggedCopies(List<CareerSave> saves) {
+        if (nameTag.isEmpty()) return saves;
+        List<CareerSave> out = new ArrayList<>(saves.size());
+        for (CareerSave save : saves) {
+            CareerSave renamed = new CareerSave(untagged(save.getName()));
+            renamed.setInjuries(save.getInjuries());
+            out.add(renamed);
+        }
+        return out;
+    }
+
+    public boolean needsCompaction() {
+        return journal.size() > compactionThreshold;
+    }
+
+    public boolean hasJournaledChanges() {
+        return journal.hasRecords();
+    }
+}
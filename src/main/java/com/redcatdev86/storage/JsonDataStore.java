@@ -1,43 +1,132 @@
 package com.redcatdev86.storage;
 
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.redcatdev86.diagnostics.DataFileLoadEvent;
+import com.redcatdev86.diagnostics.DataFileSaveEvent;
+import com.redcatdev86.index.PlayerNameDictionary;
 import com.redcatdev86.model.CareerSave;
 
 import java.io.IOException;
+import java.io.BufferedOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
-public class JsonDataStore {
+public class JsonDataStore implements DataStore {
+
+    private static final int BUFFER_SIZE = 1 << 16;
 
     private final ObjectMapper mapper;
+    private final ObjectReader saveReader;
+    private final Compression compression;
+    private final int level;
 
     public JsonDataStore() {
+        this(PlayerNameDictionary.shared());
+    }
+
+    /**
+     * @param playerNames dictionary that loaded player names are interned in
+     */
+    public JsonDataStore(PlayerNameDictionary playerNames) {
+        this(playerNames, Compression.NONE, Compression.DEFAULT_LEVEL);
+    }
+
+    /**
+     * @param compression how files are compressed when written; reading detects it
+     * @param level       compression level, 1 to 9
+     */
+    public JsonDataStore(PlayerNameDictionary playerNames, Compression compression, int level) {
+        this.compression = compression;
+        this.level = level;
         this.mapper = new ObjectMapper()
                 .registerModule(new JavaTimeModule())
+                .registerModule(ColumnarJson.module(playerNames))
                 .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
                 .enable(SerializationFeature.INDENT_OUTPUT);
+        this.saveReader = mapper.readerFor(CareerSave.class);
     }
 
+    @Override
     public List<CareerSave> load(Path file) throws IOException {
+        List<CareerSave> saves = new ArrayList<>();
+        forEach(file, saves::add);
+        return saves;
+    }
+
+    /**
+     * Streams the saves stored in {@code file} one at a time, without reading the whole
+     * document into memory first. A missing file yields no saves.
+     */
+    @Override
+    public void forEach(Path file, Consumer<? super CareerSave> action) throws IOException {
         if (file == null || !Files.exists(file)) {
-            return new ArrayList<>();
+            return;
+        }
+        DataFileLoadEvent event = new DataFileLoadEvent();
+        event.start();
+        try (MappingIterator<CareerSave> it = iterate(Compression.open(file))) {
+            while (it.hasNextValue()) {
+                CareerSave save = it.nextValue();
+                event.saves++;
+                event.rows += save.getInjuryCount();
+                action.accept(save);
+            }
+        }
+        event.file = file.toString();
+        event.bytes = Files.size(file);
+        event.finish();
+    }
+
+    /**
+     * Returns a lazy iterator over the saves in {@code in}. The stream may hold either a
+     * JSON array of saves or a bare sequence of save objects; closing the iterator closes it.
+     */
+    public MappingIterator<CareerSave> iterate(InputStream in) throws IOException {
+        return saveReader.readValues(in);
+    }
+
+    /**
+     * Parses the saves of a whole document already in memory, with the same configuration
+     * {@link #load} uses. Files are better streamed through {@link #load}.
+     */
+    public List<CareerSave> parse(String json) throws IOException {
+        try (MappingIterator<CareerSave> it = saveReader.readValues(json)) {
+            return it.readAll();
         }
-        return mapper.readValue(
-                Files.readString(file),
-                mapper.getTypeFactory().constructCollectionType(List.class, CareerSave.class)
-        );
     }
 
+    @Override
     public void save(Path file, List<CareerSave> saves) throws IOException {
         if (file == null) throw new IllegalArgumentException("file is null");
         if (saves == null) saves = new ArrayList<>();
 
+        DataFileSaveEvent event = new DataFileSaveEvent();
+        event.start();
         Files.createDirectories(file.getParent());
-        String json = mapper.writeValueAsString(saves);
-        Files.writeString(file, json);
+        try (OutputStream out = compression.compress(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE), level)) {
+            mapper.writeValue(out, saves);
+        }
+
+        event.file = file.toString();
+        event.bytes = Files.size(file);
+        event.saves = saves.size();
+        for (CareerSave save : saves) {
+            event.rows += save.getInjuryCount();
+        }
+        event.finish();
+    }
+
+    @Override
+    public String fileExtension() {
+        return compression.appendTo("json");
     }
-}
\ No newline at end of file
+}
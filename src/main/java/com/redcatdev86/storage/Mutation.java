@@ -0,0 +1,177 @@
+package com.redcatdev86.storage;
+
+import com.redcatdev86.model.CareerSave;
+import com.redcatdev86.model.Injury;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A single edit to the career saves, as recorded in the {@link ChangeJournal}.
+ * Saves are addressed by name (names are unique), injuries by their index in the save.
+ */
+public final class Mutation {
+
+    public enum Type {
+        CREATE_SAVE,
+        DELETE_SAVE,
+        ADD_INJURY,
+        DELETE_INJURY,
+        EDIT_PLAYER_NAME,
+        EDIT_RECOVERY_DATE,
+        /** Like {@code DELETE_INJURY}, but the last injury takes the deleted one's place. */
+        REMOVE_INJURY
+    }
+
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private final Type type;
+    private final String saveName;
+    private final int injuryIndex;
+    private final String playerName;
+    private final LocalDate recoveryDate;
+
+    private Mutation(Type type, String saveName, int injuryIndex, String playerName, LocalDate recoveryDate) {
+        this.type = type;
+        this.saveName = saveName;
+        this.injuryIndex = injuryIndex;
+        this.playerName = playerName;
+        this.recoveryDate = recoveryDate;
+    }
+
+    public static Mutation createSave(String saveName) {
+        return new Mutation(Type.CREATE_SAVE, saveName, -1, null, null);
+    }
+
+    public static Mutation deleteSave(String saveName) {
+        return new Mutation(Type.DELETE_SAVE, saveName, -1, null, null);
+    }
+
+    public static Mutation addInjury(String saveName, String playerName, LocalDate recoveryDate) {
+        return new Mutation(Type.ADD_INJURY, saveName, -1, playerName, recoveryDate);
+    }
+
+    public static Mutation deleteInjury(String saveName, int injuryIndex) {
+        return new Mutation(Type.DELETE_INJURY, saveName, injuryIndex, null, null);
+    }
+
+    public static Mutation removeInjury(String saveName, int injuryIndex) {
+        return new Mutation(Type.REMOVE_INJURY, saveName, injuryIndex, null, null);
+    }
+
+    public static Mutation editPlayerName(String saveName, int injuryIndex, String playerName) {
+        return new Mutation(Type.EDIT_PLAYER_NAME, saveName, injuryIndex, playerName, null);
+    }
+
+    public static Mutation editRecoveryDate(String saveName, int injuryIndex, LocalDate recoveryDate) {
+        return new Mutation(Type.EDIT_RECOVERY_DATE, saveName, injuryIndex, null, recoveryDate);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getSaveName() {
+        return saveName;
+    }
+
+    public int getInjuryIndex() {
+        return injuryIndex;
+    }
+
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    public LocalDate getRecoveryDate() {
+        return recoveryDate;
+    }
+
+    /**
+     * The same edit addressed to the save called {@code name}.
+     */
+    Mutation withSaveName(String name) {
+        return new Mutation(type, name, injuryIndex, playerName, recoveryDate);
+    }
+
+    /**
+     * Replays this mutation on {@code saves}.
+     *
+     * @throws IOException if the target save or injury does not exist
+     */
+    public void applyTo(List<CareerSave> saves) throws IOException {
+        if (type == Type.CREATE_SAVE) {
+            saves.add(new CareerSave(saveName));
+            return;
+        }
+
+        CareerSave save = saves.stream()
+                .filter(s -> saveName.equals(s.getName()))
+                .findFirst()
+                .orElseThrow(() -> new IOException("Journal refers to unknown save: " + saveName));
+
+        switch (type) {
+            case DELETE_SAVE -> saves.remove(save);
+            case ADD_INJURY -> save.getInjuries().add(new Injury(playerName, recoveryDate));
+            case DELETE_INJURY -> save.getInjuries().remove(injuryAt(save));
+            case EDIT_PLAYER_NAME -> injuryAt(save).setPlayerName(playerName);
+            case EDIT_RECOVERY_DATE -> injuryAt(save).setRecoveryDate(recoveryDate);
+            case REMOVE_INJURY -> {
+                injuryAt(save);
+                List<Injury> injuries = save.getInjuries();
+                Injury last = injuries.remove(injuries.size() - 1);
+                if (injuryIndex < injuries.size()) injuries.set(injuryIndex, last);
+            }
+            default -> throw new IllegalStateException("Unhandled mutation " + type);
+        }
+    }
+
+    private Injury injuryAt(CareerSave save) throws IOException {
+        List<Injury> injuries = save.getInjuries();
+        if (injuryIndex < 0 || injuryIndex >= injuries.size()) {
+            throw new IOException("Journal refers to missing injury " + injuryIndex + " in save: " + saveName);
+        }
+        return injuries.get(injuryIndex);
+    }
+
+    // ----------------------------
+    // Binary encoding
+    // ----------------------------
+    byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(type.ordinal());
+            out.writeUTF(saveName);
+            out.writeInt(injuryIndex);
+            out.writeBoolean(playerName != null);
+            if (playerName != null) out.writeUTF(playerName);
+            out.writeLong(recoveryDate == null ? NO_DATE : recoveryDate.toEpochDay());
+        } catch (IOException e) {
+            throw new IllegalStateException("In-memory write failed", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static Mutation decode(DataInputStream in) throws IOException {
+        int ordinal = in.readUnsignedByte();
+        Type[] types = Type.values();
+        if (ordinal >= types.length) {
+            throw new IOException("Unknown mutation type: " + ordinal);
+        }
+        String saveName = in.readUTF();
+        int injuryIndex = in.readInt();
+        String playerName = in.readBoolean() ? in.readUTF() : null;
+        long epochDay = in.readLong();
+        LocalDate recoveryDate = epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+        return new Mutation(types[ordinal], saveName, injuryIndex, playerName, recoveryDate);
+    }
+
+    @Override
+    public String toString() {
+        return type + "[" + saveName + (injuryIndex >= 0 ? "#" + injuryIndex : "") + "]";
+    }
+}
@@ -0,0 +1,138 @@
+package com.redcatdev86.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Index of a sharded store: which shard file holds each career save, in display order.
+ */
+public class ShardManifest {
+
+    public static final int CURRENT_VERSION = 1;
+
+    private int version = CURRENT_VERSION;
+    private int nextId = 1;
+    private List<Entry> saves = new ArrayList<>();
+
+    public ShardManifest() {
+        // Required for JSON
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    public int getNextId() {
+        return nextId;
+    }
+
+    public void setNextId(int nextId) {
+        this.nextId = nextId;
+    }
+
+    public List<Entry> getSaves() {
+        return saves;
+    }
+
+    public void setSaves(List<Entry> saves) {
+        this.saves = saves;
+    }
+
+    public static class Entry {
+
+        private String name;
+        private int id;
+        private int rev;
+        private int injuries;
+        private String ext;
+
+        // Recovery dates in the shard as epoch days: the first after the day it was written,
+        // and the last. Null when there is none, and in manifests written before they existed.
+        private Integer nextRecovery;
+        private Integer lastRecovery;
+
+        public Entry() {
+            // Required for JSON
+        }
+
+        public Entry(String name, int id, int rev, int injuries, String ext) {
+            this.name = name;
+            this.id = id;
+            this.rev = rev;
+            this.injuries = injuries;
+            this.ext = ext;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public int getRev() {
+            return rev;
+        }
+
+        public void setRev(int rev) {
+            this.rev = rev;
+        }
+
+        public int getInjuries() {
+            return injuries;
+        }
+
+        public void setInjuries(int injuries) {
+            this.injuries = injuries;
+        }
+
+        /**
+         * Extension of the shard file, which follows the format it was written in.
+         * Manifests written before the binary format existed have none: those shards are JSON.
+         */
+        public String getExt() {
+            return ext == null ? "json" : ext;
+        }
+
+        public void setExt(String ext) {
+            this.ext = ext;
+        }
+
+        public Integer getNextRecovery() {
+            return nextRecovery;
+        }
+
+        public void setNextRecovery(Integer nextRecovery) {
+            this.nextRecovery = nextRecovery;
+        }
+
+        public Integer getLastRecovery() {
+            return lastRecovery;
+        }
+
+        public void setLastRecovery(Integer lastRecovery) {
+            this.lastRecovery = lastRecovery;
+        }
+
+        /**
+         * Shard files are never overwritten: each revision gets its own name, so the
+         * previous manifest stays valid until the new one is in place.
+         */
+        public String fileName() {
+            return "save-" + id + "-r" + rev + "." + getExt();
+        }
+    }
+}
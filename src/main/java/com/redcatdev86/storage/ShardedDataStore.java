@@ -0,0 +1,354 @@
+package com.redcatdev86.storage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.redcatdev86.diagnostics.Metrics;
+import com.redcatdev86.model.CareerSave;
+import com.redcatdev86.model.Injury;
+import com.redcatdev86.model.InjuryColumns;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Career saves stored one per file, plus a small {@link ShardManifest} listing them.
+ * <p>
+ * {@link #write} only rewrites the shards handed a fresh copy and writes them in parallel.
+ * Each write produces new shard files and then swaps the manifest, so readers always see
+ * a complete set. Large saves also get an {@link InjuryPageFile} next to their shard, and
+ * the manifest notes when each save's next recovery date is due (see {@link #entry}).
+ */
+public class ShardedDataStore {
+
+    public static final String MANIFEST_FILE = "manifest.json";
+
+    private static final String SHARD_PREFIX = "save-";
+
+    private static final LongAdder SWEEP_FAILURES = Metrics.shared().counter("shards.sweep.failures");
+
+    private static final ExecutorService IO_POOL = Executors.newFixedThreadPool(
+            Math.min(4, Runtime.getRuntime().availableProcessors()),
+            r -> {
+                Thread t = new Thread(r, "fc-shard-io");
+                t.setDaemon(true);
+                return t;
+            });
+
+    /**
+     * A save to persist. {@code copy} is null when the shard on disk is still current.
+     */
+    public record Shard(String name, int injuryCount, CareerSave copy) {}
+
+    private final DataStore dataStore;
+    private final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final Path dir;
+
+    // Last manifest read or written; replaced, never modified, once published
+    private volatile ShardManifest manifest;
+
+    public ShardedDataStore(DataStore dataStore, Path dir) {
+        this.dataStore = dataStore;
+        this.dir = dir;
+    }
+
+    /**
+     * Shard directory kept next to a single-file store, e.g. {@code data/fc-issuer-manager.shards}.
+     */
+    public static Path dirFor(Path dataFile) {
+        // Other extensions are kept, so data.json and data.fcb do not share a directory
+        String fileName = dataFile.getFileName().toString();
+        Compression compression = Compression.forFileName(dataFile);
+        String name = Compression.stripExtension(fileName);
+        if (name.toLowerCase().endsWith(".json")) {
+            name = name.substring(0, name.length() - ".json".length());
+        }
+        return dataFile.resolveSibling(compression.appendTo(name) + ".shards");
+    }
+
+    public Path getDirectory() {
+        return dir;
+    }
+
+    public Path manifestFile() {
+        return dir.resolve(MANIFEST_FILE);
+    }
+
+    public boolean exists() {
+        return Files.exists(manifestFile());
+    }
+
+    /**
+     * Shard file of each save, as of the last manifest read or written.
+     */
+    public Map<String, String> shardFiles() {
+        Map<String, String> files = new HashMap<>();
+        ShardManifest current = manifest;
+        if (current != null) {
+            for (ShardManifest.Entry entry : current.getSaves()) {
+                files.put(entry.getName(), entry.fileName());
+            }
+        }
+        return files;
+    }
+
+    public ShardManifest readManifest() throws IOException {
+        ShardManifest m = mapper.readValue(manifestFile().toFile(), ShardManifest.class);
+        if (m.getVersion() > ShardManifest.CURRENT_VERSION) {
+            throw new IOException("Unsupported shard manifest version: " + m.getVersion());
+        }
+        return m;
+    }
+
+    /**
+     * Reads only the manifest: every save comes back unloaded, with its injury count.
+     */
+    public List<CareerSave> loadIndex() throws IOException {
+        manifest = readManifest();
+        List<CareerSave> saves = new ArrayList<>(manifest.getSaves().size());
+        for (ShardManifest.Entry entry : manifest.getSaves()) {
+            saves.add(CareerSave.unloaded(entry.getName(), entry.getInjuries()));
+        }
+        return saves;
+    }
+
+    /**
+     * Reads the injuries of one save from its current shard.
+     */
+    public List<Injury> loadInjuries(String saveName) throws IOException {
+        ShardManifest current = manifest;
+        if (current == null) {
+            throw new IOException("Shard index not loaded: " + dir);
+        }
+        try {
+            return readShard(entryFor(current, saveName)).getInjuries();
+        } catch (IOException e) {
+            // A concurrent write may have replaced the shard; retry against the new manifest
+            if (manifest == current) throw e;
+            return readShard(entryFor(manifest, saveName)).getInjuries();
+        }
+    }
+
+    /**
+     * Opens the page file of one save's current shard, or returns null if it has none
+     * (a small save, or a shard written before page files existed).
+     */
+    public InjuryPageFile openPages(String saveName) throws IOException {
+        ShardManifest current = manifest;
+        if (current == null) {
+            throw new IOException("Shard index not loaded: " + dir);
+        }
+        Path pages = InjuryPageFile.pathFor(dir.resolve(entryFor(current, saveName).fileName()));
+        return Files.exists(pages) ? InjuryPageFile.open(pages) : null;
+    }
+
+    /**
+     * Manifest entry of one save, as of the last manifest read or written; null if unknown.
+     */
+    public ShardManifest.Entry entry(String saveName) {
+        ShardManifest current = manifest;
+        if (current == null) return null;
+        for (ShardManifest.Entry entry : current.getSaves()) {
+            if (entry.getName().equals(saveName)) return entry;
+        }
+        return null;
+    }
+
+    public List<CareerSave> loadAll() throws IOException {
+        manifest = readManifest();
+        List<Callable<CareerSave>> reads = new ArrayList<>();
+        for (ShardManifest.Entry entry : manifest.getSaves()) {
+            reads.add(() -> readShard(entry));
+        }
+        return runAll(reads);
+    }
+
+    /**
+     * Persists {@code shards} in order: new copies get new shard files, the manifest is
+     * replaced, and shard files no longer referenced are deleted.
+     *
+     * @return bytes written, shard files and manifest
+     */
+    public long write(List<Shard> shards) throws IOException {
+        ShardManifest previous = manifest;
+        if (previous == null) {
+            previous = exists() ? readManifest() : new ShardManifest();
+        }
+
+        Map<String, ShardManifest.Entry> byName = new HashMap<>();
+        for (ShardManifest.Entry entry : previous.getSaves()) {
+            byName.put(entry.getName(), entry);
+        }
+
+        ShardManifest next = new ShardManifest();
+        int nextId = previous.getNextId();
+        List<Callable<Long>> writes = new ArrayList<>();
+        int today = InjuryColumns.toEpochDay(LocalDate.now());
+
+        for (Shard shard : shards) {
+            ShardManifest.Entry old = byName.get(shard.name());
+            if (shard.copy() == null) {
+                if (old == null) {
+                    throw new IOException("No data for new save: " + shard.name());
+                }
+                ShardManifest.Entry kept = new ShardManifest.Entry(old.getName(), old.getId(), old.getRev(), shard.injuryCount(), old.getExt());
+                kept.setNextRecovery(old.getNextRecovery());
+                kept.setLastRecovery(old.getLastRecovery());
+                next.getSaves().add(kept);
+                continue;
+            }
+
+            String ext = dataStore.fileExtension();
+            ShardManifest.Entry entry = old == null
+                    ? new ShardManifest.Entry(shard.name(), nextId++, 1, shard.injuryCount(), ext)
+                    : new ShardManifest.Entry(shard.name(), old.getId(), old.getRev() + 1, shard.injuryCount(), ext);
+            next.getSaves().add(entry);
+            writes.add(() -> {
+                noteRecoveries(entry, shard.copy().getInjuries(), today);
+                Path shardFile = dir.resolve(entry.fileName());
+                dataStore.save(shardFile, List.of(shard.copy()));
+                long written = Files.size(shardFile);
+                if (shard.copy().getInjuryCount() >= InjuryPageFile.THRESHOLD) {
+                    written += InjuryPageFile.write(InjuryPageFile.pathFor(shardFile), shard.copy().getInjuries());
+                }
+                return written;
+            });
+        }
+        next.setNextId(nextId);
+
+        long bytes = 0;
+        for (long written : runAll(writes)) {
+            bytes += written;
+        }
+
+        Path tmp = dir.resolve(MANIFEST_FILE + ".tmp");
+        Files.createDirectories(dir);
+        mapper.writeValue(tmp.toFile(), next);
+        bytes += Files.size(tmp);
+        ChangeJournal.moveReplacing(tmp, manifestFile());
+        manifest = next;
+
+        deleteUnreferenced(next);
+        return bytes;
+    }
+
+    // ----------------------------
+    // Single-file format
+    // ----------------------------
+    public List<CareerSave> importSingleFile(Path file) throws IOException {
+        return dataStore.load(file);
+    }
+
+    public void exportSingleFile(Path file, List<CareerSave> saves) throws IOException {
+        dataStore.save(file, saves);
+    }
+
+    // ----------------------------
+    // Helpers
+    // ----------------------------
+    private CareerSave readShard(ShardManifest.Entry entry) throws IOException {
+        Path file = dir.resolve(entry.fileName());
+        List<CareerSave> content = dataStore.load(file);
+        if (content.size() != 1) {
+            throw new IOException("Shard " + file + " should hold one save, found " + content.size());
+        }
+        return content.get(0);
+    }
+
+    // One pass over the columns, next to the shard write that reads every row anyway
+    private static void noteRecoveries(ShardManifest.Entry entry, List<Injury> injuries, int today) {
+        int next = Integer.MAX_VALUE;
+        int last = InjuryColumns.NO_DATE;
+        for (int i = 0; i < injuries.size(); i++) {
+            int day = InjuryColumns.epochDayAt(injuries, i);
+            if (day == InjuryColumns.NO_DATE) continue;
+            last = Math.max(last, day);
+            if (day > today) next = Math.min(next, day);
+        }
+        entry.setNextRecovery(next == Integer.MAX_VALUE ? null : next);
+        entry.setLastRecovery(last == InjuryColumns.NO_DATE ? null : last);
+    }
+
+    private static ShardManifest.Entry entryFor(ShardManifest m, String saveName) throws IOException {
+        for (ShardManifest.Entry entry : m.getSaves()) {
+            if (entry.getName().equals(saveName)) {
+                return entry;
+            }
+        }
+        throw new IOException("No shard for save: " + saveName);
+    }
+
+    // Also sweeps shard files left behind by an interrupted write. Runs after the manifest
+    // swap, so it must not fail the write: a file that cannot go now (e.g. a page file still
+    // open on Windows) is counted and swept by the next write.
+    private void deleteUnreferenced(ShardManifest current) {
+        Set<String> referenced = new HashSet<>();
+        for (ShardManifest.Entry entry : current.getSaves()) {
+            referenced.add(entry.fileName());
+            referenced.add(InjuryPageFile.pathFor(Path.of(entry.fileName())).toString());
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, SHARD_PREFIX + "*")) {
+            for (Path file : files) {
+                if (referenced.contains(file.getFileName().toString())) continue;
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    SWEEP_FAILURES.increment();
+                }
+            }
+        } catch (IOException | DirectoryIteratorException e) {
+            SWEEP_FAILURES.increment();
+        }
+    }
+
+    private static <T> List<T> runAll(List<Callable<T>> tasks) throws IOException {
+        List<T> results = new ArrayList<>(tasks.size());
+        if (tasks.size() <= 1) {
+            for (Callable<T> task : tasks) {
+                results.add(call(task));
+            }
+            return results;
+        }
+
+        try {
+            for (Future<T> f : IO_POOL.invokeAll(tasks)) {
+                results.add(f.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while accessing shards", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) throw io;
+            if (cause instanceof UncheckedIOException io) throw io.getCause();
+            throw new IOException(cause.getMessage(), cause);
+        }
+        return results;
+    }
+
+    private static <T> T call(Callable<T> task) throws IOException {
+        try {
+            return task.call();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+}
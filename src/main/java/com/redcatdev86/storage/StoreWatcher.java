@@ -0,0 +1,100 @@
+package com.redcatdev86.storage;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the shard directory of a {@link JournaledStore} and reports when someone else,
+ * e.g. another instance or a sync tool, changes its manifest or journal.
+ * <p>
+ * Events are coalesced until the directory has been quiet for {@link #QUIET_MILLIS}, then
+ * {@link JournaledStore#changedOnDisk} tells the store's own writes apart. The callback
+ * runs on the watcher thread.
+ */
+public class StoreWatcher implements AutoCloseable {
+
+    public static final long QUIET_MILLIS = 300;
+
+    private final JournaledStore store;
+    private final Runnable onExternalChange;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    /**
+     * Starts watching; the shard directory must exist.
+     */
+    public StoreWatcher(JournaledStore store, Runnable onExternalChange) throws IOException {
+        this.store = store;
+        this.onExternalChange = onExternalChange;
+        Path dir = store.getShardDirectory();
+        this.watchService = FileSystems.getDefault().newWatchService();
+        dir.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+
+        thread = new Thread(this::run, "fc-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean relevant = drain(key);
+
+                // A write is usually several events (temp file, move, delete old shards)
+                while ((key = watchService.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    relevant |= drain(key);
+                }
+
+                if (relevant && changedOnDisk()) {
+                    onExternalChange.run();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed
+        }
+    }
+
+    private boolean changedOnDisk() {
+        try {
+            return store.changedOnDisk();
+        } catch (IOException e) {
+            // Caught mid-write; the rest of that write brings more events
+            return false;
+        }
+    }
+
+    // Temp files are only ever half of a write; the move that completes it follows
+    private static boolean drain(WatchKey key) {
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                relevant = true;
+            } else if (event.context() instanceof Path name && !name.toString().endsWith(".tmp")) {
+                relevant = true;
+            }
+        }
+        key.reset();
+        return relevant;
+    }
+
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            // Nothing left to release
+        }
+        thread.interrupt();
+    }
+}
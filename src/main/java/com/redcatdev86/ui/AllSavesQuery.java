@@ -0,0 +1,176 @@
+package com.redcatdev86.ui;
+
+import com.redcatdev86.index.CrossSaveDateIndex;
+import com.redcatdev86.model.CareerSave;
+import com.redcatdev86.model.Injury;
+import com.redcatdev86.storage.CareerSaveRepository;
+import com.redcatdev86.storage.InjuryPageFile;
+import com.redcatdev86.storage.JournaledStore;
+import javafx.concurrent.Task;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Matches of the quick filters' "All saves" scope. Loaded saves are queried through their
+ * date indexes; the matches of unloaded ones are read on the loader thread, once per range.
+ * Only runs on the FX thread.
+ */
+class AllSavesQuery {
+
+    private final CareerSaveRepository repository;
+    private final Executor loader;
+    private final Function<String, JournaledStore> storeOf;
+
+    private final CrossSaveDateIndex dates = new CrossSaveDateIndex();
+    // Matches of unloaded saves for from..to
+    private final Map<CareerSave, List<Injury>> unloadedMatches = new IdentityHashMap<>();
+    private LocalDate from;
+    private LocalDate to;
+    private Task<Map<CareerSave, List<Injury>>> task;
+
+    AllSavesQuery(CareerSaveRepository repository, Executor loader, Function<String, JournaledStore> storeOf) {
+        this.repository = repository;
+        this.loader = loader;
+        this.storeOf = storeOf;
+    }
+
+    /**
+     * The injuries of every save recovering between {@code from} and {@code to} inclusive
+     * whose player name contains {@code query}; {@code null} while unloaded saves are read,
+     * after which {@code read} runs with the failure, if any.
+     */
+    AllSavesRows rows(LocalDate from, LocalDate to, String query, Consumer<Throwable> read) {
+        if (!from.equals(this.from) || !to.equals(this.to)) {
+            cancel();
+            this.from = from;
+            this.to = to;
+        }
+
+        List<CareerSave> toRead = new ArrayList<>();
+        for (CareerSave save : repository.getSaves()) {
+            if (save.isLoaded()) {
+                unloadedMatches.remove(save);
+            } else if (!unloadedMatches.containsKey(save)) {
+                toRead.add(save);
+            }
+        }
+        if (!toRead.isEmpty()) {
+            if (task == null) readAsync(toRead, read);
+            return null;
+        }
+
+        String q = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        List<Injury> rows = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (CareerSave save : repository.getSaves()) {
+            List<Injury> matches;
+            if (save.isLoaded()) {
+                List<Injury> injuries = save.getInjuries();
+                int[] positions = dates.between(save, repository.injuryIds(save), from, to);
+                matches = new ArrayList<>(positions.length);
+                for (int position : positions) matches.add(injuries.get(position));
+            } else {
+                matches = unloadedMatches.get(save);
+            }
+            for (Injury injury : matches) {
+                String name = injury.getPlayerName();
+                if (q.isEmpty() || (name != null && name.toLowerCase(Locale.ROOT).contains(q))) {
+                    rows.add(injury);
+                    names.add(save.getName());
+                }
+            }
+        }
+        return new AllSavesRows(rows, names);
+    }
+
+    /**
+     * Keeps the date index of {@code save} in step with the row {@code id}.
+     */
+    void update(CareerSave save, int id, boolean removed) {
+        dates.update(save, id, removed);
+    }
+
+    // save was unloaded or deleted
+    void drop(CareerSave save) {
+        dates.drop(save);
+        unloadedMatches.remove(save);
+    }
+
+    void clear() {
+        dates.clear();
+        unloadedMatches.clear();
+    }
+
+    // Drops a read still running and the matches read so far
+    void cancel() {
+        if (task != null) task.cancel(false);
+        task = null;
+        unloadedMatches.clear();
+        from = null;
+        to = null;
+    }
+
+    private void readAsync(List<CareerSave> saves, Consumer<Throwable> read) {
+        List<JournaledStore> stores = saves.stream().map(s -> storeOf.apply(s.getName())).toList();
+        LocalDate rangeFrom = from;
+        LocalDate rangeTo = to;
+        Task<Map<CareerSave, List<Injury>>> next = new Task<>() {
+            @Override
+            protected Map<CareerSave, List<Injury>> call() throws IOException {
+                Map<CareerSave, List<Injury>> found = new IdentityHashMap<>();
+                for (int i = 0; i < saves.size(); i++) {
+                    found.put(saves.get(i), recoveringBetween(stores.get(i), saves.get(i), rangeFrom, rangeTo));
+                }
+                return found;
+            }
+        };
+        next.setOnSucceeded(e -> {
+            if (next != task) return;
+            task = null;
+            unloadedMatches.putAll(next.getValue());
+            read.accept(null);
+        });
+        next.setOnFailed(e -> {
+            if (next != task) return;
+            task = null;
+            read.accept(next.getException());
+        });
+        task = next;
+        loader.execute(next);
+    }
+
+    // Copies of the injuries of an unloaded save recovering in range, in save order: from the
+    // page file's date order if it has one, else from its shard
+    private static List<Injury> recoveringBetween(JournaledStore store, CareerSave save, LocalDate from, LocalDate to)
+            throws IOException {
+        long first = Math.max(from.toEpochDay(), Integer.MIN_VALUE + 1L);
+        long last = Math.min(to.toEpochDay(), Integer.MAX_VALUE - 1L);
+        try (InjuryPageFile pages = store.openPages(save)) {
+            if (pages != null) {
+                int start = pages.firstOnOrAfter((int) first);
+                int end = pages.firstOnOrAfter((int) last + 1);
+                TreeMap<Integer, Injury> byRow = new TreeMap<>();
+                pages.scan(InjuryPageFile.Order.BY_DATE, start, end, (position, row, nameId, epochDay) ->
+                        byRow.put(row, new Injury(pages.playerName(nameId), LocalDate.ofEpochDay(epochDay))));
+                return new ArrayList<>(byRow.values());
+            }
+        }
+        List<Injury> injuries = store.readInjuries(save);
+        List<Injury> matches = new ArrayList<>();
+        for (Injury injury : injuries) {
+            LocalDate date = injury.getRecoveryDate();
+            if (date != null && !date.isBefore(from) && !date.isAfter(to)) matches.add(injury);
+        }
+        return matches;
+    }
+}
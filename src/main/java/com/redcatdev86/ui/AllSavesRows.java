@@ -0,0 +1,40 @@
+package com.redcatdev86.ui;
+
+import com.redcatdev86.model.Injury;
+import javafx.collections.ObservableListBase;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only rows of the quick filters' "All saves" scope, each with the name of its save.
+ * Rows of loaded saves are the saves' own injuries; the others are copies read from disk.
+ * A new result replaces the list rather than editing it.
+ */
+final class AllSavesRows extends ObservableListBase<Injury> {
+
+    private final List<Injury> rows;
+    private final Map<Injury, String> saveNames = new IdentityHashMap<>();
+
+    AllSavesRows(List<Injury> rows, List<String> saveNames) {
+        this.rows = rows;
+        for (int i = 0; i < rows.size(); i++) {
+            this.saveNames.put(rows.get(i), saveNames.get(i));
+        }
+    }
+
+    @Override
+    public Injury get(int index) {
+        return rows.get(index);
+    }
+
+    @Override
+    public int size() {
+        return rows.size();
+    }
+
+    String saveNameOf(Injury row) {
+        return saveNames.get(row);
+    }
+}
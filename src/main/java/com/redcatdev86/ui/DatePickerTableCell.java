@@ -4,48 +4,56 @@ import com.redcatdev86.model.Injury;
 import javafx.scene.control.ContentDisplay;
 import javafx.scene.control.DatePicker;
 import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.util.Callback;
 import javafx.util.StringConverter;
 import javafx.util.converter.LocalDateStringConverter;
 
 import java.time.LocalDate;
 
+/**
+ * Date cell that renders plain text, and edits with a {@link DatePicker} shared by all the
+ * cells of its column (only one cell is edited at a time). The picker is built on the first
+ * edit, so cells created while scrolling are just labels.
+ */
 public class DatePickerTableCell extends TableCell<Injury, LocalDate> {
 
-    private final DatePicker datePicker = new DatePicker();
-    private final StringConverter<LocalDate> converter = new LocalDateStringConverter();
+    private static final StringConverter<LocalDate> CONVERTER = new LocalDateStringConverter();
 
-    public DatePickerTableCell() {
-        setContentDisplay(ContentDisplay.TEXT_ONLY);
+    private final Editor editor;
 
-        datePicker.setOnAction(e -> {
-            LocalDate newDate = datePicker.getValue();
-            commitEdit(newDate);
-        });
+    /**
+     * Cell factory whose cells share one editor.
+     */
+    public static Callback<TableColumn<Injury, LocalDate>, TableCell<Injury, LocalDate>> forTableColumn() {
+        Editor editor = new Editor();
+        return col -> new DatePickerTableCell(editor);
+    }
 
-        // Se perde focus, conferma edit
-        datePicker.focusedProperty().addListener((obs, wasFocused, isFocused) -> {
-            if (!isFocused) {
-                commitEdit(datePicker.getValue());
-            }
-        });
+    public DatePickerTableCell() {
+        this(new Editor());
+    }
+
+    private DatePickerTableCell(Editor editor) {
+        this.editor = editor;
+        setContentDisplay(ContentDisplay.TEXT_ONLY);
     }
 
     @Override
     public void startEdit() {
         if (!isEmpty()) {
             super.startEdit();
-            datePicker.setValue(getItem());
-            setGraphic(datePicker);
+            DatePicker picker = editor.attach(this, getItem());
+            setGraphic(picker);
             setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
-            datePicker.requestFocus();
+            picker.requestFocus();
         }
     }
 
     @Override
     public void cancelEdit() {
         super.cancelEdit();
-        setContentDisplay(ContentDisplay.TEXT_ONLY);
-        setGraphic(null);
+        showText(getItem());
     }
 
     @Override
@@ -53,19 +61,56 @@ public class DatePickerTableCell extends TableCell<Injury, LocalDate> {
         super.updateItem(item, empty);
 
         if (empty) {
+            editor.release(this);
             setText(null);
             setGraphic(null);
             setContentDisplay(ContentDisplay.TEXT_ONLY);
+        } else if (isEditing()) {
+            setGraphic(editor.attach(this, item));
+            setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
         } else {
-            if (isEditing()) {
-                datePicker.setValue(item);
-                setGraphic(datePicker);
-                setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
-            } else {
-                setText(item == null ? "" : converter.toString(item));
-                setGraphic(null);
-                setContentDisplay(ContentDisplay.TEXT_ONLY);
+            showText(item);
+        }
+    }
+
+    private void showText(LocalDate item) {
+        editor.release(this);
+        setText(item == null ? "" : CONVERTER.toString(item));
+        setGraphic(null);
+        setContentDisplay(ContentDisplay.TEXT_ONLY);
+    }
+
+    /**
+     * The DatePicker of one column, lent to the cell being edited.
+     */
+    private static final class Editor {
+
+        private DatePicker picker;
+        private DatePickerTableCell owner;
+
+        DatePicker attach(DatePickerTableCell cell, LocalDate value) {
+            if (picker == null) {
+                picker = new DatePicker();
+                picker.setConverter(CONVERTER);
+                picker.setOnAction(e -> {
+                    if (owner != null) owner.commitEdit(picker.getValue());
+                });
+                // Se perde focus, conferma edit
+                picker.focusedProperty().addListener((obs, wasFocused, isFocused) -> {
+                    if (!isFocused && owner != null) owner.commitEdit(picker.getValue());
+                });
+            }
+            // Setting the value fires onAction, which must not commit into the new cell
+            owner = null;
+            picker.setValue(value);
+            owner = cell;
+            return picker;
+        }
+
+        void release(DatePickerTableCell cell) {
+            if (owner == cell) {
+                owner = null;
             }
         }
     }
-}
\ No newline at end of file
+}
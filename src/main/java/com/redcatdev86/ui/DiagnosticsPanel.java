@@ -0,0 +1,102 @@
+package com.redcatdev86.ui;
+
+import com.redcatdev86.diagnostics.LatencyHistogram;
+import com.redcatdev86.diagnostics.Metrics;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.geometry.Insets;
+import javafx.scene.control.Label;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.VBox;
+import javafx.util.Duration;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Hidden panel listing the {@link Metrics} latencies (count, p50, p99, max), counters and
+ * the sizes of the last autosaves. It reads the metrics once a second, and only while it is
+ * shown; hidden, it costs nothing.
+ */
+class DiagnosticsPanel extends VBox {
+
+    private final GridPane latencies = new GridPane();
+    private final GridPane counters = new GridPane();
+    private final Label autosaves = new Label();
+    private final Timeline refresh = new Timeline(new KeyFrame(Duration.seconds(1), e -> refresh()));
+
+    DiagnosticsPanel() {
+        super(8);
+        getStyleClass().add("fc-diagnostics");
+        setPadding(new Insets(12));
+        setPrefWidth(320);
+
+        latencies.setHgap(10);
+        counters.setHgap(10);
+        autosaves.setWrapText(true);
+
+        Label title = new Label("Diagnostics");
+        title.getStyleClass().add("fc-diagnostics-title");
+        getChildren().addAll(title, latencies, new Label("Recent autosaves"), autosaves, counters);
+
+        refresh.setCycleCount(Animation.INDEFINITE);
+        setVisible(false);
+        setManaged(false);
+    }
+
+    void toggle() {
+        boolean show = !isVisible();
+        setVisible(show);
+        setManaged(show);
+        if (show) {
+            refresh();
+            refresh.play();
+        } else {
+            refresh.stop();
+        }
+    }
+
+    private void refresh() {
+        Metrics metrics = Metrics.shared();
+
+        latencies.getChildren().clear();
+        latencies.addRow(0, header("Timing"), header("Count"), header("p50"), header("p99"), header("Max"));
+        int row = 1;
+        for (Map.Entry<String, LatencyHistogram.Snapshot> e : metrics.latencySnapshots().entrySet()) {
+            LatencyHistogram.Snapshot s = e.getValue();
+            latencies.addRow(row++, new Label(e.getKey()), new Label(Long.toString(s.count())),
+                    new Label(millis(s.p50Nanos())), new Label(millis(s.p99Nanos())), new Label(millis(s.maxNanos())));
+        }
+
+        long[] sizes = metrics.recentValues().getOrDefault("autosave.bytes", new long[0]);
+        StringBuilder text = new StringBuilder();
+        for (int i = sizes.length - 1; i >= 0; i--) {
+            if (!text.isEmpty()) text.append(", ");
+            text.append(bytes(sizes[i]));
+        }
+        autosaves.setText(text.isEmpty() ? "none yet" : text.toString());
+
+        counters.getChildren().clear();
+        row = 0;
+        for (Map.Entry<String, Long> e : metrics.counterValues().entrySet()) {
+            counters.addRow(row++, new Label(e.getKey()), new Label(Long.toString(e.getValue())));
+        }
+    }
+
+    private static Label header(String text) {
+        Label label = new Label(text);
+        label.setOpacity(0.6);
+        return label;
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f ms", nanos / 1e6);
+    }
+
+    private static String bytes(long n) {
+        if (n < 1024) return n + " B";
+        if (n < 1024 * 1024) return String.format(Locale.ROOT, "%.1f KB", n / 1024.0);
+        return String.format(Locale.ROOT, "%.1f MB", n / (1024.0 * 1024));
+    }
+}
@@ -0,0 +1,195 @@
+package com.redcatdev86.ui;
+
+import com.redcatdev86.model.CareerSave;
+import com.redcatdev86.storage.CareerSaveRepository;
+import com.redcatdev86.storage.JournaledStore;
+import com.redcatdev86.storage.ShardedDataStore;
+import com.redcatdev86.storage.StoreWatcher;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+import javafx.scene.control.Alert;
+import javafx.scene.control.ButtonBar;
+import javafx.scene.control.ButtonType;
+import javafx.util.Duration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Merges the changes other processes make to a store's files. The changed saves are read
+ * again on the loader thread and applied through the repository as single-row edits, so the
+ * selection and the table stay put. Saves that also have unsaved edits of ours are a
+ * conflict: the user keeps one side. Only runs on the FX thread.
+ */
+class ExternalChanges {
+
+    /**
+     * Outcome of a check: the store that read the files, or {@code null} if nothing was
+     * merged, the saves replaced by the file's version and the unsaved ones kept.
+     */
+    record Merged(JournaledStore store, Set<String> applied, Set<String> kept) {}
+
+    private record ExternalLoad(JournaledStore store, List<CareerSave> saves, Set<String> changed,
+                                Map<CareerSave, CareerSaveRepository.LoadedInjuries> read) {}
+
+    private final CareerSaveRepository repository;
+    private final Executor loader;
+    private final Function<Path, JournaledStore> opener;
+    // Whether a load, import or write of ours is running
+    private final BooleanSupplier busy;
+    private final Consumer<String> status;
+    private final Consumer<Merged> merged;
+
+    private JournaledStore watched;
+    private StoreWatcher watcher;
+    private Task<ExternalLoad> reloadTask;
+    private boolean reloadAgain;
+    private final PauseTransition retry = new PauseTransition(Duration.millis(500));
+
+    ExternalChanges(CareerSaveRepository repository, Executor loader, Function<Path, JournaledStore> opener,
+                    BooleanSupplier busy, Consumer<String> status, Consumer<Merged> merged) {
+        this.repository = repository;
+        this.loader = loader;
+        this.opener = opener;
+        this.busy = busy;
+        this.status = status;
+        this.merged = merged;
+        retry.setOnFinished(e -> onChange());
+    }
+
+    void watch(JournaledStore store) {
+        stop();
+        try {
+            watcher = new StoreWatcher(store, () -> Platform.runLater(this::onChange));
+            watched = store;
+        } catch (IOException e) {
+            // Not watchable (e.g. nothing written yet): external changes are picked up on the next load
+        }
+    }
+
+    void stop() {
+        retry.stop();
+        watched = null;
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
+        }
+    }
+
+    private void onChange() {
+        if (watcher == null) return;
+        if (reloadTask != null) {
+            reloadAgain = true;
+            return;
+        }
+        if (busy.getAsBoolean()) {
+            retry.playFromStart();
+            return;
+        }
+
+        JournaledStore current = watched;
+        JournaledStore.DiskState before = current.diskState();
+        Path file = current.getFile();
+        Set<String> shown = new HashSet<>();
+        for (CareerSave save : repository.getSaves()) {
+            if (save.isLoaded()) shown.add(save.getName());
+        }
+
+        Task<ExternalLoad> task = new Task<>() {
+            @Override
+            protected ExternalLoad call() throws IOException {
+                // Only ever re-read shards: loading a store without them would migrate it
+                if (before == null || !Files.exists(current.getShardDirectory().resolve(ShardedDataStore.MANIFEST_FILE))) {
+                    return null;
+                }
+                JournaledStore fresh = opener.apply(file);
+                List<CareerSave> theirs = fresh.load();
+                Set<String> changed = fresh.changedSince(before);
+                fresh.loadAll(theirs.stream().filter(s -> changed.contains(s.getName()) && shown.contains(s.getName())).toList());
+                return new ExternalLoad(fresh, theirs, changed, CareerSaveRepository.prepareLoaded(theirs));
+            }
+        };
+        task.setOnSucceeded(e -> apply(task, current, task.getValue()));
+        task.setOnFailed(e -> {
+            // Most likely caught mid-write; the rest of that write triggers another check
+            reloadTask = null;
+            status.accept("Could not read changes made on disk");
+            if (reloadAgain) onChange();
+        });
+
+        reloadTask = task;
+        reloadAgain = false;
+        status.accept("Reading changes made on disk…");
+        loader.execute(task);
+    }
+
+    private void apply(Task<ExternalLoad> task, JournaledStore startedOn, ExternalLoad result) {
+        if (task != reloadTask) return;
+        reloadTask = null;
+        if (reloadAgain) {
+            onChange();
+            return;
+        }
+        if (result == null || watched != startedOn) {
+            merged.accept(new Merged(null, Set.of(), Set.of()));
+            return;
+        }
+        if (busy.getAsBoolean()) {
+            retry.playFromStart();
+            return;
+        }
+
+        // Saves opened since the read started need the file's version too: read again, with them
+        for (CareerSave their : result.saves()) {
+            CareerSave mine = repository.findByName(their.getName());
+            if (result.changed().contains(their.getName()) && !their.isLoaded() && mine != null && mine.isLoaded()) {
+                retry.playFromStart();
+                return;
+            }
+        }
+
+        Set<String> unsaved = startedOn.unsavedSaveNames();
+        Set<String> conflicts = new TreeSet<>(result.changed());
+        conflicts.retainAll(unsaved);
+        boolean keepMine = !conflicts.isEmpty() && askKeepMine(conflicts);
+
+        Set<String> applied = new HashSet<>(result.changed());
+        if (keepMine) applied.removeAll(conflicts);
+        repository.applyExternal(result.saves(), applied, result.read());
+
+        // Our unsaved edits move to the new store, except those the file's version replaced
+        JournaledStore store = result.store();
+        store.rebind(repository.getSaves());
+        Set<String> kept = new HashSet<>(unsaved);
+        kept.removeAll(applied);
+        kept.forEach(store::markDirty);
+        watch(store);
+
+        merged.accept(new Merged(store, applied, kept));
+    }
+
+    private static boolean askKeepMine(Set<String> conflicts) {
+        ButtonType mine = new ButtonType("Keep my edits", ButtonBar.ButtonData.YES);
+        ButtonType theirs = new ButtonType("Use the file's version", ButtonBar.ButtonData.NO);
+        Alert a = new Alert(Alert.AlertType.CONFIRMATION,
+                "These saves were changed on disk while you had unsaved edits in them:\n"
+                        + String.join(", ", conflicts)
+                        + "\n\nKeep your edits (the file's version of these saves is overwritten), "
+                        + "or replace them with the file's version?",
+                mine, theirs);
+        a.setTitle("Data file changed");
+        a.setHeaderText(null);
+        return a.showAndWait().orElse(mine) == mine;
+    }
+}
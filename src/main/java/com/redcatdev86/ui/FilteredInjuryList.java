@@ -0,0 +1,170 @@
+package com.redcatdev86.ui;
+
+import com.redcatdev86.model.Injury;
+import javafx.collections.ObservableListBase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * The rows of a save's injury list that pass the table's filter, kept as their positions in
+ * ascending order. A new filter result is compared with the current one and only the rows
+ * that left or joined are reported; edits of the list arrive through the row* methods, like
+ * {@link InjuryListView}'s, and cost a binary search plus a shift of the positions after them.
+ */
+class FilteredInjuryList extends ObservableListBase<Injury> {
+
+    private final List<Injury> source;
+    // Whether the row at a source position passes the filter
+    private final IntPredicate matches;
+    private int[] positions;
+    private int size;
+
+    FilteredInjuryList(List<Injury> source, IntPredicate matches, int[] positions) {
+        this.source = source;
+        this.matches = matches;
+        this.positions = positions.clone();
+        this.size = positions.length;
+    }
+
+    @Override
+    public Injury get(int index) {
+        return source.get(getSourceIndex(index));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    int getSourceIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return positions[index];
+    }
+
+    /**
+     * Shows the rows at {@code next} (ascending) instead, reporting the runs that changed.
+     */
+    void setPositions(int[] next) {
+        beginChange();
+        int i = 0;
+        int j = 0;
+        int at = 0;
+        while (i < size || j < next.length) {
+            if (j == next.length || (i < size && positions[i] < next[j])) {
+                List<Injury> removed = new ArrayList<>();
+                while (i < size && (j == next.length || positions[i] < next[j])) {
+                    removed.add(source.get(positions[i++]));
+                }
+                nextRemove(at, removed);
+            } else if (i == size || next[j] < positions[i]) {
+                int from = at;
+                while (j < next.length && (i == size || next[j] < positions[i])) {
+                    j++;
+                    at++;
+                }
+                nextAdd(from, at);
+            } else {
+                i++;
+                j++;
+                at++;
+            }
+        }
+        positions = next.clone();
+        size = next.length;
+        endChange();
+    }
+
+    // ----------------------------
+    // Edits of the source list
+    // ----------------------------
+
+    void rowsAdded(int from, int to) {
+        beginChange();
+        for (int p = from; p < to; p++) {
+            shift(p, 1);
+            if (matches.test(p)) add(p);
+        }
+        endChange();
+    }
+
+    void rowRemoved(int position, Injury removed) {
+        beginChange();
+        remove(position, removed);
+        shift(position, -1);
+        endChange();
+    }
+
+    // The row at position was removed and the last row took its place
+    void rowSwapRemoved(int position, Injury removed) {
+        int last = source.size();
+        beginChange();
+        remove(position, removed);
+        if (position < last && size > 0 && positions[size - 1] == last) {
+            // The moved row passes the filter as before; only its place changes
+            nextRemove(size - 1, source.get(position));
+            size--;
+            add(position);
+        }
+        endChange();
+    }
+
+    void rowChanged(int position, Injury previous) {
+        int index = Arrays.binarySearch(positions, 0, size, position);
+        boolean match = matches.test(position);
+        beginChange();
+        if (index >= 0 && match) {
+            nextSet(index, previous);
+        } else if (index >= 0) {
+            removeAt(index);
+            nextRemove(index, previous);
+        } else if (match) {
+            add(position);
+        }
+        endChange();
+    }
+
+    private void remove(int position, Injury removed) {
+        int index = Arrays.binarySearch(positions, 0, size, position);
+        if (index >= 0) {
+            removeAt(index);
+            nextRemove(index, removed);
+        }
+    }
+
+    private void add(int position) {
+        int index = insert(position);
+        nextAdd(index, index + 1);
+    }
+
+    private void removeAt(int index) {
+        System.arraycopy(positions, index + 1, positions, index, size - index - 1);
+        size--;
+    }
+
+    // Adds position if missing; returns its index
+    private int insert(int position) {
+        int index = Arrays.binarySearch(positions, 0, size, position);
+        if (index >= 0) return index;
+        index = -index - 1;
+        if (size == positions.length) {
+            positions = Arrays.copyOf(positions, Math.max(16, size * 2));
+        }
+        System.arraycopy(positions, index, positions, index + 1, size - index);
+        positions[index] = position;
+        size++;
+        return index;
+    }
+
+    // Moves the positions at or after from by delta, after a row was inserted or removed there
+    private void shift(int from, int delta) {
+        int index = Arrays.binarySearch(positions, 0, size, from);
+        for (int k = index >= 0 ? index : -index - 1; k < size; k++) {
+            positions[k] += delta;
+        }
+    }
+}
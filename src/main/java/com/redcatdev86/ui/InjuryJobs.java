@@ -0,0 +1,253 @@
+package com.redcatdev86.ui;
+
+import com.redcatdev86.model.CareerSave;
+import com.redcatdev86.storage.CareerSaveRepository;
+import com.redcatdev86.storage.CsvInjuryReader;
+import com.redcatdev86.storage.InjuryExporter;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleWrapper;
+import javafx.concurrent.Task;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * CSV imports and exports. They run on their own thread, so page views and reads are not
+ * stuck behind them; progress and outcome go to the status bar. Only runs on the FX thread.
+ */
+class InjuryJobs {
+
+    // Batches read ahead of the FX thread at most
+    private static final int IMPORT_BATCHES_QUEUED = 4;
+
+    private final CareerSaveRepository repository;
+    private final Consumer<String> status;
+    private final Consumer<String> error;
+    // Runs once an import ended, after its last batch was added
+    private final Runnable imported;
+
+    private final ExecutorService jobs = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "fc-jobs");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final ReadOnlyBooleanWrapper importing = new ReadOnlyBooleanWrapper(false);
+    private final ReadOnlyBooleanWrapper exporting = new ReadOnlyBooleanWrapper(false);
+    private final ReadOnlyDoubleWrapper progress = new ReadOnlyDoubleWrapper(0);
+    private Task<CsvInjuryReader.Result> importTask;
+    private Task<InjuryExporter.Result> exportTask;
+
+    InjuryJobs(CareerSaveRepository repository, Consumer<String> status, Consumer<String> error, Runnable imported) {
+        this.repository = repository;
+        this.status = status;
+        this.error = error;
+        this.imported = imported;
+    }
+
+    ReadOnlyBooleanProperty importingProperty() {
+        return importing.getReadOnlyProperty();
+    }
+
+    ReadOnlyBooleanProperty exportingProperty() {
+        return exporting.getReadOnlyProperty();
+    }
+
+    ReadOnlyDoubleProperty progressProperty() {
+        return progress.getReadOnlyProperty();
+    }
+
+    void cancel() {
+        if (importTask != null) importTask.cancel();
+        if (exportTask != null) exportTask.cancel();
+    }
+
+    /**
+     * Cancels a running import without waiting for its summary; returns whether one ran.
+     */
+    boolean cancelImport() {
+        if (importTask == null) return false;
+        Task<?> task = importTask;
+        importTask = null;
+        task.cancel();
+        return true;
+    }
+
+    void shutdown() {
+        jobs.shutdown();
+    }
+
+    // ----------------------------
+    // Import
+    // ----------------------------
+    /**
+     * Appends the injuries of the CSV file at {@code path} to {@code target}. The file is
+     * streamed and each batch is added as one change.
+     */
+    void importCsv(CareerSave target, Path path, long totalBytes) {
+        Task<CsvInjuryReader.Result> task = new Task<>() {
+            @Override
+            protected CsvInjuryReader.Result call() throws IOException {
+                CsvInjuryReader.Result result = null;
+                IOException failure = null;
+                try (CountingInputStream in = new CountingInputStream(Files.newInputStream(path))) {
+                    // At most a few batches wait for the FX thread, so the reader cannot run ahead
+                    Semaphore queued = new Semaphore(IMPORT_BATCHES_QUEUED);
+                    int[] rows = {0};
+                    result = new CsvInjuryReader().read(new InputStreamReader(in, StandardCharsets.UTF_8), batch -> {
+                        if (isCancelled()) return false;
+                        try {
+                            queued.acquire();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return false;
+                        }
+                        Platform.runLater(() -> {
+                            try {
+                                repository.addInjuries(target, batch);
+                            } finally {
+                                queued.release();
+                            }
+                        });
+                        rows[0] += batch.size();
+                        updateProgress(in.getCount(), totalBytes);
+                        updateMessage("Importing… " + rows[0] + " injuries");
+                        return true;
+                    });
+                    return result;
+                } catch (IOException e) {
+                    failure = e;
+                    throw e;
+                } finally {
+                    // Queued behind the last batch, so the snapshot sees every imported row
+                    CsvInjuryReader.Result done = result;
+                    IOException failed = failure;
+                    Platform.runLater(() -> finishImport(this, done, failed));
+                }
+            }
+        };
+        task.messageProperty().addListener((obs, oldV, msg) -> {
+            if (task == importTask) status.accept(msg);
+        });
+
+        importTask = task;
+        importing.set(true);
+        progress.bind(task.progressProperty());
+        status.accept("Importing " + path.getFileName() + "…");
+        jobs.execute(task);
+    }
+
+    private void finishImport(Task<CsvInjuryReader.Result> task, CsvInjuryReader.Result result, IOException failure) {
+        if (task != importTask) return;
+        importTask = null;
+        progress.unbind();
+        importing.set(false);
+        imported.run();
+
+        if (failure != null) {
+            status.accept("Import failed");
+            error.accept("Failed to import CSV:\n" + failure.getMessage());
+            return;
+        }
+        if (result == null) {
+            status.accept("Import failed");
+            return;
+        }
+
+        String summary = (result.stopped() || task.isCancelled() ? "Import cancelled after " : "Imported ")
+                + result.imported() + " injuries"
+                + (result.skipped() > 0 ? ", skipped " + result.skipped() + " rows" : "");
+        status.accept(summary);
+        if (result.skipped() > 0) {
+            error.accept(summary + ":\n" + String.join("\n", result.errors())
+                    + (result.skipped() > result.errors().size() ? "\n…" : ""));
+        }
+    }
+
+    // ----------------------------
+    // Export
+    // ----------------------------
+    /**
+     * Writes the injuries of {@code saves}, copies read through {@code source}, to {@code path}.
+     */
+    void export(InjuryExporter exporter, List<CareerSave> saves, InjuryExporter.InjurySource source, Path path) {
+        Task<InjuryExporter.Result> task = new Task<>() {
+            @Override
+            protected InjuryExporter.Result call() throws IOException {
+                return exporter.export(saves, source, path, (read, total) -> {
+                    updateProgress(read, total);
+                    updateMessage("Exporting… " + read + " of " + total + " injuries");
+                });
+            }
+        };
+        task.messageProperty().addListener((obs, oldV, msg) -> {
+            if (task == exportTask) status.accept(msg);
+        });
+        task.setOnSucceeded(e -> finishExport(task, path, null));
+        task.setOnFailed(e -> finishExport(task, path, task.getException()));
+        task.setOnCancelled(e -> finishExport(task, path, null));
+
+        exportTask = task;
+        exporting.set(true);
+        progress.bind(task.progressProperty());
+        status.accept("Exporting to " + path.getFileName() + "…");
+        jobs.execute(task);
+    }
+
+    private void finishExport(Task<InjuryExporter.Result> task, Path file, Throwable failure) {
+        if (task != exportTask) return;
+        exportTask = null;
+        progress.unbind();
+        exporting.set(false);
+
+        if (task.isCancelled()) {
+            status.accept("Export cancelled");
+        } else if (failure != null) {
+            status.accept("Export failed");
+            error.accept("Failed to export:\n" + failure.getMessage());
+        } else {
+            status.accept("Exported " + task.getValue().rowsWritten() + " injuries to " + file.getFileName());
+        }
+    }
+
+    // Bytes read so far, for progress over a stream of unknown record count
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private volatile long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+    }
+}
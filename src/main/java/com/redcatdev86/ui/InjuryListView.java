@@ -0,0 +1,73 @@
+package com.redcatdev86.ui;
+
+import com.redcatdev86.model.Injury;
+import javafx.collections.ObservableListBase;
+
+import java.util.List;
+
+/**
+ * Read-only observable view of a save's injury list for the table. The list itself is
+ * edited by the repository; the view is told about each edit so the table sees a single-row
+ * change instead of a refresh.
+ */
+class InjuryListView extends ObservableListBase<Injury> {
+
+    private final List<Injury> source;
+
+    InjuryListView(List<Injury> source) {
+        this.source = source;
+    }
+
+    boolean isViewOf(List<Injury> list) {
+        return source == list;
+    }
+
+    @Override
+    public Injury get(int index) {
+        return source.get(index);
+    }
+
+    @Override
+    public int size() {
+        return source.size();
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        return source.indexOf(o);
+    }
+
+    void fireAdded(int index) {
+        fireAdded(index, index + 1);
+    }
+
+    void fireAdded(int from, int to) {
+        beginChange();
+        nextAdd(from, to);
+        endChange();
+    }
+
+    void fireRemoved(int index, Injury removed) {
+        beginChange();
+        nextRemove(index, removed);
+        endChange();
+    }
+
+    // The row at index was removed and the last row took its place
+    void fireSwapRemoved(int index, Injury removed) {
+        beginChange();
+        if (index < size()) {
+            nextSet(index, removed);
+            nextRemove(size(), get(index));
+        } else {
+            nextRemove(index, removed);
+        }
+        endChange();
+    }
+
+    void fireReplaced(int index, Injury previous) {
+        beginChange();
+        nextSet(index, previous);
+        endChange();
+    }
+}
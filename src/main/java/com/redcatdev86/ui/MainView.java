@@ -1,49 +1,172 @@
 package com.redcatdev86.ui;
 
+import com.redcatdev86.diagnostics.FilterEvent;
+import com.redcatdev86.diagnostics.Metrics;
+import com.redcatdev86.diagnostics.SaveSelectEvent;
+import com.redcatdev86.index.InjuryFilter;
+import com.redcatdev86.index.PlayerNameDictionary;
 import com.redcatdev86.model.CareerSave;
 import com.redcatdev86.model.Injury;
 import com.redcatdev86.storage.AppPaths;
-import com.redcatdev86.storage.JsonDataStore;
+import com.redcatdev86.storage.BackgroundSaver;
+import com.redcatdev86.storage.CareerSaveRepository;
+import com.redcatdev86.storage.Compression;
+import com.redcatdev86.storage.DataLibrary;
+import com.redcatdev86.storage.FormatDetectingDataStore;
+import com.redcatdev86.storage.InjuryPageFile;
+import com.redcatdev86.storage.InjuryExporter;
+import com.redcatdev86.storage.JournaledStore;
+import com.redcatdev86.storage.Mutation;
 import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.beans.binding.BooleanBinding;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.SortedList;
+import javafx.concurrent.Task;
+import javafx.css.PseudoClass;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.geometry.Side;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.control.cell.TextFieldTableCell;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.*;
+import javafx.stage.DirectoryChooser;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import javafx.stage.Window;
 import javafx.util.Duration;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
 
 public class MainView {
 
     // ----------------------------
     // Data (in-memory)
     // ----------------------------
+    // The repository owns the saves and every edit; saves mirrors it for the combo box
+    private final CareerSaveRepository repository = new CareerSaveRepository(PlayerNameDictionary.shared());
     private final ObservableList<CareerSave> saves = FXCollections.observableArrayList();
-    private final ObservableList<Injury> injuriesView = FXCollections.observableArrayList();
+
+    // Table pipeline for the selected save: live list -> filter -> sort
+    private InjuryListView liveInjuries = new InjuryListView(List.of());
+    private FilteredInjuryList filteredInjuries;
+    private SortedList<Injury> sortedInjuries;
+    // Positions passing the filter, null if nothing is filtered
+    private int[] tableMatches;
+
+    private final InjuryFilter injuryFilter = new InjuryFilter();
+
+    // Rows of the quick filters' "All saves" scope while it is shown
+    private AllSavesRows allSavesRows;
+    private final BooleanProperty allSavesShown = new SimpleBooleanProperty(false);
+
+    // Also the source for playerField suggestions
+    private final PlayerNameDictionary playerNames = PlayerNameDictionary.shared();
+    private static final int MAX_SUGGESTIONS = 8;
 
     // ----------------------------
     // Persistence
     // ----------------------------
-    private final JsonDataStore dataStore = new JsonDataStore();
     private Path currentFile = AppPaths.defaultDataFile();
+    private JournaledStore store = openStore(currentFile);
+
+    // Set while a directory is open instead of one file
+    private DataLibrary library;
+    private final BooleanProperty libraryOpen = new SimpleBooleanProperty(false);
+
+    // Loads run off the FX thread
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "fc-loader");
+        t.setDaemon(true);
+        return t;
+    });
+    private final BooleanProperty loading = new SimpleBooleanProperty(false);
+    private Task<LoadResult> loadTask;
+
+    private record LoadResult(List<CareerSave> saves, Map<CareerSave, CareerSaveRepository.LoadedInjuries> read) {
+        static LoadResult of(List<CareerSave> saves) {
+            return new LoadResult(saves, CareerSaveRepository.prepareLoaded(saves));
+        }
+    }
+
+    // Reads of saves not in memory yet
+    private final BooleanProperty reading = new SimpleBooleanProperty(false);
+    private Task<?> readTask;
+
+    private record SaveRead(InjuryPageFile pages, CareerSaveRepository.LoadedInjuries injuries) {}
+
+    // The selected save shown from its page file instead of memory
+    private final PagedSaveView paged = new PagedSaveView(loader, this::showItems, this::showError);
+
+    private final AllSavesQuery allSaves = new AllSavesQuery(repository, loader, this::storeFor);
 
-    // Debounced autosave
+    // Recovery dates still ahead, across all saves
+    private static final int MAX_RECOVERED_LISTED = 5;
+    private static final PseudoClass RECOVERED = PseudoClass.getPseudoClass("recovered");
+    private final RecoveryScheduler recoveries = new RecoveryScheduler(repository, loader, s -> storeFor(s.getName()), this::onRecovered);
+
+    // Edits are journaled right away; compaction waits for a quiet moment
     private final PauseTransition saveDebounce = new PauseTransition(Duration.millis(500));
+    private final BackgroundSaver saver = new BackgroundSaver(Platform::runLater);
+    private final BackgroundSaver.Listener saveListener = new BackgroundSaver.Listener() {
+        @Override
+        public void onSaved(long generation) {
+            // Newer edits are still waiting for their own write
+            if (generation != editGeneration) return;
+            setDirty(false);
+            statusLabel.setText("Saved");
+        }
+
+        @Override
+        public void onFailed(long generation, IOException error) {
+            // keep dirty true if save fails
+            Metrics.shared().counter("autosave.failures").increment();
+            setDirty(true);
+            alert("Failed to save data:\n" + error.getMessage());
+            statusLabel.setText("Save failed");
+        }
+    };
 
     // Dirty flag
     private boolean dirty = false;
 
+    // Bumped on every edit
+    private long editGeneration = 0;
+
+    // CSV imports and exports
+    private final InjuryJobs jobs = new InjuryJobs(repository, this::setStatus, this::showError, () -> {
+        // The imported rows are not journaled: snapshot them
+        if (dirty) saveNow();
+    });
+
+    // Changes other processes make to the data files
+    private final ExternalChanges externalChanges = new ExternalChanges(repository, loader, MainView::openStore,
+            () -> loading.get() || reading.get() || jobs.importingProperty().get() || !saver.isIdle(),
+            this::setStatus, this::externalChangesMerged);
+
     // Stage (for title)
     private Stage stage;
 
@@ -57,19 +180,35 @@ public class MainView {
     private final TableView<Injury> injuriesTable = new TableView<>();
 
     private final TextField playerField = new TextField();
+    private final ContextMenu playerSuggestions = new ContextMenu();
     private final DatePicker recoveryPicker = new DatePicker();
     private final Button addInjuryBtn = new Button("Add");
     private final Button deleteInjuryBtn = new Button("Delete");
     private final Button newSaveBtn = new Button("+ New save");
     private final Button deleteSaveBtn = new Button("Delete save");
 
+    private final Button importCsvBtn = new Button("Import CSV...");
+    private final ProgressBar jobProgress = new ProgressBar();
+    private final Button cancelJobBtn = new Button("Cancel");
+
     private final Button loadBtn = new Button("Load...");
+    private final Button openLibraryBtn = new Button("Open library...");
     private final Button saveAsBtn = new Button("Save as...");
+    private final Button exportBtn = new Button("Export...");
 
     // Nice-to-have UI
     private final TextField searchField = new TextField();
+    private final ToggleGroup quickFilters = new ToggleGroup();
+    private final ToggleButton returningSoonBtn = new ToggleButton("Back within 7 days");
+    private final ToggleButton recoveredBtn = new ToggleButton("Recovered");
+    private final CheckBox allSavesBox = new CheckBox("All saves");
+    private final TableColumn<Injury, String> saveCol = new TableColumn<>("Save");
     private final Label statusLabel = new Label();
 
+    // Timings and autosave sizes, toggled with Ctrl+Shift+D
+    private static final KeyCombination DIAGNOSTICS_KEY = new KeyCodeCombination(KeyCode.D, KeyCombination.SHORTCUT_DOWN, KeyCombination.SHIFT_DOWN);
+    private final DiagnosticsPanel diagnostics = new DiagnosticsPanel();
+
     // ----------------------------
     // Public API
     // ----------------------------
@@ -77,7 +216,6 @@ public class MainView {
         this.stage = stage;
 
         configureDebouncedSave();
-        loadFromCurrentFileOrEmpty();
 
         buildTopBar();
         buildTable();
@@ -85,48 +223,73 @@ public class MainView {
         Parent root = layout();
         wireEvents();
 
-        // Ensure UI selection consistent
-        if (!saves.isEmpty() && savesCombo.getSelectionModel().getSelectedItem() == null) {
-            savesCombo.getSelectionModel().selectFirst();
-        }
-        loadSelectedSaveInjuries();
-
-        // Title initial
         setDirty(false);
-        updateTitle();
-        updateStatus();
+        loadCurrentFileAsync();
 
         return root;
     }
 
+    /**
+     * Waits for queued writes to finish. Call when the app exits.
+     */
+    public void shutdown() {
+        externalChanges.stop();
+        recoveries.stop();
+        saveDebounce.stop();
+        if (jobs.cancelImport() && dirty) {
+            saveNow();
+        }
+        loader.shutdown();
+        jobs.shutdown();
+        saver.close();
+    }
+
     // ----------------------------
     // Debounced save config
     // ----------------------------
     private void configureDebouncedSave() {
-        saveDebounce.setOnFinished(e -> saveNow());
+        saveDebounce.setOnFinished(e -> compactIfNeeded());
     }
 
-    private void markDirtyAndScheduleSave() {
+    private void markDirtyAndScheduleSave(Mutation mutation) {
+        editGeneration++;
         setDirty(true);
+        saver.append(storeFor(mutation.getSaveName()), mutation, editGeneration, saveListener);
         saveDebounce.playFromStart();
         updateStatus();
     }
 
+    private void compactIfNeeded() {
+        if (stores().stream().anyMatch(JournaledStore::needsCompaction)) {
+            saveNow();
+        }
+    }
+
+    // Rewrites the dirty shards
     private void saveNow() {
-        try {
-            dataStore.save(currentFile, saves);
-            setDirty(false);
-            statusLabel.setText("Saved");
-        } catch (IOException e) {
-            // keep dirty true if save fails
-            setDirty(true);
-            alert("Failed to save data:\n" + e.getMessage());
-            statusLabel.setText("Save failed");
-        } finally {
-            updateTitle();
+        statusLabel.setText("Saving…");
+        if (library == null) {
+            saver.snapshot(store, store.prepareSnapshot(repository.getSaves(), repository.snapshot(), false), editGeneration, saveListener);
+            return;
+        }
+        // Writes run in order, so only the last one may clear the dirty flag
+        List<JournaledStore> all = stores();
+        for (int i = 0; i < all.size(); i++) {
+            JournaledStore s = all.get(i);
+            long generation = i == all.size() - 1 ? editGeneration : editGeneration - 1;
+            saver.snapshot(s, s.prepareSnapshot(library.savesOf(s, repository.getSaves()), repository.snapshot(), false), generation, saveListener);
         }
     }
 
+    // Store the save called saveName is written to
+    private JournaledStore storeFor(String saveName) {
+        return library == null ? store : library.storeFor(saveName);
+    }
+
+    private List<JournaledStore> stores() {
+        return library == null ? List.of(store) : library.stores();
+    }
+
     private void setDirty(boolean value) {
         this.dirty = value;
         updateTitle();
@@ -135,7 +298,8 @@ public class MainView {
     private void updateTitle() {
         if (stage == null) return;
 
-        String filePart = currentFile == null ? "" : " — " + currentFile.toAbsolutePath();
+        Path shown = library != null ? library.getDirectory() : currentFile;
+        String filePart = shown == null ? "" : " — " + shown.toAbsolutePath();
         String dirtyPart = dirty ? " *" : "";
 
         stage.setTitle(BASE_TITLE + dirtyPart + filePart);
@@ -152,10 +316,13 @@ public class MainView {
         }
 
         searchField.setPromptText("Search player…");
+
+        returningSoonBtn.setToggleGroup(quickFilters);
+        recoveredBtn.setToggleGroup(quickFilters);
+        allSavesBox.disableProperty().bind(quickFilters.selectedToggleProperty().isNull());
     }
 
     private void buildTable() {
-        injuriesTable.setEditable(true);
         injuriesTable.setPlaceholder(new Label("No injuries for this career save."));
 
         TableColumn<Injury, String> playerCol = new TableColumn<>("Player");
@@ -163,12 +330,12 @@ public class MainView {
         playerCol.setEditable(true);
 
         playerCol.setCellFactory(TextFieldTableCell.forTableColumn());
+        playerCol.setUserData(InjuryPageFile.Order.BY_PLAYER);
         playerCol.setOnEditCommit(e -> {
-            Injury injury = e.getRowValue();
+            CareerSave save = savesCombo.getSelectionModel().getSelectedItem();
+            int index = sourceIndex(e.getTablePosition().getRow());
             String newVal = e.getNewValue() == null ? "" : e.getNewValue().trim();
-            injury.setPlayerName(newVal);
-            injuriesTable.refresh();
-            markDirtyAndScheduleSave();
+            editRow(save, index, id -> repository.setPlayerName(save, id, newVal));
         });
 
         TableColumn<Injury, LocalDate> dateCol = new TableColumn<>("Recovery date");
@@ -176,17 +343,36 @@ public class MainView {
         dateCol.setEditable(true);
 
         // DatePicker in cell (separate class: com.redcatdev86.ui.DatePickerTableCell)
-        dateCol.setCellFactory(col -> new DatePickerTableCell());
+        dateCol.setCellFactory(DatePickerTableCell.forTableColumn());
+        dateCol.setUserData(InjuryPageFile.Order.BY_DATE);
         dateCol.setOnEditCommit(e -> {
-            Injury injury = e.getRowValue();
-            injury.setRecoveryDate(e.getNewValue());
-            injuriesTable.refresh();
-            markDirtyAndScheduleSave();
+            CareerSave save = savesCombo.getSelectionModel().getSelectedItem();
+            int index = sourceIndex(e.getTablePosition().getRow());
+            editRow(save, index, id -> repository.setRecoveryDate(save, id, e.getNewValue()));
         });
 
-        injuriesTable.getColumns().setAll(playerCol, dateCol);
-        injuriesTable.setItems(injuriesView);
+        // Only shown in the quick filters' "All saves" scope
+        saveCol.setCellValueFactory(c -> new ReadOnlyStringWrapper(
+                allSavesRows == null ? null : allSavesRows.saveNameOf(c.getValue())));
+        saveCol.setVisible(false);
+
+        injuriesTable.getColumns().setAll(List.of(saveCol, playerCol, dateCol));
+        // The default policy would reorder the save itself
+        injuriesTable.setSortPolicy(t -> {
+            updateTableItems();
+            return true;
+        });
+        injuriesTable.setItems(liveInjuries);
         injuriesTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        // Rows of players available again
+        injuriesTable.setRowFactory(t -> new TableRow<>() {
+            @Override
+            protected void updateItem(Injury item, boolean empty) {
+                super.updateItem(item, empty);
+                LocalDate date = empty || item == null ? null : item.getRecoveryDate();
+                pseudoClassStateChanged(RECOVERED, date != null && !date.isAfter(LocalDate.now()));
+            }
+        });
     }
 
     private Parent layout() {
@@ -206,7 +392,9 @@ public class MainView {
                 newSaveBtn,
                 deleteSaveBtn,
                 loadBtn,
-                saveAsBtn
+                openLibraryBtn,
+                saveAsBtn,
+                exportBtn
         );
         topRight.setAlignment(Pos.CENTER_RIGHT);
 
@@ -220,7 +408,7 @@ public class MainView {
         searchRow.setAlignment(Pos.CENTER_LEFT);
 
         Label searchLabel = new Label("Filter:");
-        searchRow.getChildren().addAll(searchLabel, searchField);
+        searchRow.getChildren().addAll(searchLabel, searchField, returningSoonBtn, recoveredBtn, allSavesBox);
         HBox.setHgrow(searchField, Priority.ALWAYS);
 
         VBox.setVgrow(injuriesTable, Priority.ALWAYS);
@@ -237,7 +425,8 @@ public class MainView {
                 playerField,
                 recoveryPicker,
                 addInjuryBtn,
-                deleteInjuryBtn
+                deleteInjuryBtn,
+                importCsvBtn
         );
         bottom.setAlignment(Pos.CENTER_LEFT);
         bottom.getStyleClass().add("fc-bottombar");
@@ -251,7 +440,15 @@ public class MainView {
         fileHint.setOpacity(0.75);
         fileHint.setText(currentFile == null ? "" : currentFile.toAbsolutePath().toString());
 
-        HBox footer = new HBox(10, fileHint, spacer2, statusLabel);
+        // Import or export progress, only shown while one runs
+        jobProgress.setPrefWidth(160);
+        for (Control c : List.of(jobProgress, cancelJobBtn)) {
+            c.visibleProperty().bind(jobs.importingProperty().or(jobs.exportingProperty()));
+            c.managedProperty().bind(jobs.importingProperty().or(jobs.exportingProperty()));
+        }
+        jobProgress.progressProperty().bind(jobs.progressProperty());
+
+        HBox footer = new HBox(10, fileHint, spacer2, statusLabel, jobProgress, cancelJobBtn);
         footer.setPadding(new Insets(0, 12, 10, 12));
         footer.setAlignment(Pos.CENTER_LEFT);
 
@@ -264,7 +461,15 @@ public class MainView {
 
         root.setTop(top);
         root.setCenter(center);
+        root.setRight(diagnostics);
         root.setBottom(new VBox(10, bottom, footer));
+        BorderPane.setMargin(diagnostics, new Insets(0, 0, 12, 12));
+        root.addEventFilter(KeyEvent.KEY_PRESSED, e -> {
+            if (DIAGNOSTICS_KEY.match(e)) {
+                diagnostics.toggle();
+                e.consume();
+            }
+        });
 
         top.setPadding(new Insets(12));
         bottom.setPadding(new Insets(12));
@@ -273,9 +478,11 @@ public class MainView {
     }
 
     private void wireEvents() {
+        repository.addListener(this::onRepositoryChange);
+
         savesCombo.setOnAction(e -> {
-            loadSelectedSaveInjuries();
             updateStatus();
+            loadSelectedSaveInjuries();
         });
 
         addInjuryBtn.setOnAction(e -> addInjury());
@@ -284,46 +491,402 @@ public class MainView {
         newSaveBtn.setOnAction(e -> createNewSave());
         deleteSaveBtn.setOnAction(e -> deleteSelectedSave());
 
-        // UX: disable if no save selected
-        deleteSaveBtn.disableProperty().bind(savesCombo.getSelectionModel().selectedItemProperty().isNull());
+        importCsvBtn.setOnAction(e -> chooseAndImportCsv(getWindow(importCsvBtn)));
+        exportBtn.setOnAction(e -> chooseAndExport(getWindow(exportBtn)));
+        cancelJobBtn.setOnAction(e -> jobs.cancel());
+
+        // UX: disable if no save selected, and everything that touches saves while busy
+        BooleanBinding busy = loading.or(reading).or(jobs.importingProperty());
+        deleteSaveBtn.disableProperty().bind(savesCombo.getSelectionModel().selectedItemProperty().isNull().or(busy));
+        injuriesTable.disableProperty().bind(loading.or(reading));
+        injuriesTable.editableProperty().bind(jobs.importingProperty().not().and(allSavesShown.not()));
+        for (Control c : List.of(savesCombo, newSaveBtn, addInjuryBtn, deleteInjuryBtn, importCsvBtn, loadBtn, openLibraryBtn)) {
+            c.disableProperty().bind(busy);
+        }
+        // A library has no single file to save under another name
+        saveAsBtn.disableProperty().bind(busy.or(libraryOpen));
+        exportBtn.disableProperty().bind(busy.or(jobs.exportingProperty()));
 
         loadBtn.setOnAction(e -> chooseAndLoad(getWindow(loadBtn)));
+        openLibraryBtn.setOnAction(e -> chooseAndOpenLibrary(getWindow(openLibraryBtn)));
         saveAsBtn.setOnAction(e -> chooseAndSaveAs(getWindow(saveAsBtn)));
 
+        playerField.textProperty().addListener((obs, oldV, newV) -> showPlayerSuggestions());
+        playerField.focusedProperty().addListener((obs, oldV, focused) -> {
+            if (!focused) playerSuggestions.hide();
+        });
+
         searchField.textProperty().addListener((obs, oldV, newV) -> applyFilter());
+        quickFilters.selectedToggleProperty().addListener((obs, oldV, newV) -> applyFilter());
+        allSavesBox.selectedProperty().addListener((obs, oldV, newV) -> applyFilter());
     }
 
     // ----------------------------
     // Actions
     // ----------------------------
     private void loadSelectedSaveInjuries() {
+        paged.close();
+        readTask = null;
+        reading.set(false);
         CareerSave selected = savesCombo.getSelectionModel().getSelectedItem();
-        injuriesView.clear();
+        if (selected != null && !selected.isLoaded()) {
+            showInjuries(new InjuryListView(List.of()));
+            readSaveAsync(selected, true, null);
+            return;
+        }
+
+        SaveSelectEvent event = new SaveSelectEvent();
+        event.start();
         if (selected != null) {
-            injuriesView.addAll(selected.getInjuries());
+            event.save = selected.getName();
+            unloaded(storeFor(selected.getName()).attach(selected, selected.getInjuries()));
         }
+        showInjuries(new InjuryListView(selected == null ? List.of() : selected.getInjuries()));
         applyFilter();
+        event.rows = liveInjuries.size();
+        event.finish();
+    }
+
+    // Reads save on the loader thread, or only opens its page file if paged, then runs then
+    private void readSaveAsync(CareerSave save, boolean paged, Runnable then) {
+        SaveSelectEvent event = new SaveSelectEvent();
+        event.start();
+        event.save = save.getName();
+        event.fromDisk = true;
+
+        JournaledStore source = storeFor(save.getName());
+        Task<SaveRead> task = new Task<>() {
+            @Override
+            protected SaveRead call() throws IOException {
+                InjuryPageFile pages = paged ? source.openPages(save) : null;
+                return new SaveRead(pages, pages == null ? CareerSaveRepository.prepare(source.readInjuries(save)) : null);
+            }
+        };
+        task.setOnSucceeded(e -> finishRead(task, save, source, task.getValue(), null, then, event));
+        task.setOnFailed(e -> finishRead(task, save, source, null, task.getException(), then, event));
+
+        readTask = task;
+        reading.set(true);
+        statusLabel.setText("Loading injuries of " + save.getName() + "…");
+        loader.execute(task);
+    }
+
+    private void finishRead(Task<SaveRead> task, CareerSave save, JournaledStore source, SaveRead read,
+                            Throwable error, Runnable then, SaveSelectEvent event) {
+        if (task != readTask) {
+            // Another save was selected meanwhile
+            if (read != null && read.pages() != null) PagedSaveView.closeQuietly(read.pages());
+            return;
+        }
+        readTask = null;
+        reading.set(false);
+        updateStatus();
+        if (error != null) {
+            showError("Failed to load injuries:\n" + error.getMessage());
+            if (!paged.isOpen()) savesCombo.getSelectionModel().clearSelection();
+            return;
+        }
+
+        paged.close();
+        if (read.pages() != null) {
+            paged.open(read.pages());
+            showInjuries(new InjuryListView(List.of()));
+        } else {
+            attach(source, save, read.injuries());
+            showInjuries(new InjuryListView(save.getInjuries()));
+        }
+        applyFilter();
+        event.rows = paged.isOpen() ? paged.getFile().size() : liveInjuries.size();
+        event.finish();
+        if (then != null) then.run();
+    }
+
+    private void attach(JournaledStore source, CareerSave save, CareerSaveRepository.LoadedInjuries read) {
+        unloaded(source.attach(save, read.injuries()));
+        repository.loaded(save, read);
+    }
+
+    private void unloaded(List<CareerSave> evicted) {
+        repository.unloaded(evicted);
+        evicted.forEach(allSaves::drop);
+    }
+
+    // Runs then once the selected save is in memory
+    private void leavePagedMode(Runnable then) {
+        if (!paged.isOpen()) {
+            then.run();
+            return;
+        }
+        readSaveAsync(savesCombo.getSelectionModel().getSelectedItem(), false, then);
+    }
+
+    // Position in the save of table row viewIndex; -1 if none
+    private int sourceIndex(int viewIndex) {
+        if (viewIndex < 0 || allSavesRows != null) return -1;
+        if (paged.isOpen()) {
+            return paged.rowIdAt(viewIndex);
+        }
+        int index = viewIndex;
+        if (sortedInjuries != null) index = sortedInjuries.getSourceIndex(index);
+        if (filteredInjuries != null) index = filteredInjuries.getSourceIndex(index);
+        return index;
+    }
+
+    // Runs edit with the id of the save's row at index
+    private void editRow(CareerSave save, int index, IntConsumer edit) {
+        if (index >= 0) {
+            leavePagedMode(() -> edit.accept(repository.injuryIdAt(save, index)));
+        }
+    }
+
+    private void showPlayerSuggestions() {
+        String text = playerField.getText() == null ? "" : playerField.getText().trim();
+        List<String> names = text.isEmpty() ? List.of() : playerNames.suggest(text, MAX_SUGGESTIONS, repository::references);
+        if (names.isEmpty() || !playerField.isFocused() || (names.size() == 1 && names.get(0).equals(text))) {
+            playerSuggestions.hide();
+            return;
+        }
+
+        List<MenuItem> items = new ArrayList<>(names.size());
+        for (String name : names) {
+            MenuItem item = new MenuItem(name);
+            item.setOnAction(e -> {
+                playerField.setText(name);
+                playerField.positionCaret(name.length());
+                playerSuggestions.hide();
+            });
+            items.add(item);
+        }
+        playerSuggestions.getItems().setAll(items);
+        if (!playerSuggestions.isShowing()) {
+            playerSuggestions.show(playerField, Side.BOTTOM, 0, 0);
+        }
+    }
+
+    private void showInjuries(InjuryListView live) {
+        dropPipeline();
+        liveInjuries = live;
+        tableMatches = null;
+        injuriesTable.setItems(liveInjuries);
     }
 
     private void applyFilter() {
+        FilterEvent event = new FilterEvent();
+        event.start();
+        if (allSavesBox.isSelected() && quickFilterRange() != null) {
+            showAllSaves(event);
+            return;
+        }
+        leaveAllSaves();
+        if (paged.isOpen()) {
+            updatePagedView(event);
+            return;
+        }
         CareerSave selected = savesCombo.getSelectionModel().getSelectedItem();
-        if (selected == null) {
-            injuriesView.clear();
+        if (selected == null || !selected.isLoaded()) {
+            injuryFilter.setSource(null, null);
+        } else {
+            injuryFilter.setSource(selected.getInjuries(), repository.injuryIds(selected));
+        }
+
+        DateRange range = quickFilterRange();
+        tableMatches = injuryFilter.apply(searchField.getText(),
+                range == null ? null : range.from(), range == null ? null : range.to());
+        if (filteredInjuries != null && tableMatches != null) {
+            filteredInjuries.setPositions(tableMatches);
+        }
+        updateTableItems();
+        event.rows = liveInjuries.size();
+        event.matches = injuriesTable.getItems().size();
+        event.finish();
+    }
+
+    private void updateTableItems() {
+        if (allSavesRows != null) {
+            showSorted(allSavesRows);
             return;
         }
+        if (paged.isOpen()) {
+            updatePagedView(null);
+            return;
+        }
+        ObservableList<Injury> items = liveInjuries;
+        if (tableMatches == null) {
+            filteredInjuries = null;
+        } else {
+            if (filteredInjuries == null) {
+                filteredInjuries = new FilteredInjuryList(liveInjuries, injuryFilter::matches, tableMatches);
+            }
+            items = filteredInjuries;
+        }
+        showSorted(items);
+    }
+
+    // Shows items, through a SortedList while a sort order is active
+    private void showSorted(ObservableList<Injury> items) {
+        if (injuriesTable.getSortOrder().isEmpty()) {
+            dropSort();
+        } else {
+            if (sortedInjuries == null || sortedInjuries.getSource() != items) {
+                dropSort();
+                sortedInjuries = new SortedList<>(items);
+                sortedInjuries.comparatorProperty().bind(injuriesTable.comparatorProperty());
+            }
+            items = sortedInjuries;
+        }
+        showItems(items);
+    }
+
+    private void showItems(ObservableList<Injury> items) {
+        if (injuriesTable.getItems() != items) {
+            injuriesTable.setItems(items);
+        }
+    }
+
+    // ----------------------------
+    // "All saves" scope
+    // ----------------------------
+
+    // Shows the quick filter's matches in every save, read-only
+    private void showAllSaves(FilterEvent event) {
+        DateRange range = quickFilterRange();
+        AllSavesRows rows = allSaves.rows(range.from(), range.to(), searchField.getText(), error -> {
+            if (error != null) {
+                allSavesBox.setSelected(false);
+                showError("Failed to read injuries:\n" + error.getMessage());
+            } else if (allSavesBox.isSelected() && range.equals(quickFilterRange())) {
+                showAllSaves(event);
+            }
+        });
+        if (rows == null) return;
+
+        allSavesRows = rows;
+        allSavesShown.set(true);
+        saveCol.setVisible(true);
+        showSorted(allSavesRows);
+        if (event != null) {
+            event.rows = repository.getSaves().stream().mapToInt(CareerSave::getInjuryCount).sum();
+            event.matches = rows.size();
+            event.finish();
+        }
+    }
+
+    private void refreshAllSaves() {
+        if (allSavesRows != null) showAllSaves(null);
+    }
+
+    private void leaveAllSaves() {
+        allSaves.cancel();
+        if (allSavesRows == null) return;
+        allSavesRows = null;
+        allSavesShown.set(false);
+        saveCol.setVisible(false);
+        injuriesTable.getSortOrder().remove(saveCol);
+        dropSort();
+        injuriesTable.setItems(paged.getView() != null ? paged.getView() : liveInjuries);
+    }
+
+    // Sorts by the first sort column only
+    private void updatePagedView(FilterEvent event) {
+        InjuryPageFile.Order order = InjuryPageFile.Order.FILE;
+        boolean descending = false;
+        if (!injuriesTable.getSortOrder().isEmpty()) {
+            TableColumn<Injury, ?> column = injuriesTable.getSortOrder().get(0);
+            order = (InjuryPageFile.Order) column.getUserData();
+            descending = column.getSortType() == TableColumn.SortType.DESCENDING;
+        }
+        DateRange range = quickFilterRange();
+        paged.update(order, descending, searchField.getText(),
+                range == null ? null : range.from(), range == null ? null : range.to(), event);
+    }
+
+    private void dropPipeline() {
+        dropSort();
+        filteredInjuries = null;
+    }
+
+    private void dropSort() {
+        if (sortedInjuries != null) {
+            sortedInjuries.comparatorProperty().unbind();
+        }
+        sortedInjuries = null;
+    }
+
+    private DateRange quickFilterRange() {
+        LocalDate today = LocalDate.now();
+        Toggle selected = quickFilters.getSelectedToggle();
+        if (selected == returningSoonBtn) return new DateRange(today.plusDays(1), today.plusDays(7));
+        if (selected == recoveredBtn) return new DateRange(LocalDate.MIN, today);
+        return null;
+    }
+
+    private record DateRange(LocalDate from, LocalDate to) {}
+
+    private void updateIndexes(CareerSave save, int rowId, boolean removed) {
+        if (save.isLoaded() && injuryFilter.isSource(save.getInjuries())) {
+            injuryFilter.update(rowId, removed);
+        }
+        allSaves.update(save, rowId, removed);
+    }
 
-        String q = searchField.getText() == null ? "" : searchField.getText().trim().toLowerCase();
-        injuriesView.clear();
+    private void onRepositoryChange(CareerSaveRepository.Change change) {
+        if (change.isReset()) {
+            saves.setAll(repository.getSaves());
+            allSaves.clear();
+            if (allSavesRows != null) applyFilter();
+            return;
+        }
 
-        if (q.isEmpty()) {
-            injuriesView.addAll(selected.getInjuries());
+        CareerSave save = change.save();
+        boolean shown = save.isLoaded() && liveInjuries.isViewOf(save.getInjuries());
+        if (change.kind() == CareerSaveRepository.Kind.BULK_ADD) {
+            int from = change.injuryIndex();
+            int to = from + change.count();
+            for (int i = from; i < to; i++) {
+                updateIndexes(save, repository.injuryIdAt(save, i), false);
+            }
+            if (shown) liveInjuries.fireAdded(from, to);
+            if (shown && filteredInjuries != null) filteredInjuries.rowsAdded(from, to);
+            // Not journaled: the import ends with a snapshot
+            storeFor(save.getName()).markDirty(save.getName());
+            editGeneration++;
+            setDirty(true);
+            updateStatus();
+            refreshAllSaves();
             return;
         }
 
-        for (Injury i : selected.getInjuries()) {
-            String pn = i.getPlayerName() == null ? "" : i.getPlayerName().toLowerCase();
-            if (pn.contains(q)) injuriesView.add(i);
+        switch (change.type()) {
+            case CREATE_SAVE -> saves.add(change.saveIndex(), save);
+            case DELETE_SAVE -> {
+                saves.remove(change.saveIndex());
+                allSaves.drop(save);
+            }
+            case ADD_INJURY -> {
+                updateIndexes(save, change.rowId(), false);
+                if (shown) liveInjuries.fireAdded(change.injuryIndex());
+                if (shown && filteredInjuries != null) filteredInjuries.rowsAdded(change.injuryIndex(), change.injuryIndex() + 1);
+            }
+            case DELETE_INJURY -> {
+                updateIndexes(save, change.rowId(), true);
+                if (shown) liveInjuries.fireRemoved(change.injuryIndex(), change.injury());
+                if (shown && filteredInjuries != null) filteredInjuries.rowRemoved(change.injuryIndex(), change.injury());
+            }
+            case REMOVE_INJURY -> {
+                updateIndexes(save, change.rowId(), true);
+                if (shown) liveInjuries.fireSwapRemoved(change.injuryIndex(), change.injury());
+                if (shown && filteredInjuries != null) filteredInjuries.rowSwapRemoved(change.injuryIndex(), change.injury());
+            }
+            case EDIT_PLAYER_NAME, EDIT_RECOVERY_DATE -> {
+                updateIndexes(save, change.rowId(), false);
+                if (shown) liveInjuries.fireReplaced(change.injuryIndex(), change.injury());
+                if (shown && filteredInjuries != null) filteredInjuries.rowChanged(change.injuryIndex(), change.injury());
+            }
         }
+        refreshAllSaves();
+        // External edits are already on disk
+        if (change.kind() == CareerSaveRepository.Kind.EXTERNAL) return;
+        markDirtyAndScheduleSave(change.mutation());
     }
 
     private void addInjury() {
@@ -344,16 +907,12 @@ public class MainView {
             alert("Recovery date is required.");
             return;
         }
+        leavePagedMode(() -> {
+            repository.addInjury(selected, player, date);
 
-        Injury injury = new Injury(player, date);
-        selected.getInjuries().add(injury);
-
-        applyFilter();
-
-        playerField.clear();
-        recoveryPicker.setValue(null);
-
-        markDirtyAndScheduleSave();
+            playerField.clear();
+            recoveryPicker.setValue(null);
+        });
     }
 
     private void deleteSelectedInjury() {
@@ -364,11 +923,12 @@ public class MainView {
             alert("Select an injury to delete.");
             return;
         }
-
-        selectedSave.getInjuries().remove(selectedInjury);
-        applyFilter();
-
-        markDirtyAndScheduleSave();
+        if (allSavesRows != null) {
+            alert("Clear \"All saves\" to edit injuries.");
+            return;
+        }
+        int index = sourceIndex(injuriesTable.getSelectionModel().getSelectedIndex());
+        editRow(selectedSave, index, id -> repository.deleteInjury(selectedSave, id));
     }
 
     private void createNewSave() {
@@ -378,27 +938,33 @@ public class MainView {
         dialog.setContentText("Name:");
 
         dialog.showAndWait().ifPresent(nameRaw -> {
-            String name = nameRaw.trim();
-            if (name.isEmpty()) {
-                alert("Name cannot be empty.");
+            CareerSave save;
+            try {
+                save = repository.createSave(libraryName(nameRaw));
+            } catch (IllegalArgumentException e) {
+                alert(e.getMessage());
                 return;
             }
 
-            boolean exists = saves.stream().anyMatch(s -> s.getName() != null && s.getName().equalsIgnoreCase(name));
-            if (exists) {
-                alert("A save with the same name already exists.");
-                return;
-            }
-
-            CareerSave save = new CareerSave(name);
-            saves.add(save);
             savesCombo.getSelectionModel().select(save);
             loadSelectedSaveInjuries();
-
-            markDirtyAndScheduleSave();
         });
     }
 
+    // In a library a new save goes to the selected save's file
+    private String libraryName(String name) {
+        if (library == null || name == null || name.isBlank()) return name;
+        CareerSave selected = savesCombo.getSelectionModel().getSelectedItem();
+        JournaledStore target = selected != null ? library.storeFor(selected.getName()) : null;
+        if (target == null) {
+            if (library.stores().isEmpty()) {
+                throw new IllegalArgumentException("The library has no data files to add the save to.");
+            }
+            target = library.stores().get(0);
+        }
+        return target.tagged(name.trim());
+    }
+
     private void deleteSelectedSave() {
         CareerSave selected = savesCombo.getSelectionModel().getSelectedItem();
         if (selected == null) {
@@ -420,19 +986,17 @@ public class MainView {
             return;
         }
 
-        int index = saves.indexOf(selected);
-        saves.remove(selected);
+        int index = repository.indexOf(selected);
+        repository.deleteSave(selected);
 
         if (saves.isEmpty()) {
             savesCombo.getSelectionModel().clearSelection();
-            injuriesView.clear();
+            loadSelectedSaveInjuries();
         } else {
             int newIndex = Math.min(index, saves.size() - 1);
             savesCombo.getSelectionModel().select(newIndex);
             loadSelectedSaveInjuries();
         }
-
-        markDirtyAndScheduleSave();
     }
 
     // ----------------------------
@@ -441,43 +1005,177 @@ public class MainView {
     private void chooseAndLoad(Window owner) {
         FileChooser fc = new FileChooser();
         fc.setTitle("Load data");
-        fc.getExtensionFilters().add(new FileChooser.ExtensionFilter("JSON files", "*.json"));
+        fc.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("All data files", "*.json", "*.fcb", "*.gz", "*.zz"),
+                new FileChooser.ExtensionFilter("JSON files", "*.json"),
+                new FileChooser.ExtensionFilter("Binary data files", "*.fcb"),
+                new FileChooser.ExtensionFilter("Compressed data files", "*.json.gz", "*.fcb.gz", "*.json.zz", "*.fcb.zz"));
         fc.setInitialFileName("fc-issuer-manager.json");
 
         var file = fc.showOpenDialog(owner);
         if (file == null) return;
 
-        saveDebounce.stop();
-
         currentFile = file.toPath();
-        loadFromCurrentFileOrEmpty();
+        loadCurrentFileAsync();
+    }
 
-        if (!saves.isEmpty()) {
-            savesCombo.getSelectionModel().selectFirst();
-        } else {
-            savesCombo.getSelectionModel().clearSelection();
+    private void chooseAndOpenLibrary(Window owner) {
+        DirectoryChooser dc = new DirectoryChooser();
+        dc.setTitle("Open library");
+        if (currentFile != null && currentFile.toAbsolutePath().getParent() != null) {
+            dc.setInitialDirectory(currentFile.toAbsolutePath().getParent().toFile());
         }
 
-        loadSelectedSaveInjuries();
+        var dir = dc.showDialog(owner);
+        if (dir == null) return;
 
-        setDirty(false);
-        updateTitle();
-        updateStatus();
+        loadLibraryAsync(dir.toPath());
+    }
+
+    private void chooseAndImportCsv(Window owner) {
+        CareerSave target = savesCombo.getSelectionModel().getSelectedItem();
+        if (target == null) {
+            alert("Select a career save first.");
+            return;
+        }
+
+        FileChooser fc = new FileChooser();
+        fc.setTitle("Import injuries from CSV");
+        fc.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV files", "*.csv"));
+        var file = fc.showOpenDialog(owner);
+        if (file == null) return;
+
+        leavePagedMode(() -> jobs.importCsv(target, file.toPath(), file.length()));
+    }
+
+    // Exports the rows the search and quick filter show
+    private void chooseAndExport(Window owner) {
+        CareerSave selected = savesCombo.getSelectionModel().getSelectedItem();
+        if (saves.isEmpty()) {
+            alert("There is nothing to export.");
+            return;
+        }
+
+        List<CareerSave> scope = List.copyOf(saves);
+        if (selected != null && saves.size() > 1) {
+            String one = "Selected save (" + selected.getName() + ")";
+            ChoiceDialog<String> choice = new ChoiceDialog<>(one, one, "All saves");
+            choice.setTitle("Export");
+            choice.setHeaderText(null);
+            choice.setContentText("Export:");
+            Optional<String> picked = choice.showAndWait();
+            if (picked.isEmpty()) return;
+            if (picked.get().equals(one)) scope = List.of(selected);
+        }
+
+        FileChooser fc = new FileChooser();
+        fc.setTitle("Export injuries");
+        FileChooser.ExtensionFilter csv = new FileChooser.ExtensionFilter("CSV files", "*.csv");
+        FileChooser.ExtensionFilter ndjson = new FileChooser.ExtensionFilter("NDJSON files", "*.ndjson", "*.jsonl");
+        fc.getExtensionFilters().addAll(csv, ndjson);
+        fc.setInitialFileName((scope.size() == 1 ? scope.get(0).getName() : "injuries") + ".csv");
+
+        var file = fc.showSaveDialog(owner);
+        if (file == null) return;
+
+        Path path = file.toPath();
+        InjuryExporter.Format format = fc.getSelectedExtensionFilter() == ndjson && !path.toString().toLowerCase().endsWith(".csv")
+                ? InjuryExporter.Format.NDJSON
+                : InjuryExporter.Format.forFile(path);
+
+        DateRange range = quickFilterRange();
+        InjuryExporter exporter = new InjuryExporter(format, new InjuryExporter.Filter(searchField.getText(),
+                range == null ? null : range.from(), range == null ? null : range.to()));
+        List<CareerSave> copies = store.prepareRead(scope, repository.snapshot());
+        DataLibrary sourceLibrary = library;
+        JournaledStore sourceStore = store;
+        InjuryExporter.InjurySource source = save ->
+                (sourceLibrary == null ? sourceStore : sourceLibrary.storeFor(save.getName())).readInjuries(save);
+
+        jobs.export(exporter, copies, source, path);
     }
 
     private void chooseAndSaveAs(Window owner) {
         FileChooser fc = new FileChooser();
         fc.setTitle("Save data as");
-        fc.getExtensionFilters().add(new FileChooser.ExtensionFilter("JSON files", "*.json"));
+        fc.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("JSON files", "*.json"),
+                new FileChooser.ExtensionFilter("Binary data files", "*.fcb"),
+                new FileChooser.ExtensionFilter("Compressed JSON files", "*.json.gz"),
+                new FileChooser.ExtensionFilter("Compressed binary data files", "*.fcb.gz"));
         fc.setInitialFileName("fc-issuer-manager.json");
 
         var file = fc.showSaveDialog(owner);
         if (file == null) return;
 
-        currentFile = file.toPath();
+        Path target = file.toPath();
+        boolean compressedFilter = fc.getSelectedExtensionFilter() != null
+                && fc.getSelectedExtensionFilter().getExtensions().get(0).endsWith(".gz");
+        if (compressedFilter && Compression.forFileName(target) == Compression.NONE) {
+            target = target.resolveSibling(Compression.GZIP.appendTo(target.getFileName().toString()));
+        }
+
+        // The new location needs every save, including the ones not opened yet
+        List<CareerSave> unloaded = repository.getSaves().stream().filter(s -> !s.isLoaded()).toList();
+        JournaledStore source = store;
+        Task<List<CareerSaveRepository.LoadedInjuries>> task = new Task<>() {
+            @Override
+            protected List<CareerSaveRepository.LoadedInjuries> call() throws IOException {
+                List<CareerSaveRepository.LoadedInjuries> read = new ArrayList<>(unloaded.size());
+                for (CareerSave save : unloaded) {
+                    updateMessage("Loading injuries of " + save.getName() + "…");
+                    read.add(CareerSaveRepository.prepare(source.readInjuries(save)));
+                }
+                return read;
+            }
+        };
+        task.messageProperty().addListener((obs, oldV, msg) -> {
+            if (task == readTask) statusLabel.setText(msg);
+        });
+        Path chosen = target;
+        task.setOnSucceeded(e -> finishSaveAs(task, chosen, unloaded, task.getValue(), null));
+        task.setOnFailed(e -> finishSaveAs(task, chosen, unloaded, null, task.getException()));
+
+        readTask = task;
+        reading.set(true);
+        loader.execute(task);
+    }
+
+    private void finishSaveAs(Task<?> task, Path target, List<CareerSave> unloaded,
+                              List<CareerSaveRepository.LoadedInjuries> read, Throwable error) {
+        if (task != readTask) return;
+        readTask = null;
+        reading.set(false);
+        if (error != null) {
+            statusLabel.setText("Save failed");
+            showError("Failed to save data:\n" + error.getMessage());
+            return;
+        }
+        for (int i = 0; i < unloaded.size(); i++) {
+            CareerSave save = unloaded.get(i);
+            if (save.isLoaded()) continue;
+            save.setInjuries(read.get(i).injuries());
+            repository.loaded(save, read.get(i));
+        }
+        // The selected save is in memory now too
+        if (paged.isOpen()) loadSelectedSaveInjuries();
+
+        currentFile = target;
+        store = openStore(currentFile);
+        store.adopt(repository.getSaves());
 
         saveDebounce.stop();
-        saveNow();
+        statusLabel.setText("Saving…");
+        JournaledStore.Snapshot full = store.prepareSnapshot(repository.getSaves(), repository.snapshot(), true);
+        saver.export(store, full, editGeneration, saveListener);
+        saver.snapshot(store, full, editGeneration, saveListener);
+
+        try {
+            Files.createDirectories(store.getShardDirectory());
+            watchStore();
+        } catch (IOException e) {
+            externalChanges.stop();
+        }
 
         updateTitle();
         updateStatus();
@@ -486,25 +1184,156 @@ public class MainView {
     // ----------------------------
     // Persistence helpers
     // ----------------------------
-    private void loadFromCurrentFileOrEmpty() {
-        try {
-            saves.setAll(dataStore.load(currentFile));
-        } catch (IOException e) {
-            alert("Failed to load data:\n" + e.getMessage());
-            saves.clear();
-        }
+    private void loadCurrentFileAsync() {
+        saveDebounce.stop();
+        externalChanges.stop();
+
+        JournaledStore target = openStore(currentFile);
+        store = target;
+        library = null;
+        libraryOpen.set(false);
+        clearForLoad();
+
+        String fileName = currentFile.getFileName().toString();
+        Task<LoadResult> task = new Task<>() {
+            @Override
+            protected LoadResult call() throws IOException {
+                updateMessage("Loading " + fileName + "…");
+                return LoadResult.of(target.load());
+            }
+        };
+        task.messageProperty().addListener((obs, oldV, msg) -> {
+            if (task == loadTask) statusLabel.setText(msg);
+        });
+        task.setOnSucceeded(e -> finishLoad(task, task.getValue(), null));
+        task.setOnFailed(e -> finishLoad(task, new LoadResult(List.of(), Map.of()), task.getException()));
+
+        loadTask = task;
+        loading.set(true);
+        statusLabel.setText("Loading " + fileName + "…");
+        loader.execute(task);
+    }
+
+    private void loadLibraryAsync(Path dir) {
+        saveDebounce.stop();
+        externalChanges.stop();
+
+        DataLibrary target = new DataLibrary(dir);
+        library = target;
+        libraryOpen.set(true);
+        clearForLoad();
+
+        String dirName = String.valueOf(dir.getFileName());
+        Task<LoadResult> task = new Task<>() {
+            @Override
+            protected LoadResult call() throws IOException {
+                updateMessage("Loading library " + dirName + "…");
+                return LoadResult.of(target.load());
+            }
+        };
+        task.messageProperty().addListener((obs, oldV, msg) -> {
+            if (task == loadTask) statusLabel.setText(msg);
+        });
+        task.setOnSucceeded(e -> finishLoad(task, task.getValue(), null));
+        task.setOnFailed(e -> finishLoad(task, new LoadResult(List.of(), Map.of()), task.getException()));
 
+        loadTask = task;
+        loading.set(true);
+        statusLabel.setText("Loading library " + dirName + "…");
+        loader.execute(task);
+    }
+
+    private void clearForLoad() {
+        repository.replaceAll(List.of());
+        savesCombo.getSelectionModel().clearSelection();
+        loadSelectedSaveInjuries();
+
+        editGeneration++;
         dirty = false;
         updateTitle();
     }
 
+    private void finishLoad(Task<LoadResult> task, LoadResult loaded, Throwable error) {
+        if (task != loadTask) return;
+        loadTask = null;
+        loading.set(false);
+
+        repository.replaceAll(loaded.saves(), loaded.read());
+        if (!saves.isEmpty()) {
+            savesCombo.getSelectionModel().selectFirst();
+        }
+        loadSelectedSaveInjuries();
+        updateStatus();
+
+        if (error != null) {
+            statusLabel.setText("Load failed");
+            showError("Failed to load data:\n" + error.getMessage());
+        } else {
+            watchStore();
+            warnIfSingleFileChanged();
+        }
+    }
+
+    private void warnIfSingleFileChanged() {
+        List<String> changed = stores().stream()
+                .filter(JournaledStore::isSingleFileChanged)
+                .map(s -> s.getFile().getFileName() + " (data in " + s.getShardDirectory().getFileName() + ")")
+                .toList();
+        if (changed.isEmpty()) return;
+        showError("These files were changed after their saves moved to a data folder, so the changes were not loaded:\n"
+                + String.join("\n", changed));
+    }
+
+    // ----------------------------
+    // External changes
+    // ----------------------------
+    // A library's files are not watched
+    private void watchStore() {
+        if (library == null) externalChanges.watch(store);
+    }
+
+    private void externalChangesMerged(ExternalChanges.Merged merge) {
+        if (merge.store() == null) {
+            updateStatus();
+            return;
+        }
+        store = merge.store();
+
+        // Saves that were not loaded changed without row events
+        List<CareerSave> changed = new ArrayList<>();
+        for (String name : merge.applied()) {
+            CareerSave save = repository.findByName(name);
+            if (save != null) changed.add(save);
+        }
+        recoveries.refresh(changed);
+
+        CareerSave selected = savesCombo.getSelectionModel().getSelectedItem();
+        if (selected == null || (paged.isOpen() && merge.applied().contains(selected.getName()))) {
+            loadSelectedSaveInjuries();
+        }
+        if (!merge.kept().isEmpty()) {
+            saveNow();
+        } else {
+            updateStatus();
+        }
+        int count = merge.applied().size();
+        if (count > 0) {
+            statusLabel.setText("Merged changes made on disk to " + count + (count == 1 ? " save" : " saves"));
+        }
+    }
+
+    // JSON or binary, by the file's header or extension
+    private static JournaledStore openStore(Path file) {
+        return new JournaledStore(FormatDetectingDataStore.forFile(file), file);
+    }
+
     // ----------------------------
     // Status helpers
     // ----------------------------
     private void updateStatus() {
         CareerSave selected = savesCombo.getSelectionModel().getSelectedItem();
         int saveCount = saves.size();
-        int injCount = selected == null ? 0 : selected.getInjuries().size();
+        int injCount = selected == null ? 0 : selected.getInjuryCount();
         statusLabel.setText((dirty ? "Unsaved changes" : "OK") + " • Saves: " + saveCount + " • Injuries: " + injCount);
         statusLabel.setOpacity(0.85);
     }
@@ -517,6 +1346,44 @@ public class MainView {
         return scene == null ? null : scene.getWindow();
     }
 
+    // Some recovery dates just passed
+    private void onRecovered(List<RecoveryScheduler.Due> due) {
+        injuriesTable.refresh();
+        if (quickFilters.getSelectedToggle() != null) {
+            applyFilter();
+        }
+
+        String names = due.stream()
+                .limit(MAX_RECOVERED_LISTED)
+                .map(d -> d.injury().getPlayerName() + (d.save() == null ? "" : " (" + d.save().getName() + ")"))
+                .collect(Collectors.joining(", "));
+        String text = (due.size() == 1 ? "Available again: " : due.size() + " players available again: ")
+                + names + (due.size() > MAX_RECOVERED_LISTED ? ", …" : "");
+        statusLabel.setText(text);
+
+        if (stage == null || !stage.isShowing()) return;
+        Alert a = new Alert(Alert.AlertType.INFORMATION);
+        a.setTitle("Injuries");
+        a.setHeaderText(null);
+        a.setContentText(text);
+        a.initOwner(stage);
+        a.show();
+    }
+
+    private void setStatus(String text) {
+        statusLabel.setText(text);
+    }
+
+    // Like alert, but does not wait
+    private void showError(String msg) {
+        Alert a = new Alert(Alert.AlertType.ERROR);
+        a.setTitle("Error");
+        a.setHeaderText(null);
+        a.setContentText(msg);
+        a.initOwner(stage);
+        a.show();
+    }
+
     private void alert(String msg) {
         Alert a = new Alert(Alert.AlertType.INFORMATION);
         a.setTitle("Info");
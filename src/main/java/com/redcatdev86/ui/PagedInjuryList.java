@@ -0,0 +1,230 @@
+package com.redcatdev86.ui;
+
+import com.redcatdev86.diagnostics.LatencyHistogram;
+import com.redcatdev86.diagnostics.Metrics;
+import com.redcatdev86.model.Injury;
+import com.redcatdev86.model.InjuryColumns;
+import com.redcatdev86.storage.InjuryPageFile;
+import com.redcatdev86.storage.InjuryPageFile.Order;
+import javafx.collections.ObservableListBase;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Read-only table rows of a save that stays on disk, read from its {@link InjuryPageFile}
+ * a page at a time as the table asks for them.
+ * <p>
+ * One list is one view: an order of the page file, ascending or descending, and the rows
+ * passing a filter. Its size comes from the page file (or the filter's result), never from
+ * counting rows. A date range in date order is a slice found by binary search; other
+ * filters scan the file once and keep only the matching positions. At most
+ * {@value #MAX_CACHED_PAGES} pages of {@value #PAGE_SIZE} rows are held, so memory does
+ * not grow with the save. The rows are detached copies; edits go through the loaded save.
+ */
+class PagedInjuryList extends ObservableListBase<Injury> {
+
+    static final int PAGE_SIZE = 128;
+    private static final int PREFETCH_PAGES = 1;
+    private static final int MAX_CACHED_PAGES = 32;
+
+    private static final LatencyHistogram PAGE_READS = Metrics.shared().latency("table.page");
+
+    private record Page(Injury[] rows, int[] rowIds) {}
+
+    private final InjuryPageFile file;
+    private final Order order;
+    private final boolean descending;
+
+    // The view is positions [from, to) of the order, or the positions in matches
+    private final int from;
+    private final int to;
+    private final int[] matches;
+
+    // Kept to narrow the next filter when the query grows
+    private final String query;
+    private final int fromDay;
+    private final int toDay;
+
+    private final Map<Integer, Page> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Page> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+
+    private PagedInjuryList(InjuryPageFile file, Order order, boolean descending, int from, int to, int[] matches,
+                            String query, int fromDay, int toDay) {
+        this.file = file;
+        this.order = order;
+        this.descending = descending;
+        this.from = from;
+        this.to = to;
+        this.matches = matches;
+        this.query = query;
+        this.fromDay = fromDay;
+        this.toDay = toDay;
+    }
+
+    /**
+     * View of {@code file} in {@code order}, keeping the rows whose player name contains
+     * {@code query} (ignoring case) and whose recovery date is in {@code [from, to]}; null
+     * parts do not filter. {@code previous}, if it is a view of the same file, lets a
+     * longer query search only the rows that matched the shorter one. A filter may read the
+     * whole file, so views are built off the FX thread.
+     */
+    static PagedInjuryList of(InjuryPageFile file, Order order, boolean descending,
+                              String query, LocalDate from, LocalDate to, PagedInjuryList previous) throws IOException {
+        String q = query == null || query.isBlank() ? null : query.trim().toLowerCase(Locale.ROOT);
+        boolean dated = from != null && to != null;
+        // NO_DATE is below every real day, so rows without a date never fall in a range
+        int fromDay = dated ? clampDay(from) : InjuryColumns.NO_DATE;
+        int toDay = dated ? clampDay(to) : Integer.MAX_VALUE;
+
+        int lo = 0;
+        int hi = file.size();
+        if (dated && order == Order.BY_DATE) {
+            lo = file.firstOnOrAfter(Math.max(fromDay, InjuryColumns.NO_DATE + 1));
+            hi = toDay == Integer.MAX_VALUE ? hi : file.firstOnOrAfter(toDay + 1);
+            hi = Math.max(lo, hi);
+        }
+        if (q == null && (!dated || order == Order.BY_DATE)) {
+            return new PagedInjuryList(file, order, descending, lo, hi, null, null, fromDay, toDay);
+        }
+
+        BitSet names = q == null ? null : file.namesContaining(q);
+        if (names != null && names.isEmpty()) {
+            return new PagedInjuryList(file, order, descending, 0, 0, new int[0], q, fromDay, toDay);
+        }
+        int dayFrom = dated ? Math.max(fromDay, InjuryColumns.NO_DATE + 1) : InjuryColumns.NO_DATE;
+        Matches found = new Matches();
+        InjuryPageFile.RecordVisitor keep = (position, row, nameId, day) -> {
+            if ((names == null || (nameId >= 0 && names.get(nameId))) && day >= dayFrom && day <= toDay) {
+                found.add(position);
+            }
+        };
+
+        // A longer query only matches a subset of what the shorter one did
+        if (previous != null && previous.canNarrow(file, order, q, fromDay, toDay)) {
+            file.scan(order, previous.matches, keep);
+        } else {
+            file.scan(order, lo, hi, keep);
+        }
+        return new PagedInjuryList(file, order, descending, 0, found.size, found.toArray(), q, fromDay, toDay);
+    }
+
+    private boolean canNarrow(InjuryPageFile file, Order order, String q, int fromDay, int toDay) {
+        return this.file == file && this.order == order && matches != null
+                && query != null && q != null && q.contains(query)
+                && this.fromDay == fromDay && this.toDay == toDay;
+    }
+
+    private static int clampDay(LocalDate date) {
+        long day = date.toEpochDay();
+        return (int) Math.max(InjuryColumns.NO_DATE + 1, Math.min(Integer.MAX_VALUE - 1, day));
+    }
+
+    InjuryPageFile getFile() {
+        return file;
+    }
+
+    // ----------------------------
+    // List
+    // ----------------------------
+    @Override
+    public int size() {
+        return matches != null ? matches.length : to - from;
+    }
+
+    @Override
+    public Injury get(int index) {
+        return page(index).rows[index % PAGE_SIZE];
+    }
+
+    /**
+     * Index in the save of the row shown at {@code index}.
+     */
+    int rowIdAt(int index) {
+        return page(index).rowIds[index % PAGE_SIZE];
+    }
+
+    private Page page(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        int p = index / PAGE_SIZE;
+        Page page = pages.get(p);
+        if (page == null) {
+            load(p);
+            page = pages.get(p);
+        }
+        return page;
+    }
+
+    // Reads page p and the missing pages around it in one go
+    private void load(int p) {
+        long start = System.nanoTime();
+        int lastPage = (size() - 1) / PAGE_SIZE;
+        int first = p;
+        int last = p;
+        while (first > 0 && p - first < PREFETCH_PAGES && !pages.containsKey(first - 1)) first--;
+        while (last < lastPage && last - p < PREFETCH_PAGES && !pages.containsKey(last + 1)) last++;
+
+        int viewFrom = first * PAGE_SIZE;
+        int viewTo = Math.min(size(), (last + 1) * PAGE_SIZE);
+        int n = viewTo - viewFrom;
+
+        // Positions come out ascending from the view in ascending order; descending views map back
+        int kFrom = descending ? size() - viewTo : viewFrom;
+        int[] positions = new int[n];
+        for (int k = 0; k < n; k++) {
+            positions[k] = matches != null ? matches[kFrom + k] : from + kFrom + k;
+        }
+        int[] rowIds = new int[n];
+        int[] nameIds = new int[n];
+        int[] days = new int[n];
+        try {
+            file.read(order, positions, n, rowIds, nameIds, days);
+        } catch (IOException e) {
+            // Rows that cannot be read show up empty; reading the save again will tell why
+            Metrics.shared().counter("table.page.failures").increment();
+            Arrays.fill(nameIds, -1);
+            Arrays.fill(days, InjuryColumns.NO_DATE);
+            Arrays.fill(rowIds, -1);
+        }
+
+        for (int q = first; q <= last; q++) {
+            int qFrom = q * PAGE_SIZE;
+            int qSize = Math.min(PAGE_SIZE, size() - qFrom);
+            Injury[] rows = new Injury[qSize];
+            int[] ids = new int[qSize];
+            for (int i = 0; i < qSize; i++) {
+                int k = descending ? viewTo - 1 - (qFrom + i) : qFrom + i - viewFrom;
+                rows[i] = new Injury(file.playerName(nameIds[k]), InjuryColumns.toDate(days[k]));
+                ids[i] = rowIds[k];
+            }
+            pages.putIfAbsent(q, new Page(rows, ids));
+        }
+        PAGE_READS.record(System.nanoTime() - start);
+    }
+
+    // Growable int array of matching positions
+    private static final class Matches {
+        int[] values = new int[256];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.redcatdev86.ui;
+
+import com.redcatdev86.diagnostics.FilterEvent;
+import com.redcatdev86.model.Injury;
+import com.redcatdev86.storage.InjuryPageFile;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * The selected save shown from its page file instead of memory. Views that scan the file are
+ * built on the loader thread; the table keeps the last one meanwhile. Only runs on the FX thread.
+ */
+class PagedSaveView {
+
+    private final Executor loader;
+    private final Consumer<ObservableList<Injury>> show;
+    private final Consumer<String> error;
+
+    private InjuryPageFile file;
+    private PagedInjuryList view;
+    private Task<PagedInjuryList> task;
+
+    PagedSaveView(Executor loader, Consumer<ObservableList<Injury>> show, Consumer<String> error) {
+        this.loader = loader;
+        this.show = show;
+        this.error = error;
+    }
+
+    boolean isOpen() {
+        return file != null;
+    }
+
+    InjuryPageFile getFile() {
+        return file;
+    }
+
+    // Last view shown, null until the first one is built
+    PagedInjuryList getView() {
+        return view;
+    }
+
+    // Row of the save shown at viewIndex; -1 if none
+    int rowIdAt(int viewIndex) {
+        return view == null ? -1 : view.rowIdAt(viewIndex);
+    }
+
+    void open(InjuryPageFile pages) {
+        close();
+        file = pages;
+    }
+
+    void close() {
+        if (file == null) return;
+        closeQuietly(file);
+        file = null;
+        view = null;
+        dropTask();
+    }
+
+    /**
+     * Sorts and filters in the page file: by one column, ties in file order. {@code event},
+     * if any, is finished once the view is shown.
+     */
+    void update(InjuryPageFile.Order order, boolean descending, String query, LocalDate from, LocalDate to,
+                FilterEvent event) {
+        InjuryPageFile pages = file;
+        PagedInjuryList previous = view;
+        Task<PagedInjuryList> next = new Task<>() {
+            @Override
+            protected PagedInjuryList call() throws IOException {
+                return PagedInjuryList.of(pages, order, descending, query, from, to, previous);
+            }
+        };
+        next.setOnSucceeded(e -> finish(next, next.getValue(), null, event));
+        next.setOnFailed(e -> finish(next, null, next.getException(), event));
+
+        // A view still queued for an older query is never built
+        dropTask();
+        task = next;
+        loader.execute(next);
+    }
+
+    private void finish(Task<PagedInjuryList> done, PagedInjuryList built, Throwable failure, FilterEvent event) {
+        if (done != task) return;
+        task = null;
+        if (failure != null) {
+            view = null;
+            show.accept(FXCollections.emptyObservableList());
+            error.accept("Failed to read injuries:\n" + failure.getMessage());
+            return;
+        }
+        view = built;
+        show.accept(built);
+        if (event != null) {
+            event.rows = built.getFile().size();
+            event.matches = built.size();
+            event.finish();
+        }
+    }
+
+    private void dropTask() {
+        // Not interrupted: that would close the page file's channel under the table
+        if (task != null) task.cancel(false);
+        task = null;
+    }
+
+    static void closeQuietly(InjuryPageFile pages) {
+        try {
+            pages.close();
+        } catch (IOException e) {
+            // Read-only; nothing to lose
+        }
+    }
+}
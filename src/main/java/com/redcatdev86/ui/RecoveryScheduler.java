@@ -0,0 +1,291 @@
+package com.redcatdev86.ui;
+
+import com.redcatdev86.index.RecoveryHeap;
+import com.redcatdev86.model.CareerSave;
+import com.redcatdev86.model.Injury;
+import com.redcatdev86.model.InjuryColumns;
+import com.redcatdev86.storage.CareerSaveRepository;
+import com.redcatdev86.storage.InjuryPageFile;
+import com.redcatdev86.storage.JournaledStore;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.util.Duration;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Tells when injured players are available again. Each save is one token in a
+ * {@link RecoveryHeap}, due on the first day one of its recoveries can be; a timer sleeps
+ * until the earliest and the save's dates are then scanned for who is back. Follows the
+ * repository's changes itself. Only runs on the FX thread.
+ */
+class RecoveryScheduler {
+
+    record Due(CareerSave save, Injury injury) {}
+
+    // Re-checks at least this often, so a clock change or a suspended machine is caught up
+    private static final Duration MAX_SLEEP = Duration.hours(1);
+
+    // A save: injuries dated from..due may come due on due
+    private static final class Token {
+        final CareerSave save;
+        int from;
+        LocalDate due;
+        // Set while the save is read; later edits only lower due
+        boolean reading;
+
+        Token(CareerSave save, int from, LocalDate due) {
+            this.save = save;
+            this.from = from;
+            this.due = due;
+        }
+    }
+
+    // Injuries that came due (detached copies) and the next pending day
+    private record Scan(List<Injury> due, LocalDate next) {}
+
+    private final CareerSaveRepository repository;
+    private final Executor loader;
+    private final Function<CareerSave, JournaledStore> storeOf;
+    private final Consumer<List<Due>> onDue;
+
+    private final RecoveryHeap<Token> tokens = new RecoveryHeap<>(t -> t.due);
+    private final Map<CareerSave, Token> tokenOf = new IdentityHashMap<>();
+
+    private final PauseTransition timer = new PauseTransition();
+
+    // Bumped by reset, so reads started for older saves are dropped
+    private long generation;
+
+    RecoveryScheduler(CareerSaveRepository repository, Executor loader,
+                      Function<CareerSave, JournaledStore> storeOf, Consumer<List<Due>> onDue) {
+        this.repository = repository;
+        this.loader = loader;
+        this.storeOf = storeOf;
+        this.onDue = onDue;
+        timer.setOnFinished(e -> fireDue());
+        repository.addListener(this::onChange);
+    }
+
+    void stop() {
+        generation++;
+        timer.stop();
+    }
+
+    // ----------------------------
+    // Tracking
+    // ----------------------------
+    // Starts over with saves
+    private void reset(List<CareerSave> saves) {
+        generation++;
+        tokens.clear();
+        tokenOf.clear();
+        for (CareerSave save : saves) {
+            track(save);
+        }
+        reschedule();
+    }
+
+    /**
+     * Tracks {@code saves} again, e.g. after their files changed without a change event.
+     */
+    void refresh(List<CareerSave> saves) {
+        for (CareerSave save : saves) {
+            drop(save);
+            track(save);
+        }
+        reschedule();
+    }
+
+    private void track(CareerSave save) {
+        LocalDate due;
+        if (save.isLoaded()) {
+            due = scan(save.getInjuries(), today() + 1, today()).next();
+        } else {
+            JournaledStore store = storeOf.apply(save);
+            due = store == null ? null : store.nextRecovery(save, LocalDate.now());
+        }
+        if (due != null) addToken(save, due);
+    }
+
+    private void onChange(CareerSaveRepository.Change change) {
+        if (change.isReset()) {
+            reset(repository.getSaves());
+            return;
+        }
+        CareerSave save = change.save();
+
+        if (change.kind() == CareerSaveRepository.Kind.BULK_ADD) {
+            List<Injury> injuries = save.getInjuries();
+            int today = today();
+            int earliest = Integer.MAX_VALUE;
+            for (int i = change.injuryIndex(); i < change.injuryIndex() + change.count(); i++) {
+                int day = InjuryColumns.epochDayAt(injuries, i);
+                if (day > today) earliest = Math.min(earliest, day);
+            }
+            if (earliest != Integer.MAX_VALUE) lowerToken(save, LocalDate.ofEpochDay(earliest));
+        } else {
+            switch (change.type()) {
+                // An added save may come with injuries when it was made by someone else
+                case CREATE_SAVE -> refresh(List.of(save));
+                case DELETE_SAVE -> drop(save);
+                case ADD_INJURY, EDIT_RECOVERY_DATE -> {
+                    LocalDate date = change.injury().getRecoveryDate();
+                    if (date != null && date.isAfter(LocalDate.now())) lowerToken(save, date);
+                }
+                case DELETE_INJURY, REMOVE_INJURY, EDIT_PLAYER_NAME -> {
+                    // A token may come due for nothing; it then just finds no one. Names are
+                    // read when the injury comes due
+                }
+            }
+        }
+        reschedule();
+    }
+
+    private void addToken(CareerSave save, LocalDate due) {
+        Token token = new Token(save, today() + 1, due);
+        tokenOf.put(save, token);
+        tokens.add(token);
+    }
+
+    // An injury of save is now pending on date
+    private void lowerToken(CareerSave save, LocalDate date) {
+        Token token = tokenOf.get(save);
+        if (token == null) {
+            addToken(save, date);
+        } else if (token.due == null || date.isBefore(token.due)) {
+            token.due = date;
+            if (!token.reading) tokens.update(token);
+        }
+    }
+
+    private void drop(CareerSave save) {
+        Token token = tokenOf.remove(save);
+        if (token != null) tokens.remove(token);
+    }
+
+    // ----------------------------
+    // Timer
+    // ----------------------------
+    private void reschedule() {
+        timer.stop();
+        LocalDate next = tokens.earliest();
+        if (next == null) return;
+        long millis = next.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli() - System.currentTimeMillis();
+        timer.setDuration(Duration.millis(Math.max(0, Math.min(millis, MAX_SLEEP.toMillis()))));
+        timer.playFromStart();
+    }
+
+    private void fireDue() {
+        LocalDate now = LocalDate.now();
+        List<Due> due = new ArrayList<>();
+        for (Token token : tokens.pollOnOrBefore(now)) {
+            if (token.save.isLoaded()) {
+                token.due = null;
+                advance(token, scan(token.save.getInjuries(), token.from, today()), due);
+            } else {
+                readAsync(token);
+            }
+        }
+        reschedule();
+        if (!due.isEmpty()) onDue.accept(due);
+    }
+
+    // Hands over what a pass found and files the polled token under the save's next day, or
+    // under an earlier one edits set meanwhile
+    private void advance(Token token, Scan scan, List<Due> due) {
+        scan.due().forEach(injury -> due.add(new Due(token.save, injury)));
+        token.from = today() + 1;
+        token.due = earliest(scan.next(), token.due);
+        if (token.due == null) {
+            tokenOf.remove(token.save);
+        } else {
+            tokens.add(token);
+        }
+    }
+
+    // Reads who is back and the next date of a token's save on the loader thread
+    private void readAsync(Token token) {
+        JournaledStore store = storeOf.apply(token.save);
+        if (store == null) {
+            tokenOf.remove(token.save);
+            return;
+        }
+        CareerSave stand = CareerSave.unloaded(token.save.getName(), token.save.getInjuryCount());
+        int from = token.from;
+        int today = today();
+        long gen = generation;
+        token.reading = true;
+        token.due = null;
+        loader.execute(() -> {
+            Scan read;
+            try {
+                read = readDue(store, stand, from, today);
+            } catch (IOException e) {
+                // Shown as a load error when the save is opened; tried again tomorrow
+                read = new Scan(List.of(), LocalDate.ofEpochDay(today + 1));
+            }
+            Scan result = read;
+            Platform.runLater(() -> finishRead(token, gen, result));
+        });
+    }
+
+    private void finishRead(Token token, long gen, Scan read) {
+        if (gen != generation || tokenOf.get(token.save) != token) return;
+        token.reading = false;
+        List<Due> due = new ArrayList<>();
+        // Opened meanwhile, maybe edited: its rows are the current ones
+        advance(token, token.save.isLoaded() ? scan(token.save.getInjuries(), token.from, today()) : read, due);
+        reschedule();
+        if (!due.isEmpty()) onDue.accept(due);
+    }
+
+    private static Scan readDue(JournaledStore store, CareerSave save, int from, int today) throws IOException {
+        try (InjuryPageFile pages = store.openPages(save)) {
+            if (pages != null) {
+                List<Injury> due = new ArrayList<>();
+                int end = pages.firstOnOrAfter(today + 1);
+                pages.scan(InjuryPageFile.Order.BY_DATE, pages.firstOnOrAfter(from), end,
+                        (position, row, nameId, day) -> due.add(new Injury(pages.playerName(nameId), InjuryColumns.toDate(day))));
+                int[] next = {InjuryColumns.NO_DATE};
+                pages.scan(InjuryPageFile.Order.BY_DATE, end, Math.min(end + 1, pages.size()), (position, row, nameId, day) -> next[0] = day);
+                return new Scan(due, InjuryColumns.toDate(next[0]));
+            }
+        }
+        return scan(store.readInjuries(save), from, today);
+    }
+
+    // Reads the columns only; the injuries dated from..today are returned as copies
+    private static Scan scan(List<Injury> injuries, int from, int today) {
+        List<Injury> due = new ArrayList<>();
+        int next = Integer.MAX_VALUE;
+        for (int i = 0; i < injuries.size(); i++) {
+            int day = InjuryColumns.epochDayAt(injuries, i);
+            if (day > today) {
+                next = Math.min(next, day);
+            } else if (day >= from) {
+                due.add(new Injury(InjuryColumns.playerNameAt(injuries, i), InjuryColumns.toDate(day)));
+            }
+        }
+        return new Scan(due, next == Integer.MAX_VALUE ? null : LocalDate.ofEpochDay(next));
+    }
+
+    private static LocalDate earliest(LocalDate a, LocalDate b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static int today() {
+        return Math.toIntExact(LocalDate.now().toEpochDay());
+    }
+}
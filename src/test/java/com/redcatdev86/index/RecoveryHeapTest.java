@@ -0,0 +1,143 @@
+package com.redcatdev86.index;
+
+import com.redcatdev86.model.Injury;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The heap behind the recovery scheduler: date order under incremental edits, and the
+ * poll-and-refile cycle the scheduler runs with one token per save.
+ */
+class RecoveryHeapTest {
+
+    private static final LocalDate BASE = LocalDate.of(2025, 1, 1);
+
+    @Test
+    void pollsInDateOrderAfterUpdatesAndRemovals() {
+        SplittableRandom random = new SplittableRandom(11);
+        RecoveryHeap<Injury> heap = new RecoveryHeap<>(Injury::getRecoveryDate);
+        List<Injury> filed = new ArrayList<>();
+
+        for (int i = 0; i < 2_000; i++) {
+            Injury injury = new Injury("Player " + i, BASE.plusDays(random.nextInt(365)));
+            heap.add(injury);
+            filed.add(injury);
+        }
+        for (int i = 0; i < 1_000; i++) {
+            Injury injury = filed.get(random.nextInt(filed.size()));
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    injury.setRecoveryDate(BASE.plusDays(random.nextInt(365)));
+                    heap.update(injury);
+                }
+                case 1 -> {
+                    assertTrue(heap.remove(injury));
+                    filed.remove(injury);
+                }
+                default -> {
+                    injury.setRecoveryDate(null);
+                    heap.update(injury);
+                    filed.remove(injury);
+                }
+            }
+        }
+
+        assertEquals(filed.size(), heap.size());
+        filed.sort(Comparator.comparing(Injury::getRecoveryDate));
+        assertEquals(filed.get(0).getRecoveryDate(), heap.earliest());
+
+        List<Injury> polled = heap.pollOnOrBefore(BASE.plusDays(400));
+        assertEquals(filed.size(), polled.size());
+        for (int i = 0; i < polled.size(); i++) {
+            assertEquals(filed.get(i).getRecoveryDate(), polled.get(i).getRecoveryDate());
+        }
+        assertNull(heap.earliest());
+    }
+
+    @Test
+    void polledTokensAreLoweredAndFiledAgain() {
+        SplittableRandom random = new SplittableRandom(5);
+        RecoveryHeap<Token> heap = new RecoveryHeap<>(t -> t.due);
+        List<Token> tokens = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Token token = new Token(BASE.plusDays(10 + random.nextInt(300)));
+            tokens.add(token);
+            heap.add(token);
+        }
+
+        LocalDate today = BASE;
+        for (int step = 0; step < 2_000; step++) {
+            Token token = tokens.get(random.nextInt(tokens.size()));
+            if (random.nextBoolean()) {
+                // An edit made a save due earlier
+                LocalDate lower = today.plusDays(1 + random.nextInt(30));
+                if (token.due == null || lower.isBefore(token.due)) {
+                    token.due = lower;
+                    heap.update(token);
+                }
+            } else {
+                // A day passes: due tokens come out and go back under their next date
+                today = today.plusDays(1);
+                for (Token due : heap.pollOnOrBefore(today)) {
+                    assertFalse(due.due.isAfter(today));
+                    due.due = random.nextInt(4) == 0 ? null : today.plusDays(1 + random.nextInt(60));
+                    heap.add(due);
+                }
+            }
+            assertEquals(tokens.stream().map(t -> t.due).filter(d -> d != null).min(Comparator.naturalOrder()).orElse(null),
+                    heap.earliest());
+        }
+    }
+
+    @Test
+    void pollStopsAtTheGivenDate() {
+        RecoveryHeap<Injury> heap = new RecoveryHeap<>(Injury::getRecoveryDate);
+        Injury early = new Injury("A", BASE);
+        Injury sameDay = new Injury("B", BASE.plusDays(1));
+        Injury late = new Injury("C", BASE.plusDays(2));
+        heap.add(late);
+        heap.add(sameDay);
+        heap.add(early);
+
+        assertEquals(List.of(early, sameDay), heap.pollOnOrBefore(BASE.plusDays(1)));
+        assertSame(late, heap.pollOnOrBefore(BASE.plusDays(2)).get(0));
+    }
+
+    @Test
+    void tracksElementsByIdentityAndSkipsMissingDates() {
+        RecoveryHeap<Injury> heap = new RecoveryHeap<>(Injury::getRecoveryDate);
+        Injury a = new Injury("A", BASE.plusDays(5));
+        Injury twin = new Injury("A", BASE.plusDays(5));
+        heap.add(a);
+        heap.add(a);
+        heap.add(new Injury("B", null));
+
+        assertEquals(1, heap.size());
+        assertFalse(heap.contains(twin));
+        assertFalse(heap.remove(twin));
+
+        a.setRecoveryDate(BASE);
+        heap.add(a);
+        assertEquals(1, heap.size());
+        assertEquals(BASE, heap.earliest());
+    }
+
+    private static final class Token {
+        LocalDate due;
+
+        Token(LocalDate due) {
+            this.due = due;
+        }
+    }
+}
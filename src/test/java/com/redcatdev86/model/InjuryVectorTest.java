@@ -0,0 +1,116 @@
+package com.redcatdev86.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Random edits on {@link InjuryVector} against an {@code ArrayList} doing the same, and the
+ * structure an edit shares with the version it was made from.
+ */
+class InjuryVectorTest {
+
+    private static final LocalDate BASE = LocalDate.of(2025, 1, 1);
+
+    @Test
+    void randomEditsMatchArrayList() {
+        SplittableRandom random = new SplittableRandom(7);
+        List<Injury> oracle = new ArrayList<>();
+        InjuryVector vector = InjuryVector.EMPTY;
+
+        for (int step = 0; step < 20_000; step++) {
+            int op = oracle.isEmpty() ? 0 : random.nextInt(4);
+            String name = random.nextInt(10) == 0 ? null : "Player " + random.nextInt(500);
+            LocalDate date = random.nextInt(10) == 0 ? null : BASE.plusDays(random.nextInt(-400, 400));
+            switch (op) {
+                case 0 -> {
+                    int index = random.nextInt(oracle.size() + 1);
+                    oracle.add(index, new Injury(name, date));
+                    vector = vector.inserted(index, name, date);
+                }
+                case 1 -> {
+                    oracle.add(new Injury(name, date));
+                    vector = vector.appended(name, date);
+                }
+                case 2 -> {
+                    int index = random.nextInt(oracle.size());
+                    oracle.remove(index);
+                    vector = vector.removed(index);
+                }
+                default -> {
+                    int index = random.nextInt(oracle.size());
+                    oracle.set(index, new Injury(name, date));
+                    vector = vector.with(index, name, date);
+                }
+            }
+            if (step % 500 == 0) assertSameRows(oracle, vector);
+        }
+        assertSameRows(oracle, vector);
+        assertSameRows(oracle, InjuryVector.of(oracle));
+    }
+
+    @Test
+    void editsLeaveEarlierVersionsUnchanged() {
+        List<Injury> rows = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            rows.add(new Injury("Player " + i, BASE.plusDays(i)));
+        }
+        InjuryVector before = InjuryVector.of(rows);
+
+        InjuryVector after = before.removed(10).inserted(500, "New", null).with(0, null, BASE);
+
+        assertSameRows(rows, before);
+        assertEquals(1_000, after.size());
+        assertEquals("New", after.playerNameAt(500));
+        assertEquals(InjuryColumns.NO_DATE, after.epochDayAt(500));
+        assertNull(after.get(0).getPlayerName());
+    }
+
+    @Test
+    void editsCopyOnlyThePathToOneChunk() {
+        List<Injury> rows = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            rows.add(new Injury("Player " + i, BASE.plusDays(i % 365)));
+        }
+        InjuryVector before = InjuryVector.of(rows);
+        // 1563 chunks: a balanced tree of height 11
+        int path = 11;
+
+        assertTrue(before.with(50_000, "Edited", null).nodesNotIn(before) <= path);
+        assertTrue(before.appended("New", BASE).nodesNotIn(before) <= path + 2);
+        // Rebalancing on the way up may copy a sibling per level
+        assertTrue(before.inserted(12_345, "New", BASE).nodesNotIn(before) <= 2 * path + 2);
+        assertTrue(before.removed(99_999).nodesNotIn(before) <= 2 * path + 2);
+        assertEquals(0, before.nodesNotIn(before));
+    }
+
+    @Test
+    void rejectsIndexesOutOfRange() {
+        InjuryVector vector = InjuryVector.EMPTY.appended("A", BASE);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> vector.removed(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> vector.with(-1, "B", BASE));
+        assertThrows(IndexOutOfBoundsException.class, () -> vector.inserted(2, "B", BASE));
+    }
+
+    private static void assertSameRows(List<Injury> expected, InjuryVector actual) {
+        assertEquals(expected.size(), actual.size());
+        int i = 0;
+        for (Injury row : actual) {
+            Injury want = expected.get(i);
+            assertEquals(want.getPlayerName(), row.getPlayerName(), "name at " + i);
+            assertEquals(want.getRecoveryDate(), row.getRecoveryDate(), "date at " + i);
+            assertEquals(want.getPlayerName(), actual.playerNameAt(i), "name column at " + i);
+            assertEquals(InjuryColumns.toEpochDay(want.getRecoveryDate()), actual.epochDayAt(i), "day column at " + i);
+            i++;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.redcatdev86.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.redcatdev86.model.CareerSave;
+import com.redcatdev86.model.Injury;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The change journal: records survive a reopen, a torn or corrupt tail is dropped, and a
+ * store replays its journal on load and folds it into a snapshot once it grows too long.
+ */
+class ChangeJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recoverDropsATruncatedLastRecord() throws IOException {
+        Path snapshot = snapshot();
+        ChangeJournal journal = new ChangeJournal(ChangeJournal.pathFor(snapshot));
+        journal.recover(ChangeJournal.Stamp.of(snapshot));
+        journal.append(Mutation.createSave("Career"));
+        journal.append(Mutation.addInjury("Career", "Player", LocalDate.of(2025, 3, 1)));
+        long intact = Files.size(journal.getFile());
+        journal.append(Mutation.editPlayerName("Career", 0, "Renamed"));
+
+        // A crash part way through the last append
+        try (FileChannel ch = FileChannel.open(journal.getFile(), StandardOpenOption.WRITE)) {
+            ch.truncate(Files.size(journal.getFile()) - 3);
+        }
+
+        ChangeJournal reopened = new ChangeJournal(journal.getFile());
+        List<Mutation> recovered = reopened.recover(ChangeJournal.Stamp.of(snapshot));
+
+        assertEquals(2, recovered.size());
+        assertEquals(Mutation.Type.CREATE_SAVE, recovered.get(0).getType());
+        assertEquals(Mutation.Type.ADD_INJURY, recovered.get(1).getType());
+        assertEquals("Player", recovered.get(1).getPlayerName());
+        assertEquals(LocalDate.of(2025, 3, 1), recovered.get(1).getRecoveryDate());
+        assertEquals(intact, Files.size(journal.getFile()));
+        assertEquals(intact, reopened.size());
+
+        // Appends resume after the last intact record
+        reopened.append(Mutation.editRecoveryDate("Career", 0, null));
+        List<Mutation> again = new ChangeJournal(journal.getFile()).recover(ChangeJournal.Stamp.of(snapshot));
+        assertEquals(3, again.size());
+        assertEquals(Mutation.Type.EDIT_RECOVERY_DATE, again.get(2).getType());
+        assertNull(again.get(2).getRecoveryDate());
+    }
+
+    @Test
+    void recoverStopsAtACorruptRecord() throws IOException {
+        Path snapshot = snapshot();
+        ChangeJournal journal = new ChangeJournal(ChangeJournal.pathFor(snapshot));
+        journal.recover(ChangeJournal.Stamp.of(snapshot));
+        journal.append(Mutation.createSave("Career"));
+        long intact = Files.size(journal.getFile());
+        journal.append(Mutation.addInjury("Career", "Player", null));
+
+        byte[] bytes = Files.readAllBytes(journal.getFile());
+        bytes[bytes.length - 1] ^= 0x55;
+        Files.write(journal.getFile(), bytes);
+
+        List<Mutation> recovered = new ChangeJournal(journal.getFile()).recover(ChangeJournal.Stamp.of(snapshot));
+
+        assertEquals(1, recovered.size());
+        assertEquals(intact, Files.size(journal.getFile()));
+    }
+
+    @Test
+    void journalOfAnotherSnapshotIsIgnored() throws IOException {
+        Path snapshot = snapshot();
+        ChangeJournal journal = new ChangeJournal(ChangeJournal.pathFor(snapshot));
+        journal.recover(ChangeJournal.Stamp.of(snapshot));
+        journal.append(Mutation.createSave("Career"));
+
+        Files.writeString(snapshot, "a newer snapshot");
+
+        ChangeJournal reopened = new ChangeJournal(journal.getFile());
+        assertTrue(reopened.recover(ChangeJournal.Stamp.of(snapshot)).isEmpty());
+        assertFalse(reopened.hasRecords());
+    }
+
+    @Test
+    void storeReplaysItsJournalAndCompactsIt() throws IOException {
+        Path file = dir.resolve("saves.json");
+        JournaledStore store = new JournaledStore(new JsonDataStore(), file, 256, JournaledStore.DEFAULT_CACHE_CAPACITY);
+        List<CareerSave> saves = store.load();
+        for (Mutation m : List.of(
+                Mutation.createSave("Career"),
+                Mutation.addInjury("Career", "A", LocalDate.of(2025, 3, 1)),
+                Mutation.addInjury("Career", "B", null),
+                Mutation.editPlayerName("Career", 1, "C"),
+                Mutation.deleteInjury("Career", 0))) {
+            store.markDirty(m);
+            m.applyTo(saves);
+            store.append(m);
+        }
+        assertFalse(store.needsCompaction());
+        for (int i = 0; i < 20; i++) {
+            Mutation m = Mutation.addInjury("Career", "Player " + i, LocalDate.of(2025, 4, 1));
+            store.markDirty(m);
+            m.applyTo(saves);
+            store.append(m);
+        }
+
+        // Only the journal holds the edits so far
+        List<CareerSave> replayed = new JournaledStore(new JsonDataStore(), file).load();
+        assertEquals(List.of("C", "Player 0"), names(replayed).subList(0, 2));
+        assertEquals(21, names(replayed).size());
+
+        assertTrue(store.needsCompaction());
+        store.writeSnapshot(store.prepareSnapshot(saves, false));
+        assertFalse(store.needsCompaction());
+        assertFalse(store.hasJournaledChanges());
+
+        JournaledStore reopened = new JournaledStore(new JsonDataStore(), file);
+        List<CareerSave> fromSnapshot = reopened.load();
+        assertFalse(reopened.hasJournaledChanges());
+        reopened.ensureLoaded(fromSnapshot.get(0));
+        assertEquals(names(replayed), names(fromSnapshot));
+    }
+
+    private static List<String> names(List<CareerSave> saves) {
+        CareerSave save = saves.get(0);
+        assertEquals("Career", save.getName());
+        return save.getInjuries().stream().map(Injury::getPlayerName).toList();
+    }
+
+    private Path snapshot() throws IOException {
+        Path snapshot = dir.resolve("saves.json");
+        Files.writeString(snapshot, "[]");
+        return snapshot;
+    }
+}
@@ -0,0 +1,156 @@
+package com.redcatdev86.storage;
+
+import com.redcatdev86.index.PlayerNameDictionary;
+import com.redcatdev86.model.CareerSave;
+import com.redcatdev86.model.ColumnarInjuryList;
+import com.redcatdev86.model.Injury;
+import com.redcatdev86.model.InjuryColumns;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Saves written as JSON, read back and written as binary (and the other way round) come
+ * back row for row, including players and recovery dates that are missing. The format and
+ * compression are told by the file's header, not its name.
+ */
+class DataStoreRoundTripTest {
+
+    private static final LocalDate BASE = LocalDate.of(2025, 1, 1);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void jsonToBinaryToJson() throws IOException {
+        List<CareerSave> saves = saves();
+        PlayerNameDictionary names = new PlayerNameDictionary();
+        JsonDataStore json = new JsonDataStore(names);
+        BinaryDataStore binary = new BinaryDataStore(names);
+
+        json.save(dir.resolve("a.json"), saves);
+        binary.save(dir.resolve("b.fcb"), json.load(dir.resolve("a.json")));
+        json.save(dir.resolve("c.json"), binary.load(dir.resolve("b.fcb")));
+
+        assertSameSaves(saves, json.load(dir.resolve("c.json")));
+    }
+
+    @Test
+    void binaryToJsonToBinary() throws IOException {
+        List<CareerSave> saves = saves();
+        PlayerNameDictionary names = new PlayerNameDictionary();
+        JsonDataStore json = new JsonDataStore(names);
+        BinaryDataStore binary = new BinaryDataStore(names, Compression.GZIP, Compression.DEFAULT_LEVEL);
+
+        binary.save(dir.resolve("a.fcb"), saves);
+        json.save(dir.resolve("b.json"), binary.load(dir.resolve("a.fcb")));
+        binary.save(dir.resolve("c.fcb"), json.load(dir.resolve("b.json")));
+
+        List<CareerSave> loaded = binary.load(dir.resolve("c.fcb"));
+        assertSameSaves(saves, loaded);
+        assertInstanceOf(ColumnarInjuryList.class, loaded.get(2).getInjuries());
+    }
+
+    @Test
+    void formatIsToldByTheHeader() throws IOException {
+        List<CareerSave> saves = saves();
+        Path binaryNamedJson = dir.resolve("binary.json");
+        Path jsonNamedBinary = dir.resolve("json.fcb");
+        new BinaryDataStore().save(binaryNamedJson, saves);
+        new JsonDataStore().save(jsonNamedBinary, saves);
+
+        assertSameSaves(saves, new FormatDetectingDataStore(DataFormat.JSON).load(binaryNamedJson));
+        assertSameSaves(saves, new FormatDetectingDataStore(DataFormat.JSON).load(jsonNamedBinary));
+    }
+
+    @Test
+    void compressionIsToldByTheMagicBytes() throws IOException {
+        List<CareerSave> saves = saves();
+        for (Compression compression : List.of(Compression.GZIP, Compression.DEFLATE)) {
+            Path json = dir.resolve("plain-" + compression + ".json");
+            Path binary = dir.resolve("plain-" + compression + ".fcb");
+            new JsonDataStore(new PlayerNameDictionary(), compression, Compression.DEFAULT_LEVEL).save(json, saves);
+            new BinaryDataStore(new PlayerNameDictionary(), compression, 9).save(binary, saves);
+
+            byte[] head = Files.readAllBytes(json);
+            assertEquals(compression, Compression.detect(head[0] & 0xff, head[1] & 0xff));
+            assertSameSaves(saves, new FormatDetectingDataStore(DataFormat.JSON).load(json));
+            assertSameSaves(saves, new FormatDetectingDataStore(DataFormat.JSON).load(binary));
+        }
+
+        // Uncompressed files never look compressed
+        Path json = dir.resolve("plain.json");
+        Path binary = dir.resolve("plain.fcb");
+        new JsonDataStore().save(json, saves);
+        new BinaryDataStore().save(binary, saves);
+        for (Path file : List.of(json, binary)) {
+            byte[] head = Files.readAllBytes(file);
+            assertEquals(Compression.NONE, Compression.detect(head[0] & 0xff, head[1] & 0xff));
+        }
+    }
+
+    @Test
+    void newerBinaryVersionIsRejected() throws IOException {
+        Path file = dir.resolve("a.fcb");
+        new BinaryDataStore().save(file, saves());
+
+        byte[] bytes = Files.readAllBytes(file);
+        // int magic, then short version
+        bytes[4] = (byte) ((BinaryDataStore.VERSION + 1) >> 8);
+        bytes[5] = (byte) (BinaryDataStore.VERSION + 1);
+        Files.write(file, bytes);
+
+        IOException e = assertThrows(IOException.class, () -> new BinaryDataStore().load(file));
+        assertTrue(e.getMessage().contains("version"), e.getMessage());
+    }
+
+    // An empty save, a small one and one large enough to load as columns
+    private static List<CareerSave> saves() {
+        CareerSave empty = new CareerSave("Empty");
+
+        CareerSave small = new CareerSave("Small");
+        small.getInjuries().add(new Injury("Lionel Rossi", BASE));
+        small.getInjuries().add(new Injury(null, BASE.plusDays(3)));
+        small.getInjuries().add(new Injury("Kévin Müller", null));
+        small.getInjuries().add(new Injury(null, null));
+        small.getInjuries().add(new Injury("", BASE.minusDays(700)));
+
+        CareerSave large = new CareerSave("Large");
+        List<Injury> rows = new ArrayList<>();
+        for (int i = 0; i < ColumnarInjuryList.THRESHOLD + 10; i++) {
+            String name = i % 97 == 0 ? null : "Player " + (i % 300);
+            LocalDate date = i % 89 == 0 ? null : BASE.plusDays(i % 730 - 365);
+            rows.add(new Injury(name, date));
+        }
+        large.setInjuries(rows);
+
+        return List.of(empty, small, large);
+    }
+
+    private static void assertSameSaves(List<CareerSave> expected, List<CareerSave> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int s = 0; s < expected.size(); s++) {
+            CareerSave want = expected.get(s);
+            CareerSave got = actual.get(s);
+            assertEquals(want.getName(), got.getName());
+            List<Injury> wantRows = want.getInjuries();
+            List<Injury> gotRows = got.getInjuries();
+            assertEquals(wantRows.size(), gotRows.size(), want.getName());
+            for (int i = 0; i < wantRows.size(); i++) {
+                assertEquals(wantRows.get(i).getPlayerName(), InjuryColumns.playerNameAt(gotRows, i), want.getName() + " name at " + i);
+                assertEquals(InjuryColumns.toEpochDay(wantRows.get(i).getRecoveryDate()), InjuryColumns.epochDayAt(gotRows, i), want.getName() + " date at " + i);
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.redcatdev86.storage;
+
+import com.redcatdev86.index.PlayerNameDictionary;
+import com.redcatdev86.model.CareerSave;
+import com.redcatdev86.model.Injury;
+import com.redcatdev86.model.ModelSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * {@link CareerSaveRepository#snapshot}: taken without copying, shared between edits where
+ * nothing changed, and never changed by later edits.
+ */
+class RepositorySnapshotTest {
+
+    private static final LocalDate BASE = LocalDate.of(2025, 1, 1);
+
+    @Test
+    void snapshotIsTheCurrentRootNotACopy() {
+        CareerSaveRepository repository = repository();
+        CareerSave career = repository.createSave("Career");
+        repository.addInjury(career, "A", BASE);
+
+        ModelSnapshot first = repository.snapshot();
+
+        assertSame(first, repository.snapshot());
+        repository.addInjury(career, "B", BASE);
+        assertNotSame(first, repository.snapshot());
+    }
+
+    @Test
+    void editsShareTheVectorsOfOtherSaves() {
+        CareerSaveRepository repository = repository();
+        CareerSave edited = repository.createSave("Edited");
+        CareerSave untouched = repository.createSave("Untouched");
+        List<Injury> rows = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            rows.add(new Injury("Player " + i, BASE.plusDays(i)));
+        }
+        repository.addInjuries(untouched, rows);
+        repository.addInjury(edited, "A", BASE);
+
+        ModelSnapshot before = repository.snapshot();
+        repository.setPlayerName(edited, repository.injuryIdAt(edited, 0), "B");
+        ModelSnapshot after = repository.snapshot();
+
+        assertSame(before.find("Untouched").injuries(), after.find("Untouched").injuries());
+        assertNotSame(before.find("Edited").injuries(), after.find("Edited").injuries());
+    }
+
+    @Test
+    void laterEditsLeaveASnapshotAsItWas() {
+        CareerSaveRepository repository = repository();
+        CareerSave career = repository.createSave("Career");
+        for (int i = 0; i < 200; i++) {
+            repository.addInjury(career, "Player " + i, BASE.plusDays(i));
+        }
+        ModelSnapshot taken = repository.snapshot();
+
+        repository.setPlayerName(career, repository.injuryIdAt(career, 0), "Renamed");
+        repository.setRecoveryDate(career, repository.injuryIdAt(career, 1), null);
+        repository.deleteInjury(career, repository.injuryIdAt(career, 2));
+        repository.addInjury(career, "New", BASE);
+        repository.createSave("Other");
+
+        ModelSnapshot.Save save = taken.find("Career");
+        assertEquals(1, taken.size());
+        assertEquals(200, save.injuries().size());
+        for (int i = 0; i < 200; i++) {
+            assertEquals("Player " + i, save.injuries().playerNameAt(i));
+            assertEquals(BASE.plusDays(i), save.injuries().get(i).getRecoveryDate());
+        }
+        assertEquals("Renamed", repository.snapshot().find("Career").injuries().playerNameAt(0));
+    }
+
+    private static CareerSaveRepository repository() {
+        return new CareerSaveRepository(new PlayerNameDictionary());
+    }
+}